@@ -209,6 +209,12 @@ public final class Database implements ITangoDB {
         cache.setAttributeProperties(deviceName, attributeName, properties);
     }
 
+    @Override
+    public void setAttributeProperties(final String deviceName, final Map<String, Map<String, String[]>> properties)
+            throws DevFailed {
+        cache.setAttributeProperties(deviceName, properties);
+    }
+
     @Override
     public void deleteDeviceProperty(final String deviceName, final String propertyName) throws DevFailed {
         cache.deleteDeviceProperty(deviceName, propertyName);
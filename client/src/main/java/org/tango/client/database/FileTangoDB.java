@@ -150,6 +150,14 @@ public final class FileTangoDB implements ITangoDB {
         }
     }
 
+    @Override
+    public void setAttributeProperties(final String deviceName, final Map<String, Map<String, String[]>> properties)
+            throws DevFailed {
+        for (final Map.Entry<String, Map<String, String[]>> entry : properties.entrySet()) {
+            setAttributeProperties(deviceName, entry.getKey(), entry.getValue());
+        }
+    }
+
     private void loadFileProperties(final File propertiesFiles) throws DevFailed {
         BufferedReader in = null;
         try {
@@ -140,6 +140,19 @@ public interface ITangoDB {
     void setAttributeProperties(final String deviceName, final String attributeName,
             final Map<String, String[]> properties) throws DevFailed;
 
+    /**
+     * Set some properties of several attributes of a device in a single request. (execute
+     * DbPutDeviceAttributeProperty2 on DB device)
+     * 
+     * @param deviceName
+     *            The device name
+     * @param properties
+     *            The properties names and values, by attribute name.
+     * @throws DevFailed
+     */
+    void setAttributeProperties(final String deviceName, final Map<String, Map<String, String[]>> properties)
+            throws DevFailed;
+
     /**
      * Remove a device property from tango DB
      * 
@@ -10,8 +10,10 @@ import org.tango.client.database.DeviceImportInfo;
 import org.tango.utils.CaseInsensitiveMap;
 import org.tango.utils.DevFailedUtils;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.regex.Pattern;
 
 /**
@@ -29,12 +31,21 @@ public final class DatabaseCache implements ICachableDatabase {
     private final NoCacheDatabase dbDevice;
     private final String version;
     private final Connection database;
+    private final Callable<Connection> checkDatabase;
 
     public DatabaseCache(final Connection database, final NoCacheDatabase dbDevice) throws DevFailed {
-        this.dbDevice = dbDevice;
         // check version of stored procedure
-        DeviceProxy proxy = new DeviceProxy("tango://" + database.get_tango_host() + "/" + database.get_device().name());
-        version = proxy.read_attribute("StoredProcedureRelease").extractString();
+        this(database, dbDevice, newProxy(database).read_attribute("StoredProcedureRelease").extractString(),
+                () -> newProxy(database));
+    }
+
+    /**
+     * @param checkDatabase creates the connection used to check a snapshot in background
+     */
+    DatabaseCache(final Connection database, final NoCacheDatabase dbDevice, final String version,
+            final Callable<Connection> checkDatabase) {
+        this.dbDevice = dbDevice;
+        this.version = version;
         logger.debug("current database cache version {}", version);
         if (Pattern.matches(RELEASE_1_X, version)) {
             isCacheAvailable = true;
@@ -42,15 +53,20 @@ public final class DatabaseCache implements ICachableDatabase {
             isCacheAvailable = false;
         }
         this.database = database;
-
+        this.checkDatabase = checkDatabase;
     }
 
     @Override
     public void loadCache(final String serverName, final String hostName) throws DevFailed {
         if (isCacheAvailable) {
             try {
-                serverCache = new ServerCache(database);
-                serverCache.fillCache(serverName, hostName);
+                final ServerCacheSnapshot snapshot = ServerCacheSnapshot.of(serverName);
+                if (snapshot == null) {
+                    serverCache = new ServerCache(database);
+                    serverCache.fillCache(serverName, serverCache.getServerData(serverName, hostName));
+                } else {
+                    loadCache(snapshot, serverName, hostName);
+                }
             } catch (final DevFailed e) {
                 serverCache = null;
                 logger.error("Failed to load cache for server {} on host {}", serverName, hostName);
@@ -62,6 +78,66 @@ public final class DatabaseCache implements ICachableDatabase {
         }
     }
 
+    /**
+     * Load the cache from the database, or from the snapshot if the database does not answer in time
+     */
+    void loadCache(final ServerCacheSnapshot snapshot, final String serverName, final String hostName)
+            throws DevFailed {
+        serverCache = new ServerCache(database);
+        final int timeout = ServerCacheSnapshot.getTimeout();
+        final String databaseId = database.get_tango_host() + " " + version;
+        String[] data;
+        try {
+            data = serverCache.getServerData(serverName, hostName, timeout);
+        } catch (final DevFailed e) {
+            final String[] snapshotData = snapshot.read(databaseId, serverName, hostName);
+            if (snapshotData != null) {
+                logger.warn("database did not send the configuration of server {} ({}), loading it from {}",
+                        serverName, DevFailedUtils.toString(e), snapshot.getFile());
+                serverCache.fillCache(serverName, snapshotData);
+                checkSnapshot(snapshot, databaseId, serverName, hostName, snapshotData);
+                return;
+            }
+            if (timeout >= ServerCache.SERVER_DATA_TIMEOUT) {
+                throw e;
+            }
+            data = serverCache.getServerData(serverName, hostName);
+        }
+        serverCache.fillCache(serverName, data);
+        snapshot.write(databaseId, serverName, hostName, data);
+    }
+
+    /**
+     * Compare in background a snapshot with the database, and update it if the configuration has changed. The
+     * database is queried with its own proxy, not to change the timeout of the one used by the server.
+     */
+    private void checkSnapshot(final ServerCacheSnapshot snapshot, final String databaseId, final String serverName,
+            final String hostName, final String[] snapshotData) {
+        final Thread thread = new Thread(() -> {
+            try {
+                final String[] data = new ServerCache(checkDatabase.call()).getServerData(serverName, hostName);
+                if (Arrays.equals(data, snapshotData)) {
+                    logger.debug("database snapshot of server {} is up to date", serverName);
+                } else {
+                    snapshot.write(databaseId, serverName, hostName, data);
+                    logger.warn("configuration of server {} has changed in the database since its snapshot, "
+                            + "it will be applied at next start", serverName);
+                }
+            } catch (final DevFailed e) {
+                logger.warn("cannot check database snapshot of server {}: {}", serverName,
+                        DevFailedUtils.toString(e));
+            } catch (final Exception e) {
+                logger.warn("cannot check database snapshot of server " + serverName, e);
+            }
+        }, "Database-Snapshot-Check");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static DeviceProxy newProxy(final Connection database) throws DevFailed {
+        return new DeviceProxy("tango://" + database.get_tango_host() + "/" + database.get_device().name());
+    }
+
     @Override
     public void clearCache() {
         serverCache = null;
@@ -181,6 +257,21 @@ public final class DatabaseCache implements ICachableDatabase {
     @Override
     public void setAttributeProperties(final String deviceName, final String attributeName,
             final Map<String, String[]> properties) throws DevFailed {
+        updateAttributeCache(deviceName, attributeName, properties);
+        dbDevice.setAttributeProperties(deviceName, attributeName, properties);
+    }
+
+    @Override
+    public void setAttributeProperties(final String deviceName, final Map<String, Map<String, String[]>> properties)
+            throws DevFailed {
+        for (final Map.Entry<String, Map<String, String[]>> entry : properties.entrySet()) {
+            updateAttributeCache(deviceName, entry.getKey(), entry.getValue());
+        }
+        dbDevice.setAttributeProperties(deviceName, properties);
+    }
+
+    private void updateAttributeCache(final String deviceName, final String attributeName,
+            final Map<String, String[]> properties) {
         if (serverCache != null) {
             DeviceCache deviceCache = serverCache.getDeviceCache(deviceName);
             if (deviceCache == null) {
@@ -192,7 +283,6 @@ public final class DatabaseCache implements ICachableDatabase {
             }
             attributeCache.addProperties(properties);
         }
-        dbDevice.setAttributeProperties(deviceName, attributeName, properties);
     }
 
     @Override
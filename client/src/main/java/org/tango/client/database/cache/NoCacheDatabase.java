@@ -240,18 +240,35 @@ public final class NoCacheDatabase implements ICachableDatabase {
     @Override
     public void setAttributeProperties(final String deviceName, final String attributeName,
             final Map<String, String[]> properties) throws DevFailed {
+        setAttributeProperties(deviceName, Collections.singletonMap(attributeName, properties));
+    }
+
+    /**
+     * Set some properties of several attributes. (execute DbPutDeviceAttributeProperty2 on DB device)
+     *
+     * @param deviceName
+     *            The device name
+     * @param properties
+     *            The properties names and values, by attribute name.
+     * @throws DevFailed
+     */
+    @Override
+    public void setAttributeProperties(final String deviceName, final Map<String, Map<String, String[]>> properties)
+            throws DevFailed {
         final DeviceData argin = new DeviceData();
         final List<String> args = new ArrayList<String>();
         args.add(deviceName);
-        args.add(Integer.toString(1)); // attribute number
-        args.add(attributeName);
-        args.add(Integer.toString(properties.size())); // property number
-        for (final Map.Entry<String, String[]> entry : properties.entrySet()) {
-            args.add(entry.getKey());
-            final String[] propValues = entry.getValue();
-            args.add(Integer.toString(propValues.length));
-            for (final String propValue : propValues) {
-                args.add(propValue);
+        args.add(Integer.toString(properties.size())); // attribute number
+        for (final Map.Entry<String, Map<String, String[]>> attribute : properties.entrySet()) {
+            args.add(attribute.getKey());
+            args.add(Integer.toString(attribute.getValue().size())); // property number
+            for (final Map.Entry<String, String[]> entry : attribute.getValue().entrySet()) {
+                args.add(entry.getKey());
+                final String[] propValues = entry.getValue();
+                args.add(Integer.toString(propValues.length));
+                for (final String propValue : propValues) {
+                    args.add(propValue);
+                }
             }
         }
         argin.insert(args.toArray(new String[args.size()]));
@@ -42,6 +42,11 @@ public final class ServerCache {
     private final Map<String, Server> servers = new HashMap<String, ServerCache.Server>();
     private final Map<String, DeviceCache> deviceCaches = new HashMap<String, DeviceCache>();
 
+    /**
+     * Timeout in milliseconds of DbGetDataForServerCache, big because its result can be very big
+     */
+    static final int SERVER_DATA_TIMEOUT = 13000;
+
     public ServerCache(final Connection database) throws DevFailed {
         this.database = database;
 
@@ -49,13 +54,55 @@ public final class ServerCache {
 
     public void fillCache(final String serverName, final String hostName) throws DevFailed {
         if (!servers.containsKey(serverName)) {
-            // set a big timeout because DbGetDataForServerCache can be very big
-            this.database.set_timeout_millis(13000);
+            fillCache(serverName, getServerData(serverName, hostName));
+        }
+    }
+
+    /**
+     * Get the configuration of a server from the database
+     *
+     * @param serverName the server name
+     * @param hostName   the host name
+     * @return the result of DbGetDataForServerCache
+     * @throws DevFailed
+     */
+    public String[] getServerData(final String serverName, final String hostName) throws DevFailed {
+        return getServerData(serverName, hostName, SERVER_DATA_TIMEOUT);
+    }
+
+    /**
+     * Get the configuration of a server from the database
+     *
+     * @param serverName the server name
+     * @param hostName   the host name
+     * @param timeout    the timeout of the request in milliseconds
+     * @return the result of DbGetDataForServerCache
+     * @throws DevFailed
+     */
+    public String[] getServerData(final String serverName, final String hostName, final int timeout)
+            throws DevFailed {
+        this.database.set_timeout_millis(timeout);
+        try {
             final DeviceData in = new DeviceData();
             in.insert(new String[] { serverName, hostName });
+            logger.debug("getting cache data of server {} with host name {}", serverName, hostName);
+            return database.command_inout("DbGetDataForServerCache", in).extractStringArray();
+        } finally {
+            // reset default timeout
+            this.database.set_timeout_millis(3000);
+        }
+    }
 
-            logger.debug("filling cache of server {} with host name {}", serverName, hostName);
-            final String[] out = database.command_inout("DbGetDataForServerCache", in).extractStringArray();
+    /**
+     * Fill the cache with the configuration of a server
+     *
+     * @param serverName the server name
+     * @param out        the result of DbGetDataForServerCache, from the database or from a snapshot
+     * @throws DevFailed
+     */
+    public void fillCache(final String serverName, final String[] out) throws DevFailed {
+        if (!servers.containsKey(serverName)) {
+            logger.debug("filling cache of server {}", serverName);
             if (out.length == 2) {
                 throw DevFailedUtils.newDevFailed("cache for " + serverName + " not found");
             }
@@ -262,9 +309,7 @@ public final class ServerCache {
             // TODO 13 - TAC device import parameters (2 or 8 elts - 2 when
             // admin device not defined in db (second one
             // being "Not found"))
-            // reset default timeout
             // TODO pipes
-            this.database.set_timeout_millis(3000);
         }
     }
 
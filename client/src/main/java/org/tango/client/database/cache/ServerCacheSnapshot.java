@@ -0,0 +1,168 @@
+package org.tango.client.database.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A copy on disk of the configuration of a server, as returned by DbGetDataForServerCache. It is written after each
+ * load from the database, so that a server can still start when the database does not send its configuration within
+ * {@link #TIMEOUT_PROPERTY}.
+ * <p>
+ * The file holds a header (the database, the server and its host) followed by the strings of the configuration, each
+ * one as its length and its UTF-8 bytes. It is memory mapped to be read.
+ */
+final class ServerCacheSnapshot {
+
+    /**
+     * System property for the directory of the snapshots. No snapshot is used if not set.
+     */
+    static final String DIRECTORY_PROPERTY = "org.tango.client.database.snapshot";
+    /**
+     * System property for the time in milliseconds given to the database to send the configuration before the
+     * snapshot is used. Default is the normal timeout of DbGetDataForServerCache (13000), so that the snapshot is
+     * only used when the database is down.
+     */
+    static final String TIMEOUT_PROPERTY = "org.tango.client.database.snapshot.timeout";
+    private static final int DEFAULT_TIMEOUT = ServerCache.SERVER_DATA_TIMEOUT;
+
+    private static final int MAGIC = 0x54534e50;
+    private static final int FORMAT = 1;
+
+    private final Logger logger = LoggerFactory.getLogger(ServerCacheSnapshot.class);
+    private final Path file;
+
+    ServerCacheSnapshot(final Path directory, final String serverName) {
+        file = directory.resolve(serverName.replace('/', '_') + ".snapshot");
+    }
+
+    /**
+     * @param serverName the server name
+     * @return the snapshot of the server, null if snapshots are not enabled
+     */
+    static ServerCacheSnapshot of(final String serverName) {
+        final String directory = System.getProperty(DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        return new ServerCacheSnapshot(Paths.get(directory), serverName);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the time in milliseconds given to the database to send the configuration
+     */
+    static int getTimeout() {
+        return Integer.getInteger(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Read the snapshot
+     *
+     * @param database   the database, the snapshot is rejected if it was taken from another one or another version
+     * @param serverName the server name
+     * @param hostName   the host name
+     * @return the configuration, null if there is no valid snapshot
+     */
+    String[] read(final String database, final String serverName, final String hostName) {
+        if (!Files.isRegularFile(file)) {
+            logger.debug("no database snapshot {}", file);
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                logger.warn("database snapshot {} has an unknown format, it is ignored", file);
+                return null;
+            }
+            if (!database.equals(readString(buffer)) || !serverName.equals(readString(buffer))
+                    || !hostName.equals(readString(buffer))) {
+                logger.info("database snapshot {} was taken from another database or server, it is ignored", file);
+                return null;
+            }
+            final int size = buffer.getInt();
+            if (size < 0 || size > buffer.remaining() / Integer.BYTES) {
+                throw new BufferUnderflowException();
+            }
+            final String[] data = new String[size];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = readString(buffer);
+            }
+            if (buffer.hasRemaining()) {
+                logger.warn("database snapshot {} is corrupted, it is ignored", file);
+                return null;
+            }
+            return data;
+        } catch (final IOException | BufferUnderflowException e) {
+            logger.warn("database snapshot {} cannot be read, it is ignored: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Write the snapshot. A failure is only logged.
+     *
+     * @param database   the database
+     * @param serverName the server name
+     * @param hostName   the host name
+     * @param data       the configuration
+     */
+    void write(final String database, final String serverName, final String hostName, final String[] data) {
+        try {
+            Files.createDirectories(file.getParent());
+            final Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT);
+                    writeString(out, database);
+                    writeString(out, serverName);
+                    writeString(out, hostName);
+                    out.writeInt(data.length);
+                    for (final String value : data) {
+                        writeString(out, value);
+                    }
+                }
+                // readers never see a partial snapshot
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+            logger.debug("database snapshot {} written", file);
+        } catch (final IOException e) {
+            logger.warn("database snapshot {} cannot be written: {}", file, e.toString());
+        }
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,143 @@
+package org.tango.client.database.cache;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.TangoApi.Connection;
+import fr.esrf.TangoApi.DeviceData;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tango.utils.DevFailedUtils;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DatabaseCacheTest {
+
+    private static final String VERSION = "release 1.13";
+    private static final String SERVER = "test/1";
+    private static final String HOST = "host";
+    private static final String DEVICE = "test/1/dev";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ServerCacheSnapshot snapshot;
+    private String databaseId;
+
+    /**
+     * @return a minimal DbGetDataForServerCache result, with one device having the property "origin"
+     */
+    private static String[] data(final String origin) {
+        return new String[]{"dserver/test/1", "IOR:0", "5", SERVER, HOST, "", "1234", "DServer",
+                "notifd/factory/host", "Not found", "dserver/test/1@host", "Not found", SERVER, "1", "Test", "0", "Test", "0", "Test", "1", DEVICE,
+                DEVICE, "1", "origin", "1", origin, DEVICE, "0"};
+    }
+
+    private static Connection answering(final String[] data) throws DevFailed {
+        final Connection database = mock(Connection.class);
+        final DeviceData out = mock(DeviceData.class);
+        when(out.extractStringArray()).thenReturn(data);
+        when(database.get_tango_host()).thenReturn("tangodb:10000");
+        when(database.command_inout(eq("DbGetDataForServerCache"), any(DeviceData.class))).thenReturn(out);
+        return database;
+    }
+
+    private static Connection failing() throws DevFailed {
+        final Connection database = mock(Connection.class);
+        when(database.get_tango_host()).thenReturn("tangodb:10000");
+        when(database.command_inout(eq("DbGetDataForServerCache"), any(DeviceData.class))).thenThrow(
+                DevFailedUtils.newDevFailed("API_DeviceTimedOut", "timeout"));
+        return database;
+    }
+
+    private static String getOrigin(final DatabaseCache cache) throws DevFailed {
+        return cache.getDeviceProperties(DEVICE, "origin").get("origin")[0];
+    }
+
+    @Before
+    public void setUp() {
+        snapshot = new ServerCacheSnapshot(folder.getRoot().toPath(), SERVER);
+        databaseId = "tangodb:10000 " + VERSION;
+    }
+
+    @Test
+    public void loadsFromDatabaseAndWritesSnapshot() throws DevFailed {
+        final Connection database = answering(data("database"));
+        final DatabaseCache cache = new DatabaseCache(database, null, VERSION, () -> {
+            throw new AssertionError("no check needed");
+        });
+
+        cache.loadCache(snapshot, SERVER, HOST);
+
+        assertEquals("database", getOrigin(cache));
+        assertArrayEquals(data("database"), snapshot.read(databaseId, SERVER, HOST));
+        // the database is given its normal timeout
+        verify(database).set_timeout_millis(ServerCache.SERVER_DATA_TIMEOUT);
+    }
+
+    @Test
+    public void loadsFromSnapshotWhenDatabaseFails() throws Exception {
+        snapshot.write(databaseId, SERVER, HOST, data("snapshot"));
+        final Connection database = failing();
+        final DatabaseCache cache = new DatabaseCache(database, null, VERSION, () -> answering(data("changed")));
+
+        cache.loadCache(snapshot, SERVER, HOST);
+
+        assertEquals("snapshot", getOrigin(cache));
+        verify(database, times(1)).command_inout(eq("DbGetDataForServerCache"), any(DeviceData.class));
+        // the snapshot is updated in background for the next start
+        final long end = System.currentTimeMillis() + 10000;
+        while (!Arrays.equals(data("changed"), snapshot.read(databaseId, SERVER, HOST))) {
+            if (System.currentTimeMillis() > end) {
+                fail("snapshot not updated");
+            }
+            Thread.sleep(10);
+        }
+        assertEquals("snapshot", getOrigin(cache));
+    }
+
+    @Test
+    public void failsWithoutSnapshot() throws DevFailed {
+        final Connection database = failing();
+        final DatabaseCache cache = new DatabaseCache(database, null, VERSION, () -> {
+            throw new AssertionError("no check needed");
+        });
+
+        try {
+            cache.loadCache(snapshot, SERVER, HOST);
+            fail();
+        } catch (final DevFailed e) {
+            assertEquals("API_DeviceTimedOut", e.errors[0].reason);
+        }
+        // no retry since the database already had its normal timeout
+        verify(database, times(1)).command_inout(eq("DbGetDataForServerCache"), any(DeviceData.class));
+    }
+
+    @Test
+    public void retriesWithNormalTimeoutWithoutSnapshot() throws DevFailed {
+        final Connection database = failing();
+        final DatabaseCache cache = new DatabaseCache(database, null, VERSION, () -> {
+            throw new AssertionError("no check needed");
+        });
+        System.setProperty(ServerCacheSnapshot.TIMEOUT_PROPERTY, "500");
+        try {
+            cache.loadCache(snapshot, SERVER, HOST);
+            fail();
+        } catch (final DevFailed e) {
+            verify(database).set_timeout_millis(500);
+            verify(database).set_timeout_millis(ServerCache.SERVER_DATA_TIMEOUT);
+        } finally {
+            System.clearProperty(ServerCacheSnapshot.TIMEOUT_PROPERTY);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.tango.client.database.cache;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ServerCacheSnapshotTest {
+
+    private static final String DATABASE = "tangodb:10000 release 1.13";
+    private static final String[] DATA = new String[]{"dserver/test/1", "Not found", "", "é€", "polled_attr"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ServerCacheSnapshot snapshot;
+
+    @Before
+    public void setUp() {
+        snapshot = new ServerCacheSnapshot(folder.getRoot().toPath(), "test/1");
+    }
+
+    @Test
+    public void readWritten() {
+        snapshot.write(DATABASE, "test/1", "host", DATA);
+
+        assertArrayEquals(DATA, snapshot.read(DATABASE, "test/1", "host"));
+    }
+
+    @Test
+    public void noSnapshot() {
+        assertNull(snapshot.read(DATABASE, "test/1", "host"));
+    }
+
+    @Test
+    public void otherDatabaseIsRejected() {
+        snapshot.write(DATABASE, "test/1", "host", DATA);
+
+        assertNull(snapshot.read("tangodb:10000 release 1.14", "test/1", "host"));
+        assertNull(snapshot.read(DATABASE, "test/1", "otherhost"));
+    }
+
+    @Test
+    public void truncatedSnapshotIsRejected() throws IOException {
+        snapshot.write(DATABASE, "test/1", "host", DATA);
+        final byte[] bytes = Files.readAllBytes(snapshot.getFile());
+        Files.write(snapshot.getFile(), Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertNull(snapshot.read(DATABASE, "test/1", "host"));
+    }
+
+    @Test
+    public void timeoutCanBeConfigured() {
+        assertEquals(13000, ServerCacheSnapshot.getTimeout());
+        System.setProperty(ServerCacheSnapshot.TIMEOUT_PROPERTY, "500");
+        try {
+            assertEquals(500, ServerCacheSnapshot.getTimeout());
+        } finally {
+            System.clearProperty(ServerCacheSnapshot.TIMEOUT_PROPERTY);
+        }
+    }
+}
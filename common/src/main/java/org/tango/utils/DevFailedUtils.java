@@ -9,10 +9,20 @@ import org.slf4j.LoggerFactory;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class DevFailedUtils {
     private static final String TANGO_ERROR = "TANGO_ERROR";
     private static final Logger LOGGER = LoggerFactory.getLogger(DevFailedUtils.class);
+    /**
+     * Expected errors are logged at most once per period
+     */
+    private static final long EXPECTED_LOG_PERIOD = TimeUnit.SECONDS.toNanos(1);
+    private static final AtomicLong LAST_EXPECTED_LOG = new AtomicLong(System.nanoTime() - EXPECTED_LOG_PERIOD);
+    private static final LongAdder NOT_LOGGED_EXPECTED = new LongAdder();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
 
     private DevFailedUtils() {
 
@@ -32,6 +42,67 @@ public final class DevFailedUtils {
         return ex;
     }
 
+    /**
+     * Create a DevFailed for an expected error, caused by the client request (unknown attribute, not allowed in the
+     * current state, not polled...). Unlike {@link #newDevFailed(String, String)}, no stack trace is built for the
+     * origin, which is only the caller class and method, and the error is only logged at debug level, at most once
+     * per second.
+     *
+     * @param reason
+     *            the reason
+     * @param desc
+     *            the description
+     * @return the DevFailed
+     */
+    public static DevFailed newExpectedDevFailed(final String reason, final String desc) {
+        return newExpectedDevFailed(new DevError(reason, ErrSeverity.ERR, desc, getCallerOrigin()));
+    }
+
+    /**
+     * Create a DevFailed for an expected error from a preallocated error
+     *
+     * @param error
+     *            the error, see {@link #buildExpectedDevError(String, String)}. It is shared, not copied.
+     * @return the DevFailed
+     */
+    public static DevFailed newExpectedDevFailed(final DevError error) {
+        if (LOGGER.isDebugEnabled()) {
+            final long now = System.nanoTime();
+            final long last = LAST_EXPECTED_LOG.get();
+            if (now - last >= EXPECTED_LOG_PERIOD && LAST_EXPECTED_LOG.compareAndSet(last, now)) {
+                LOGGER.debug("{}, {} ({} other errors not logged)", error.reason, error.desc,
+                        NOT_LOGGED_EXPECTED.sumThenReset());
+            } else {
+                NOT_LOGGED_EXPECTED.increment();
+            }
+        }
+        return new DevFailed(error.reason, new DevError[] { error });
+    }
+
+    /**
+     * Build the error of an expected error, that may be kept as a constant
+     *
+     * @param reason
+     *            the reason
+     * @param desc
+     *            the description
+     * @return the error, its origin is the caller class and method
+     */
+    public static DevError buildExpectedDevError(final String reason, final String desc) {
+        return new DevError(reason, ErrSeverity.ERR, desc, getCallerOrigin());
+    }
+
+    /**
+     * @return the class and method of the first caller outside of this class, found without building a stack trace
+     */
+    private static String getCallerOrigin() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(DevFailedUtils.class.getName()))
+                .findFirst()
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName())
+                .orElse(""));
+    }
+
     @Deprecated
     public static void throwDevFailed(final String msg) throws DevFailed {
         final DevFailed e = new DevFailed(msg, buildDevError(TANGO_ERROR, msg, 3));
@@ -1,9 +1,12 @@
 package org.tango.utils;
 
+import fr.esrf.Tango.DevError;
 import fr.esrf.Tango.DevFailed;
+import fr.esrf.Tango.ErrSeverity;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 /**
  * @author Igor Khokhriakov <igor.khokhriakov@hzg.de>
@@ -26,4 +29,29 @@ public class DevFailedUtilsTest {
         assertEquals(IllegalStateException.class.getCanonicalName(), result.errors[0].reason);
         assertEquals("Illegal state has been reached", result.errors[0].desc);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void newExpectedDevFailed() {
+        DevFailed result = DevFailedUtils.newExpectedDevFailed("API_AttrNotFound", "attribute foo not found");
+
+        assertEquals(1, result.errors.length);
+        assertEquals("API_AttrNotFound", result.errors[0].reason);
+        assertEquals("attribute foo not found", result.errors[0].desc);
+        assertEquals(ErrSeverity.ERR, result.errors[0].severity);
+        assertEquals(DevFailedUtilsTest.class.getName() + ".newExpectedDevFailed", result.errors[0].origin);
+        assertEquals("API_AttrNotFound", result.getMessage());
+    }
+
+    @Test
+    public void newExpectedDevFailed_template() {
+        DevError template = DevFailedUtils.buildExpectedDevError("API_AttrNotAllowed", "not a good config");
+
+        DevFailed first = DevFailedUtils.newExpectedDevFailed(template);
+        DevFailed second = DevFailedUtils.newExpectedDevFailed(template);
+
+        assertSame(template, first.errors[0]);
+        assertSame(template, second.errors[0]);
+        assertEquals("API_AttrNotAllowed", first.getMessage());
+        assertEquals(DevFailedUtilsTest.class.getName() + ".newExpectedDevFailed_template", template.origin);
+    }
+}
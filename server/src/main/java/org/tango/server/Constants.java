@@ -56,6 +56,28 @@ public final class Constants {
      */
     public static final String STATE_CHECK_ALARMS_DEFAULT = System.getProperty("org.tango.server.checkalarms", "false");
 
+    /**
+     * System property to poll the attributes of a device that have the same polling period in a single task
+     */
+    public static final String BATCHED_POLLING_PROPERTY = "org.tango.server.polling.batched";
+
+    /**
+     * System property for the number of threads that read the attributes declared with concurrent read
+     */
+    public static final String READ_THREADS_PROPERTY = "org.tango.server.read.threads";
+
+    /**
+     * System property for the number of threads that build the devices at server start-up. Devices are built one after
+     * the other if not set.
+     */
+    public static final String EXPORT_THREADS_PROPERTY = "org.tango.server.export.threads";
+
+    /**
+     * System property for the period in milliseconds of the writes of memorized values in the tango db. A memorized
+     * value is written at each write of its attribute if not set.
+     */
+    public static final String MEMORIZED_FLUSH_PERIOD_PROPERTY = "org.tango.server.memorized.flush.period";
+
     // attribute properties names in tango db
     public static final String MEMORIZED_VALUE = "__value";
     public static final String MEMORIZED_VALUE_DIM = "memorizedValueDim";
@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.tango.utils.DevFailedUtils;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * Convert the methods of the business objects into method handles when the device is built, so that reading an
+ * attribute or executing a command does not go through Method.invoke.
+ */
+public final class MethodHandleUtils {
+
+    /**
+     * Unreflected methods, shared by all the devices of a class
+     */
+    private static final Map<Method, MethodHandle> HANDLES = new ConcurrentHashMap<Method, MethodHandle>();
+
+    private MethodHandleUtils() {
+
+    }
+
+    /**
+     * Get a method handle bound to the object of the method. The arguments and returned value are converted as with
+     * Method.invoke, a ClassCastException is thrown if an argument does not match.
+     *
+     * @param method
+     *            the method
+     * @param target
+     *            the object on which the method is called, ignored for a static method
+     * @param type
+     *            the type of the returned handle
+     * @return the method handle
+     * @throws DevFailed
+     */
+    public static MethodHandle bind(final Method method, final Object target, final MethodType type)
+            throws DevFailed {
+        final MethodHandle handle = unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            return handle.asType(type);
+        }
+        // the adaptation to the type does not depend on the target, it is kept by the handle for the next devices
+        return handle.asType(type.insertParameterTypes(0, Object.class)).bindTo(target);
+    }
+
+    private static MethodHandle unreflect(final Method method) throws DevFailed {
+        MethodHandle handle = HANDLES.get(method);
+        if (handle == null) {
+            try {
+                handle = MethodHandles.publicLookup().unreflect(method);
+            } catch (final IllegalAccessException e) {
+                // public method of a class that is not public
+                try {
+                    method.setAccessible(true);
+                    handle = MethodHandles.lookup().unreflect(method);
+                } catch (final IllegalAccessException | RuntimeException e1) {
+                    throw DevFailedUtils.newDevFailed(e1);
+                }
+            }
+            HANDLES.put(method, handle);
+        }
+        return handle;
+    }
+}
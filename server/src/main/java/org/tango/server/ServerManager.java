@@ -40,6 +40,7 @@ import org.tango.server.cache.TangoCacheManager;
 import org.tango.server.events.EventManager;
 import org.tango.server.export.TangoExporter;
 import org.tango.server.monitoring.MonitoringService;
+import org.tango.server.properties.MemorizedValueWriter;
 import org.tango.utils.DevFailedUtils;
 
 import java.io.File;
@@ -280,6 +281,8 @@ public final class ServerManager {
         try {
             if (isStarted.get()) {
                 tangoClasses.clear();
+                // write the memorized values still pending before the devices are gone
+                MemorizedValueWriter.getInstance().flush();
                 if (tangoExporter != null) {
                     tangoExporter.clearClass();
                     tangoExporter.unexportAll();
@@ -945,6 +945,12 @@ public final class AdminDevice implements TangoMXBean {
         return tangoStats.getErrorNr();
     }
 
+    @Override
+    @Attribute
+    public long getMemorizedFlushErrorNr() {
+        return tangoStats.getMemorizedFlushErrorNr();
+    }
+
     @Override
     public long getMaxRequestsPerSecond() {
         return tangoStats.getMaxRequestsPerSecond();
@@ -960,6 +966,18 @@ public final class AdminDevice implements TangoMXBean {
         return tangoStats.getMinRequestsPerSecond();
     }
 
+    @Override
+    @Attribute
+    public String[] getRequestDurationPercentiles() {
+        return tangoStats.getRequestDurationPercentiles();
+    }
+
+    @Override
+    @Attribute
+    public String[] getDeviceRequestDurationPercentiles() {
+        return tangoStats.getDeviceRequestDurationPercentiles();
+    }
+
     // public void setQuartzThreadsPoolSize(final int quartzThreadsPoolSize) {
     // this.quartzThreadsPoolSize = quartzThreadsPoolSize;
     // DeviceScheduler.setThreadPoolSize(quartzThreadsPoolSize);
@@ -37,6 +37,7 @@ import org.tango.server.ExceptionMessages;
 import org.tango.server.IPollable;
 import org.tango.server.attribute.AttributeImpl;
 import org.tango.server.build.DeviceClassBuilder;
+import org.tango.server.cache.PollingBatch;
 import org.tango.server.command.CommandImpl;
 import org.tango.server.servant.DeviceImpl;
 import org.tango.utils.DevFailedUtils;
@@ -165,6 +166,21 @@ public class PollStatusCommand implements Callable<String[]> {
             buf.append(" mS\nDelta between last records (in mS) = ");
             buf.append(pollable.getDeltaTime());
         }
+        if (pollable instanceof AttributeImpl) {
+            final PollingBatch batch = device.getPollingBatch((AttributeImpl) pollable);
+            if (batch != null) {
+                buf.append("\nPolled in a batch of ");
+                buf.append(batch.size());
+                buf.append(" attributes\nBatch ticks = ");
+                buf.append(batch.getTicks());
+                buf.append(", overruns = ");
+                buf.append(batch.getOverruns());
+                buf.append("\nBatch tick jitter (mS) = ");
+                buf.append(batch.getLastJitter());
+                buf.append(", max = ");
+                buf.append(batch.getMaxJitter());
+            }
+        }
         return buf;
     }
 }
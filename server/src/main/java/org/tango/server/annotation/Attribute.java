@@ -169,4 +169,12 @@ public @interface Attribute {
      */
     boolean checkArchivingEvent() default true;
 
+    /**
+     * The attribute can be read at the same time as the other attributes of a read_attributes request. The read method
+     * must then be thread safe. See {@link org.tango.server.Constants#READ_THREADS_PROPERTY}
+     * 
+     * @return true if the attribute may be read concurrently
+     */
+    boolean concurrentRead() default false;
+
 }
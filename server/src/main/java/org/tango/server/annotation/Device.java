@@ -62,4 +62,12 @@ public @interface Device {
      * @return The device type
      */
     String deviceType() default "Uninitialised";
+
+    /**
+     * When the devices are built in parallel at start-up (see {@link org.tango.server.Constants#EXPORT_THREADS_PROPERTY}
+     * ), build the devices of this class one after the other, in the order of the database.
+     *
+     * @return true if the devices of this class must be built in order
+     */
+    boolean orderedInit() default false;
 }
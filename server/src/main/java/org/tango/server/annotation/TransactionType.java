@@ -55,6 +55,13 @@ public enum TransactionType {
      * One client request per command. WARNING: can lead to performance issues
      */
     COMMAND,
+    /**
+     * One client request per device, except for the requests that only read attributes declared with
+     * {@link Attribute#concurrentRead()}: they are executed at the same time. Writes, commands (including Init) and
+     * the reads of other attributes wait for the running reads and are exclusive. A read method must not execute a
+     * command or write an attribute of its own device.
+     */
+    READ_WRITE,
 
     /**
      * All client requests can be done at the same time.
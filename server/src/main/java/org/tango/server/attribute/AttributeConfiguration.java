@@ -35,6 +35,7 @@ import org.tango.attribute.AttributeTangoType;
 import org.tango.server.Constants;
 import org.tango.server.IConfigurable;
 import org.tango.server.PolledObjectConfig;
+import org.tango.server.properties.AttributePropertiesBatch;
 
 import java.lang.reflect.Array;
 
@@ -58,6 +59,7 @@ public final class AttributeConfiguration implements PolledObjectConfig, IConfig
     private boolean checkChangeEvent;
     private boolean pushArchiveEvent;
     private boolean checkArchivingEvent;
+    private boolean concurrentRead;
 
     public AttributeConfiguration() {
 
@@ -82,6 +84,7 @@ public final class AttributeConfiguration implements PolledObjectConfig, IConfig
         checkChangeEvent = config.checkChangeEvent;
         pushArchiveEvent = config.pushArchiveEvent;
         checkArchivingEvent = config.checkArchivingEvent;
+        concurrentRead = config.concurrentRead;
         attributeProperties = config.attributeProperties;
     }
 
@@ -221,6 +224,15 @@ public final class AttributeConfiguration implements PolledObjectConfig, IConfig
         attributeProperties.persist(deviceName, name);
     }
 
+    /**
+     * Add the attribute properties to a batch persisting several attributes
+     *
+     * @param batch
+     */
+    public void persist(final AttributePropertiesBatch batch) {
+        attributeProperties.persist(batch, name);
+    }
+
     @Override
     public void load(final String deviceName) throws DevFailed {
         attributeProperties.load(deviceName, name);
@@ -289,6 +301,20 @@ public final class AttributeConfiguration implements PolledObjectConfig, IConfig
         this.pushDataReady = pushDataReady;
     }
 
+    public boolean isConcurrentRead() {
+        return concurrentRead;
+    }
+
+    /**
+     * Allow the attribute to be read at the same time as the other attributes of a read_attributes request. The read
+     * method must then be thread safe.
+     *
+     * @param concurrentRead
+     */
+    public void setConcurrentRead(final boolean concurrentRead) {
+        this.concurrentRead = concurrentRead;
+    }
+
     public boolean isPushChangeEvent() {
         return pushChangeEvent;
     }
@@ -24,29 +24,28 @@
  */
 package org.tango.server.attribute;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.tango.server.Constants;
+import org.tango.server.cache.PollingRing;
 
 import fr.esrf.Tango.AttrDataFormat;
+import fr.esrf.Tango.AttributeValue_4;
+import fr.esrf.Tango.AttributeValue_5;
 import fr.esrf.Tango.DevAttrHistory_4;
 import fr.esrf.Tango.DevAttrHistory_5;
 import fr.esrf.Tango.DevError;
 import fr.esrf.Tango.DevFailed;
 
+/**
+ * The polling buffer of an attribute. Its last item is the value returned for reads from the cache.
+ */
 public final class AttributeHistory {
 
-    private final Logger logger = LoggerFactory.getLogger(AttributeHistory.class);
     private final String attributeName;
-    private final Deque<HistoryItem> valueHistory = new ArrayDeque<HistoryItem>(Constants.QUEUE_CAPACITY);
+    private final PollingRing<HistoryItem> valueHistory = new PollingRing<HistoryItem>(Constants.DEFAULT_POLL_DEPTH);
     private final boolean isReadWrite;
     private final int tangoType;
-    private int maxSize = Constants.DEFAULT_POLL_DEPTH;
     private final AttrDataFormat format;
 
     public AttributeHistory(final String attributeName, final boolean isReadWrite, final int tangoType,
@@ -57,33 +56,69 @@ public final class AttributeHistory {
         this.format = format;
     }
 
-    public synchronized void addToHistory(final AttributeValue readValue, final AttributeValue writeValue,
-            final DevError[] error) {
-        while (valueHistory.size() >= maxSize - 1) {
-            valueHistory.poll();
-        }
-        final boolean isInserted = valueHistory.offer(new HistoryItem(readValue, writeValue, error));
-        if (!isInserted) {
-            logger.debug("{} not inserted in history queue ", readValue);
+    public void addToHistory(final AttributeValue readValue, final AttributeValue writeValue, final DevError[] error) {
+        valueHistory.add(new HistoryItem(readValue, writeValue, error));
+    }
+
+    /**
+     * Get the last read value of the history
+     *
+     * @return the value, null if the history is empty
+     * @throws DevFailed the error of the last read
+     */
+    public AttributeValue getLastReadValue() throws DevFailed {
+        final HistoryItem item = getLastItem();
+        return item == null ? null : item.getReadValue();
+    }
+
+    /**
+     * Get the last read value of the history converted to IDL5. The conversion is done once per polled value.
+     *
+     * @param attribute the attribute of this history
+     * @return the value, null if the history is empty. It is shared and must not be modified.
+     * @throws DevFailed the error of the last read
+     */
+    public AttributeValue_5 getLastReadValue5(final AttributeImpl attribute) throws DevFailed {
+        final HistoryItem item = getLastItem();
+        return item == null ? null : item.getReadValue5(attribute);
+    }
+
+    /**
+     * Get the last read value of the history converted to IDL4. The conversion is done once per polled value.
+     *
+     * @param attribute the attribute of this history
+     * @return the value, null if the history is empty. It is shared and must not be modified.
+     * @throws DevFailed the error of the last read
+     */
+    public AttributeValue_4 getLastReadValue4(final AttributeImpl attribute) throws DevFailed {
+        final HistoryItem item = getLastItem();
+        return item == null ? null : item.getReadValue4(attribute);
+    }
+
+    private HistoryItem getLastItem() throws DevFailed {
+        final HistoryItem item = valueHistory.getLast();
+        if (item != null && item.getError().length != 0) {
+            throw new DevFailed(item.getError());
         }
+        return item;
     }
 
-    public synchronized int size() {
+    public int size() {
         return valueHistory.size();
     }
 
-    public synchronized void clear() {
+    public void clear() {
         valueHistory.clear();
     }
 
-    public synchronized DevAttrHistory_4 getAttrHistory4(final int maxSize) throws DevFailed {
-        return new AttributeHistoryConvertor(attributeName, valueHistory, maxSize, tangoType, format, isReadWrite)
-        .getAttrHistory4();
+    public DevAttrHistory_4 getAttrHistory4(final int maxSize) throws DevFailed {
+        return new AttributeHistoryConvertor(attributeName, valueHistory.toList(maxSize), tangoType, format,
+                isReadWrite).getAttrHistory4();
     }
 
-    public synchronized DevAttrHistory_5 getAttrHistory5(final int maxSize) throws DevFailed {
-        return new AttributeHistoryConvertor(attributeName, valueHistory, maxSize, tangoType, format, isReadWrite)
-        .getAttrHistory5();
+    public DevAttrHistory_5 getAttrHistory5(final int maxSize) throws DevFailed {
+        return new AttributeHistoryConvertor(attributeName, valueHistory.toList(maxSize), tangoType, format,
+                isReadWrite).getAttrHistory5();
     }
 
     @Override
@@ -94,10 +129,10 @@ public final class AttributeHistory {
     }
 
     public int getMaxSize() {
-        return maxSize;
+        return valueHistory.getCapacity();
     }
 
     public void setMaxSize(final int maxSize) {
-        this.maxSize = maxSize;
+        valueHistory.setCapacity(maxSize);
     }
 }
@@ -25,9 +25,8 @@
 package org.tango.server.attribute;
 
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.omg.CORBA.Any;
 import org.tango.orb.ORBManager;
@@ -46,7 +45,6 @@ import fr.esrf.Tango.TimeVal;
 import fr.esrf.TangoApi.DeviceDataHistory;
 
 public class AttributeHistoryConvertor {
-    private final Deque<HistoryItem> valueHistory;
     private TimeVal[] times;
     private AttrQuality[] qualitiesArray;
     private EltInArray[] qualSizeArray;
@@ -62,17 +60,17 @@ public class AttributeHistoryConvertor {
     private final int tangoType;
     private final AttrDataFormat format;
 
-    AttributeHistoryConvertor(final String attributeName, final Deque<HistoryItem> valueHistory, final int maxSize,
-            final int tangoType, final AttrDataFormat format, final boolean isReadWrite) throws DevFailed {
+    /**
+     * @param valueHistory the history items to convert, from the oldest to the newest
+     */
+    AttributeHistoryConvertor(final String attributeName, final List<HistoryItem> valueHistory, final int tangoType,
+            final AttrDataFormat format, final boolean isReadWrite) throws DevFailed {
         this.attributeName = attributeName;
-        this.valueHistory = valueHistory;
         this.isReadWrite = isReadWrite;
         this.tangoType = tangoType;
         this.format = format;
         if (!valueHistory.isEmpty()) {
-            final HistoryItem[] historyArray = Collections.asLifoQueue(valueHistory).toArray(
-                    new HistoryItem[valueHistory.size()]);
-            final HistoryItem[] returnedhistoryArray = createHistoryArray(maxSize, historyArray);
+            final HistoryItem[] returnedhistoryArray = valueHistory.toArray(new HistoryItem[valueHistory.size()]);
             times = new TimeVal[returnedhistoryArray.length];
 
             final Object array = fillHistoryArray(returnedhistoryArray);
@@ -86,7 +84,6 @@ public class AttributeHistoryConvertor {
     public AttributeHistoryConvertor(final DeviceDataHistory[] attributeHistory, final boolean isReadWrite)
             throws DevFailed {
         this.isReadWrite = isReadWrite;
-        valueHistory = null;
         if (attributeHistory.length > 0) {
             this.attributeName = attributeHistory[0].name;
             this.tangoType = attributeHistory[0].dataType;
@@ -200,18 +197,6 @@ public class AttributeHistoryConvertor {
                 readDimArray, readDimSizeArray, writeDimArray, writeDimSizeArray, errorsHist, errorsArrayHist);
     }
 
-    private HistoryItem[] createHistoryArray(final int maxSize, final HistoryItem[] historyArray) {
-        HistoryItem[] returnedhistoryArray;
-        if (valueHistory.size() > maxSize) {
-            returnedhistoryArray = new HistoryItem[maxSize];
-            System.arraycopy(historyArray, historyArray.length - maxSize, returnedhistoryArray, 0,
-                    returnedhistoryArray.length);
-        } else {
-            returnedhistoryArray = historyArray;
-        }
-        return returnedhistoryArray;
-    }
-
     private Object fillHistoryArray(final HistoryItem[] returnedhistoryArray) {
         Object array = null;
         int i = 0;
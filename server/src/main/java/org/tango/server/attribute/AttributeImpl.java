@@ -37,13 +37,18 @@ import org.slf4j.ext.XLoggerFactory;
 import org.tango.attribute.AttributeTangoType;
 import org.tango.server.*;
 import org.tango.server.cache.PollingUtils;
-import org.tango.server.events.EventManager;
+import org.tango.server.idl.CleverAttrValUnion;
 import org.tango.server.idl.TangoIDLAttributeUtil;
+import org.tango.server.properties.AttributePropertiesBatch;
 import org.tango.server.properties.AttributePropertiesManager;
+import org.tango.server.properties.MemorizedValueWriter;
 import org.tango.utils.ArrayUtils;
+import org.tango.utils.CaseInsensitiveMap;
 import org.tango.utils.DevFailedUtils;
 
 import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
@@ -80,6 +85,7 @@ public class AttributeImpl extends DeviceBehaviorObject
     private volatile double lastUpdateTime;
     private volatile double deltaTime;
     private ReentrantLock lock = new ReentrantLock();
+    private volatile ConvertedValue convertedValue;
 
     public AttributeImpl(final IAttributeBehavior behavior, final String deviceName) throws DevFailed {
         super();
@@ -115,13 +121,13 @@ public class AttributeImpl extends DeviceBehaviorObject
     }
 
     private Object getMemorizedValue() throws DevFailed {
-        final String value = attributePropertiesManager.getAttributePropertyFromDB(getName(),
-                Constants.MEMORIZED_VALUE);
+        final String[] values = getMemorizedProperties().get(Constants.MEMORIZED_VALUE);
         Object obj = null;
-        if (value != null && !value.isEmpty() && config.getFormat().equals(AttrDataFormat.SCALAR)) {
+        if (values != null && values.length == 1 && !values[0].isEmpty()
+                && config.getFormat().equals(AttrDataFormat.SCALAR)) {
             final Transmorph transmorph = new Transmorph(new DefaultConverters());
             try {
-                obj = transmorph.convert(value, config.getType());
+                obj = transmorph.convert(values[0], config.getType());
             } catch (final ConverterException e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
@@ -129,12 +135,84 @@ public class AttributeImpl extends DeviceBehaviorObject
         return obj;
     }
 
+    /**
+     * Get the memorized value of a spectrum or an image
+     *
+     * @return the value, null if nothing has been memorized
+     * @throws DevFailed
+     */
+    private AttributeValue getMemorizedArray() throws DevFailed {
+        final Map<String, String[]> properties = getMemorizedProperties();
+        final String[] values = properties.get(Constants.MEMORIZED_VALUE);
+        if (values == null) {
+            return null;
+        }
+        Class<?> arrayType = config.getType();
+        int dimX = values.length;
+        int dimY = 0;
+        if (config.getFormat().equals(AttrDataFormat.IMAGE)) {
+            final String[] dims = properties.get(Constants.MEMORIZED_VALUE_DIM);
+            if (dims == null || dims.length != 2) {
+                logger.warn("{} memorized value ignored, its dimensions are missing", getName());
+                return null;
+            }
+            arrayType = arrayType.getComponentType();
+            try {
+                dimX = Integer.parseInt(dims[0]);
+                dimY = Integer.parseInt(dims[1]);
+            } catch (final NumberFormatException e) {
+                throw DevFailedUtils.newDevFailed(e);
+            }
+        }
+        final Transmorph transmorph = new Transmorph(new DefaultConverters());
+        try {
+            return new AttributeValue(transmorph.convert(values, arrayType), AttrQuality.ATTR_VALID, dimX, dimY);
+        } catch (final ConverterException e) {
+            throw DevFailedUtils.newDevFailed(e);
+        }
+    }
+
+    /**
+     * Get the memorized properties of this attribute: the ones not written yet if any, otherwise the ones of the
+     * tango db
+     *
+     * @return the properties, with case insensitive names
+     * @throws DevFailed
+     */
+    private Map<String, String[]> getMemorizedProperties() throws DevFailed {
+        final Map<String, String[]> properties = new CaseInsensitiveMap<String[]>();
+        final Map<String, String[]> pending = MemorizedValueWriter.getInstance().getPending(deviceName, getName());
+        if (pending == null) {
+            properties.putAll(attributePropertiesManager.getAttributePropertiesFromDB(getName()));
+        } else {
+            properties.putAll(pending);
+        }
+        return properties;
+    }
+
+    private void memorize() throws DevFailed {
+        // an empty array is memorized too, so that a previous value is not restored
+        final String[] values = getValueAsString();
+        final Map<String, String[]> properties = new HashMap<String, String[]>();
+        properties.put(Constants.MEMORIZED_VALUE, values);
+        if (config.getFormat().equals(AttrDataFormat.IMAGE)) {
+            properties.put(Constants.MEMORIZED_VALUE_DIM, new String[]{Integer.toString(writeValue.getXDim()),
+                    Integer.toString(writeValue.getYDim())});
+        }
+        MemorizedValueWriter.getInstance().memorize(deviceName, getName(), properties);
+    }
+
     private void applyMemorizedValue() throws DevFailed {
         if (isMemorized() && !config.getWritable().equals(AttrWriteType.READ)) {
             xlogger.entry(config.getName());
-            final Object value = getMemorizedValue();
-            if (value != null) {
-                final AttributeValue attrValue = new AttributeValue(value, AttrQuality.ATTR_VALID);
+            final AttributeValue attrValue;
+            if (config.getFormat().equals(AttrDataFormat.SCALAR)) {
+                final Object value = getMemorizedValue();
+                attrValue = value == null ? null : new AttributeValue(value, AttrQuality.ATTR_VALID);
+            } else {
+                attrValue = getMemorizedArray();
+            }
+            if (attrValue != null) {
                 synchronized (this) {
                     if (config.isMemorizedAtInit()) {
                         setValue(attrValue, true);
@@ -143,26 +221,6 @@ public class AttributeImpl extends DeviceBehaviorObject
                     }
                 }
             }
-            // TODO manage performance issues for arrays
-            // else {
-            // final int dimX = 0;
-            // final int dimY = 0;
-            // if (getFormat().equals(AttrDataFormat.IMAGE)) {
-            // final String[] dims = attributePropertiesManager.getAttributePropertyFromDB(getName(),
-            // Constants.MEMORIZED_VALUE_DIM);
-            // if (dims != null && dims.length == 2) {
-            // dimX = Integer.valueOf(dims[0]);
-            // dimY = Integer.valueOf(dims[1]);
-            // }
-            // }
-            // obj = Array.newInstance(type.getAttrClass(), value.length);
-            // for (int i = 0; i < value.length; i++) {
-            // Array.set(obj, i, MiscellaneousUtils.toObject(value[i], type));
-            // }
-            // }
-            // logger.info("{} is memorized with value {} ", config.getName(),
-            // Arrays.toString(value));
-
             xlogger.exit();
         }
     }
@@ -173,7 +231,8 @@ public class AttributeImpl extends DeviceBehaviorObject
             result = new String[1];
             result[0] = writeValue.getValue().toString();
         } else {
-            final Object obj = writeValue.getValue();
+            // images are memorized as flat arrays
+            final Object obj = ArrayUtils.from2DArrayToArray(writeValue.getValue());
             final int length = Array.getLength(obj);
             result = new String[length];
             for (int i = 0; i < result.length; i++) {
@@ -196,17 +255,13 @@ public class AttributeImpl extends DeviceBehaviorObject
         // profilerPeriod.start("invoke");
         if (!config.getWritable().equals(AttrWriteType.READ) && behavior instanceof ISetValueUpdater) {
             // write value is managed by the user
-            try {
-                final AttributeValue setValue = ((ISetValueUpdater) behavior).getSetValue();
-                if (setValue != null) {
-                    writeValue = (AttributeValue) ((ISetValueUpdater) behavior).getSetValue().clone();
-                    // get as array if necessary (for image)
-                    writeValue.setValueWithoutDim(ArrayUtils.from2DArrayToArray(writeValue.getValue()));
-                } else {
-                    writeValue = null;
-                }
-            } catch (final CloneNotSupportedException e) {
-                throw DevFailedUtils.newDevFailed(e);
+            final AttributeValue setValue = ((ISetValueUpdater) behavior).getSetValue();
+            if (setValue != null) {
+                writeValue = setValue.shallowCopy();
+                // get as array if necessary (for image)
+                writeValue.setValueWithoutDim(toOwnedArray(setValue));
+            } else {
+                writeValue = null;
             }
         }
         if (config.getWritable().equals(AttrWriteType.WRITE)) {
@@ -241,48 +296,72 @@ public class AttributeImpl extends DeviceBehaviorObject
                     name + " read value has not been updated");
         }
 
-        try {
-            // copy value
-            readValue = (AttributeValue) inValue.clone();
-        } catch (final CloneNotSupportedException e) {
-            throw DevFailedUtils.newDevFailed(e);
-        }
+        // the value is built and checked locally and only published once complete. The array is copied once,
+        // when flattened, and only if the device did not hand it over
+        final AttributeValue value = inValue.shallowCopy();
 
         // update quality if necessary
-        if (readValue.getValue() != null && !readValue.getQuality().equals(AttrQuality.ATTR_INVALID)) {
-            updateQuality(readValue);
+        if (value.getValue() != null && !value.getQuality().equals(AttrQuality.ATTR_INVALID)) {
+            updateQuality(value);
         }
         // profilerPeriod.start("clone");
 
         // profilerPeriod.stop().print();
         try {
-            if (readValue.getValue() != null) {
+            if (value.getValue() != null) {
                 // profilerPeriod.start("checkUpdateErrors");
-                checkUpdateErrors(readValue);
+                checkUpdateErrors(value);
                 // profilerPeriod.start("from2DArrayToArray");
                 // get as array if necessary (for image)
-                readValue.setValueWithoutDim(ArrayUtils.from2DArrayToArray(readValue.getValue()));
-                // force conversion to check types
-                // profilerPeriod.start("toAttributeValue5");
-                TangoIDLAttributeUtil.toAttributeValue5(this, readValue, null);
+                value.setValueWithoutDim(toOwnedArray(inValue));
+                // check types without building the IDL value, it is converted on demand by getReadValue5
+                CleverAttrValUnion.checkType(config.getTangoType(), value.getValue());
             } else {
                 throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_VALUE_NOT_SET,
                         name + " read value has not been updated");
             }
+        } catch (final DevFailed e) {
+            // value.setQuality(AttrQuality.ATTR_INVALID);
+            if (value.getValue() != null && value.getValue() == inValue.getValue()) {
+                // do not keep a reference on the array of the device
+                value.setValueWithoutDim(toOwnedArray(inValue));
+            }
+            value.setXDim(0);
+            value.setYDim(0);
+            readValue = value;
+            lastError = e;
+            throw e;
+        }
+        readValue = value;
+        try {
             // profilerPeriod.start("updateDefaultWritePart");
             updateDefaultWritePart();
             // profilerPeriod.stop().print();
-
         } catch (final DevFailed e) {
-            // readValue.setQuality(AttrQuality.ATTR_INVALID);
-            readValue.setXDim(0);
-            readValue.setYDim(0);
             lastError = e;
             throw e;
         }
         xlogger.exit(getName());
     }
 
+    /**
+     * Get the value of a device as a flat array that the attribute can keep. Images are flattened into a new array,
+     * other arrays are copied unless the device handed them over with {@link AttributeValue#setNoCopy(boolean)}.
+     *
+     * @param value the value returned by the device
+     * @return the value to store
+     */
+    private static Object toOwnedArray(final AttributeValue value) {
+        final Object array = value.getValue();
+        if (array == null || !array.getClass().isArray()) {
+            return array;
+        } else if (array.getClass().getComponentType().isArray() || !value.isNoCopy()) {
+            return ArrayUtils.from2DArrayToArray(array);
+        } else {
+            return array;
+        }
+    }
+
     private void checkUpdateErrors(final AttributeValue returnedValue) throws DevFailed {
         if (config.getFormat().equals(AttrDataFormat.SCALAR) && returnedValue.getXDim() != 1
                 && returnedValue.getYDim() != 0) {
@@ -473,17 +552,8 @@ public class AttributeImpl extends DeviceBehaviorObject
             value.setValue(ArrayUtils.fromArrayTo2DArray(writeValue.getValue(), writeValue.getXDim(), dimY),
                     writtenTimestamp);
             behavior.setValue(value);
-            if (isMemorized() && getFormat().equals(AttrDataFormat.SCALAR) && !fromMemorizedValue) {
-                // TODO: refactoring to manage performance issues for spectrum and
-                // images
-                attributePropertiesManager.setAttributePropertyInDB(getName(), Constants.MEMORIZED_VALUE,
-                        getValueAsString()[0]);
-                // if (getFormat().equals(AttrDataFormat.IMAGE)) {
-                // deviceImpl.setAttributePropertyInDB(att.getName(),
-                // Constants.MEMORIZED_VALUE_DIM,
-                // Integer.toString(value4.w_dim.dim_x),
-                // Integer.toString(value4.w_dim.dim_y));
-                // }
+            if (isMemorized() && !fromMemorizedValue) {
+                memorize();
             }
             // profilerPeriod.stop().print();
         } else {
@@ -582,6 +652,21 @@ public class AttributeImpl extends DeviceBehaviorObject
      * @throws DevFailed
      */
     public void setProperties(final AttributePropertiesImpl properties) throws DevFailed {
+        final AttributePropertiesBatch batch = new AttributePropertiesBatch(deviceName);
+        setProperties(properties, batch);
+        batch.persist();
+    }
+
+    /**
+     * Set the attribute properties. They are persisted, and the attribute configuration event is pushed, with the
+     * batch.
+     *
+     * @param properties The attribute properties
+     * @param batch the batch persisting the properties
+     * @throws DevFailed
+     */
+    public void setProperties(final AttributePropertiesImpl properties, final AttributePropertiesBatch batch)
+            throws DevFailed {
         if (isMemorized()) {
             Object memorizedValue = getMemorizedValue();
             if (memorizedValue != null && memorizedValue.getClass().isAssignableFrom(Number.class)) {
@@ -598,8 +683,7 @@ public class AttributeImpl extends DeviceBehaviorObject
             properties.setRootAttribute(fwdAttr.getRootName());
             fwdAttr.setAttributeConfiguration(config);
         }
-        config.persist(deviceName);
-        EventManager.getInstance().pushAttributeConfigEvent(deviceName, name);
+        config.persist(batch);
     }
 
     public DispLevel getDispLevel() {
@@ -632,6 +716,34 @@ public class AttributeImpl extends DeviceBehaviorObject
         return readValue;
     }
 
+    /**
+     * Get the read and write values converted to IDL5. The conversion is done once per value and shared by all the
+     * callers until the value is updated, so the result must not be modified.
+     *
+     * @return the IDL5 value
+     * @throws DevFailed if the conversion failed
+     */
+    public AttributeValue_5 getReadValue5() throws DevFailed {
+        return toValue5(readValue, writeValue);
+    }
+
+    /**
+     * Convert a read and write value to IDL5. The last conversion is kept and returned again for the same values.
+     *
+     * @param read  the read value
+     * @param write the write value
+     * @return the IDL5 value
+     * @throws DevFailed if the conversion failed
+     */
+    AttributeValue_5 toValue5(final AttributeValue read, final AttributeValue write) throws DevFailed {
+        ConvertedValue converted = convertedValue;
+        if (converted == null || converted.read != read || converted.write != write) {
+            converted = new ConvertedValue(read, write, TangoIDLAttributeUtil.toAttributeValue5(this, read, write));
+            convertedValue = converted;
+        }
+        return converted.value5;
+    }
+
     public IAttributeBehavior getBehavior() {
         return behavior;
     }
@@ -742,6 +854,10 @@ public class AttributeImpl extends DeviceBehaviorObject
         return config.isPushDataReady();
     }
 
+    public boolean isConcurrentRead() {
+        return config.isConcurrentRead();
+    }
+
     public int getTangoType() {
         return config.getTangoType();
     }
@@ -879,4 +995,20 @@ public class AttributeImpl extends DeviceBehaviorObject
     public boolean isFwdAttribute() {
         return isFwdAttribute;
     }
+
+    /**
+     * IDL5 conversion of a read and write value. The values are compared by reference: read and write values are
+     * replaced, never modified, when the attribute is updated.
+     */
+    private static final class ConvertedValue {
+        private final AttributeValue read;
+        private final AttributeValue write;
+        private final AttributeValue_5 value5;
+
+        private ConvertedValue(final AttributeValue read, final AttributeValue write, final AttributeValue_5 value5) {
+            this.read = read;
+            this.write = write;
+            this.value5 = value5;
+        }
+    }
 }
@@ -30,6 +30,7 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 import org.tango.DeviceState;
 import org.tango.server.Constants;
 import org.tango.server.ExceptionMessages;
+import org.tango.server.properties.AttributePropertiesBatch;
 import org.tango.server.properties.AttributePropertiesManager;
 import org.tango.utils.CaseInsensitiveMap;
 import org.tango.utils.DevFailedUtils;
@@ -620,6 +621,15 @@ public final class AttributePropertiesImpl {
     }
 
     void persist(final String deviceName, final String attributeName) throws DevFailed {
+        final AttributePropertiesManager attributePropertiesManager = new AttributePropertiesManager(deviceName);
+        attributePropertiesManager.setAttributePropertiesInDB(attributeName, toDbProperties());
+    }
+
+    void persist(final AttributePropertiesBatch batch, final String attributeName) {
+        batch.add(attributeName, toDbProperties());
+    }
+
+    private Map<String, String[]> toDbProperties() {
         final Map<String, String[]> properties = new HashMap<>();
         properties.put(Constants.LABEL, new String[]{getLabel()});
         if (!isFwdAttribute) {
@@ -646,8 +656,7 @@ public final class AttributePropertiesImpl {
             properties.put(Constants.EVENT_PERIOD, new String[]{eventProp.per_event.period});
             properties.put(Constants.EVENT_CHANGE_REL, new String[]{eventProp.ch_event.rel_change});
         }
-        final AttributePropertiesManager attributePropertiesManager = new AttributePropertiesManager(deviceName);
-        attributePropertiesManager.setAttributePropertiesInDB(attributeName, properties);
+        return properties;
     }
 
     void load(final String deviceName, final String attributeName) throws DevFailed {
@@ -50,6 +50,7 @@ public final class AttributeValue implements Cloneable, Serializable, IValue<Obj
     private long time = 0;
     private int xDim = 1;
     private int yDim = 1;
+    private boolean noCopy = false;
 
     public AttributeValue() {
         super();
@@ -217,6 +218,32 @@ public final class AttributeValue implements Cloneable, Serializable, IValue<Obj
         this.yDim = yDim;
     }
 
+    public boolean isNoCopy() {
+        return noCopy;
+    }
+
+    /**
+     * Hand over the value array to the server. By default, the server copies an array read from the device so that the
+     * device can reuse it. With noCopy, the server keeps a reference to the array: the device must not modify it after
+     * returning this value. Images given as 2D arrays are always copied since they are flattened.
+     *
+     * @param noCopy true to hand over the array without copy
+     */
+    public void setNoCopy(final boolean noCopy) {
+        this.noCopy = noCopy;
+    }
+
+    /**
+     * Copy this value without copying the value array
+     *
+     * @return the copy
+     */
+    AttributeValue shallowCopy() {
+        final AttributeValue newValue = new AttributeValue(value, getQuality(), xDim, yDim, time);
+        newValue.noCopy = noCopy;
+        return newValue;
+    }
+
     @Override
     public Object clone() throws CloneNotSupportedException {
         final AttributeValue newValue = (AttributeValue) super.clone();
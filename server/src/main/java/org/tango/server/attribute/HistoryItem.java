@@ -26,12 +26,19 @@ package org.tango.server.attribute;
 
 import java.util.Arrays;
 
+import org.tango.server.idl.TangoIDLAttributeUtil;
+
+import fr.esrf.Tango.AttributeValue_4;
+import fr.esrf.Tango.AttributeValue_5;
 import fr.esrf.Tango.DevError;
+import fr.esrf.Tango.DevFailed;
 
 class HistoryItem {
     private final AttributeValue readValue;
     private final AttributeValue writeValue;
     private final DevError[] error;
+    private volatile Converted<AttributeValue_5> value5;
+    private volatile Converted<AttributeValue_4> value4;
 
     public HistoryItem(final AttributeValue readValue, final AttributeValue writeValue, final DevError[] error) {
         super();
@@ -52,4 +59,51 @@ class HistoryItem {
         return error;
     }
 
+    /**
+     * Get the read value converted to IDL5 with the current write value of the attribute. The conversion is kept
+     * until the write value changes.
+     *
+     * @param attribute the attribute of this item
+     * @return the IDL5 value, must not be modified
+     * @throws DevFailed if the conversion failed
+     */
+    AttributeValue_5 getReadValue5(final AttributeImpl attribute) throws DevFailed {
+        final AttributeValue write = attribute.getWriteValue();
+        Converted<AttributeValue_5> converted = value5;
+        if (converted == null || converted.write != write) {
+            converted = new Converted<AttributeValue_5>(write, attribute.toValue5(readValue, write));
+            value5 = converted;
+        }
+        return converted.value;
+    }
+
+    /**
+     * Get the read value converted to IDL4 with the current write value of the attribute. The conversion is kept
+     * until the write value changes.
+     *
+     * @param attribute the attribute of this item
+     * @return the IDL4 value, must not be modified
+     * @throws DevFailed if the conversion failed
+     */
+    AttributeValue_4 getReadValue4(final AttributeImpl attribute) throws DevFailed {
+        final AttributeValue write = attribute.getWriteValue();
+        Converted<AttributeValue_4> converted = value4;
+        if (converted == null || converted.write != write) {
+            converted = new Converted<AttributeValue_4>(write,
+                    TangoIDLAttributeUtil.toAttributeValue4(attribute, readValue, write));
+            value4 = converted;
+        }
+        return converted.value;
+    }
+
+    private static final class Converted<T> {
+        private final AttributeValue write;
+        private final T value;
+
+        private Converted(final AttributeValue write, final T value) {
+            this.write = write;
+            this.value = value;
+        }
+    }
+
 }
\ No newline at end of file
@@ -24,6 +24,8 @@
  */
 package org.tango.server.attribute;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
@@ -34,6 +36,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tango.DeviceState;
 import org.tango.server.ExceptionMessages;
+import org.tango.server.MethodHandleUtils;
 import org.tango.server.StateMachineBehavior;
 import org.tango.utils.DevFailedUtils;
 
@@ -41,7 +44,8 @@ import fr.esrf.Tango.DevFailed;
 import fr.esrf.Tango.DevState;
 
 /**
- * Behavior a Tango attribute using java reflection
+ * Behavior a Tango attribute using java reflection. The getter and setter are called through method handles created
+ * with the behavior.
  *
  * @author ABEILLE
  *
@@ -53,6 +57,8 @@ public final class ReflectAttributeBehavior implements IAttributeBehavior {
     private final AttributeConfiguration config;
     private final Method getter;
     private final Method setter;
+    private final MethodHandle getterHandle;
+    private final MethodHandle setterHandle;
     private final Object businessObject;
 
     /**
@@ -66,27 +72,41 @@ public final class ReflectAttributeBehavior implements IAttributeBehavior {
      *            The method to read the attribute
      * @param setter
      *            The method to write the attribute
+     * @throws DevFailed
      */
     public ReflectAttributeBehavior(final AttributeConfiguration config, final Object businessObject,
-            final Method getter, final Method setter) {
+            final Method getter, final Method setter) throws DevFailed {
         this.businessObject = businessObject;
         this.getter = getter;
         this.setter = setter;
         this.config = config;
+        if (getter == null) {
+            getterHandle = null;
+        } else {
+            getterHandle = MethodHandleUtils.bind(getter, businessObject, MethodType.methodType(Object.class));
+        }
+        if (setter == null || setter.getParameterTypes().length != 1) {
+            setterHandle = null;
+        } else {
+            setterHandle = MethodHandleUtils.bind(setter, businessObject,
+                    MethodType.methodType(void.class, Object.class));
+        }
     }
 
     @Override
     public AttributeValue getValue() throws DevFailed {
         final AttributeValue result;
         Object value = null;
-        if (getter != null) {
+        if (getterHandle != null) {
             try {
                 logger.debug("read attribute {} from method '{}'", config.getName(), getter);
-                value = getter.invoke(businessObject);
-            } catch (final IllegalAccessException e) {
+                value = (Object) getterHandle.invokeExact();
+            } catch (final DevFailed e) {
+                throw e;
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw DevFailedUtils.newDevFailed(e);
-            } catch (IllegalArgumentException | InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
             }
         }
         result = buildAttributeValue(value);
@@ -129,30 +149,34 @@ public final class ReflectAttributeBehavior implements IAttributeBehavior {
     @Override
     public void setValue(final AttributeValue value) throws DevFailed {
 
-        if (setter != null && setter.getParameterTypes().length == 1) {
+        if (setterHandle != null) {
             final Class<?> paramSetter = getParamSetter();
-            try {
-                if (paramSetter.equals(DeviceState.class)) {
-                    setter.invoke(businessObject, DeviceState.getDeviceState((DevState) value.getValue()));
-                } else if (Enum.class.isAssignableFrom(paramSetter)) {
-                    final short enumValue = (Short) value.getValue();
-                    setter.invoke(businessObject, paramSetter.getEnumConstants()[enumValue]);
-                } else if (paramSetter.equals(DeviceState[].class)) {
-                    final DevState[] states = (DevState[]) value.getValue();
-                    final DeviceState[] devStates = new DeviceState[states.length];
-                    for (int i = 0; i < devStates.length; i++) {
-                        devStates[i] = DeviceState.getDeviceState(states[i]);
-                    }
-                    setter.invoke(businessObject, (Object) devStates);
-                } else {
-                    final Class<?> input = getInputClass(value);
-                    checkParamTypes(value, paramSetter, input);
-                    setter.invoke(businessObject, value.getValue());
+            final Object arg;
+            if (paramSetter.equals(DeviceState.class)) {
+                arg = DeviceState.getDeviceState((DevState) value.getValue());
+            } else if (Enum.class.isAssignableFrom(paramSetter)) {
+                final short enumValue = (Short) value.getValue();
+                arg = paramSetter.getEnumConstants()[enumValue];
+            } else if (paramSetter.equals(DeviceState[].class)) {
+                final DevState[] states = (DevState[]) value.getValue();
+                final DeviceState[] devStates = new DeviceState[states.length];
+                for (int i = 0; i < devStates.length; i++) {
+                    devStates[i] = DeviceState.getDeviceState(states[i]);
                 }
-            } catch (final IllegalAccessException e) {
+                arg = devStates;
+            } else {
+                final Class<?> input = getInputClass(value);
+                checkParamTypes(value, paramSetter, input);
+                arg = value.getValue();
+            }
+            try {
+                setterHandle.invokeExact(arg);
+            } catch (final DevFailed e) {
+                throw e;
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw DevFailedUtils.newDevFailed(e);
-            } catch (IllegalArgumentException | InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
             }
         }
 
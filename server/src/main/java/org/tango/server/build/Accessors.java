@@ -0,0 +1,70 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.build;
+
+import java.lang.reflect.Method;
+
+/**
+ * The getter and setter of an attribute or a pipe, resolved once per device class
+ */
+final class Accessors {
+
+    private final String fieldName;
+    private final Class<?> type;
+    private final Method getter;
+    private final Method setter;
+
+    Accessors(final String fieldName, final Class<?> type, final Method getter, final Method setter) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * @return the name of the attribute or pipe when not given by its annotation
+     */
+    String getFieldName() {
+        return fieldName;
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return the getter, null if write only
+     */
+    Method getGetter() {
+        return getter;
+    }
+
+    /**
+     * @return the setter, null if read only
+     */
+    Method getSetter() {
+        return setter;
+    }
+}
@@ -53,7 +53,7 @@ final class AttributeFieldBuilder {
     private final XLogger xlogger = XLoggerFactory.getXLogger(AttributeFieldBuilder.class);
 
     public void build(final DeviceImpl device, final Object businessObject, final Field field,
-            final boolean isOnDeviceImpl) throws DevFailed {
+            final Accessors accessors, final boolean isOnDeviceImpl) throws DevFailed {
         final String fieldName = field.getName();
         xlogger.entry(fieldName);
 
@@ -63,13 +63,51 @@ final class AttributeFieldBuilder {
         } else {
             target = businessObject;
         }
-        // final String fieldName = field.getName();
+        final Class<?> type = accessors.getType();
+        final Method getter = accessors.getGetter();
+        final Method setter = accessors.getSetter();
+
+        final Attribute annot = field.getAnnotation(Attribute.class);
+        final String attributeName = BuilderUtils.getAttributeName(fieldName, annot);
+        final AttributeConfiguration config = BuilderUtils.getAttributeConfiguration(type, getter, setter, annot,
+                attributeName);
+
+        // add default attr properties
+        AttributePropertiesImpl props = BuilderUtils.getAttributeProperties(field, attributeName,
+                config.getScalarType());
+        props = BuilderUtils.setEnumLabelProperty(type, props);
+        config.setAttributeProperties(props);
+
+        final AttributeImpl attr = new AttributeImpl(new ReflectAttributeBehavior(config, target, getter, setter),
+                device.getName());
+        logger.debug("Has an attribute: {} {}", attr.getName(), attr.getFormat().value());
+        BuilderUtils.setStateMachine(field, attr);
+        device.addAttribute(attr);
+        xlogger.exit(field.getName());
+
+    }
+
+    /**
+     * Find the getter and setter of an attribute
+     *
+     * @param targetClass
+     *            the class of the object holding the attribute
+     * @param businessClass
+     *            the class of the device
+     * @param field
+     *            the annotated field
+     * @return the accessors
+     * @throws DevFailed
+     */
+    static Accessors resolve(final Class<?> targetClass, final Class<?> businessClass, final Field field)
+            throws DevFailed {
+        final String fieldName = field.getName();
         final Class<?> type = field.getType();
         String getterName = BuilderUtils.GET + fieldName.substring(0, 1).toUpperCase(Locale.ENGLISH)
                 + fieldName.substring(1);
         Method getter = null;
         try {
-            getter = target.getClass().getMethod(getterName);
+            getter = targetClass.getMethod(getterName);
         } catch (final NoSuchMethodException e) {
             // try is for boolean getter
             if (fieldName.startsWith(BuilderUtils.IS)) {
@@ -79,7 +117,7 @@ final class AttributeFieldBuilder {
                         + fieldName.substring(1);
             }
             try {
-                getter = target.getClass().getMethod(getterName);
+                getter = targetClass.getMethod(getterName);
             } catch (final NoSuchMethodException e1) {
                 // attribute is write only
             }
@@ -90,13 +128,13 @@ final class AttributeFieldBuilder {
 
         Method setter = null;
         try {
-            setter = target.getClass().getMethod(setterName, type);
+            setter = targetClass.getMethod(setterName, type);
         } catch (final NoSuchMethodException e) {
             if (fieldName.startsWith(BuilderUtils.IS)) {
                 // may be a boolean attribute
                 setterName = BuilderUtils.SET + fieldName.substring(2);
                 try {
-                    setter = businessObject.getClass().getMethod(setterName, type);
+                    setter = businessClass.getMethod(setterName, type);
                 } catch (final NoSuchMethodException e1) {
                     throw DevFailedUtils.newDevFailed(e);
                 }
@@ -108,24 +146,6 @@ final class AttributeFieldBuilder {
             throw DevFailedUtils.newDevFailed(BuilderUtils.INIT_ERROR, getterName + " or " + setterName
                     + BuilderUtils.METHOD_NOT_FOUND);
         }
-
-        final Attribute annot = field.getAnnotation(Attribute.class);
-        final String attributeName = BuilderUtils.getAttributeName(fieldName, annot);
-        final AttributeConfiguration config = BuilderUtils.getAttributeConfiguration(type, getter, setter, annot,
-                attributeName);
-
-        // add default attr properties
-        AttributePropertiesImpl props = BuilderUtils.getAttributeProperties(field, attributeName,
-                config.getScalarType());
-        props = BuilderUtils.setEnumLabelProperty(type, props);
-        config.setAttributeProperties(props);
-
-        final AttributeImpl attr = new AttributeImpl(new ReflectAttributeBehavior(config, target, getter, setter),
-                device.getName());
-        logger.debug("Has an attribute: {} {}", attr.getName(), attr.getFormat().value());
-        BuilderUtils.setStateMachine(field, attr);
-        device.addAttribute(attr);
-        xlogger.exit(field.getName());
-
+        return new Accessors(fieldName, type, getter, setter);
     }
 }
@@ -59,11 +59,13 @@ final class AttributeMethodBuilder {
      * @param device
      * @param businessObject
      * @param method
+     * @param accessors
+     *            the accessors resolved by {@link #resolve(Class, Method)}
      * @param isOnDeviceImpl
      * @throws DevFailed
      */
     public void build(final DeviceImpl device, final Object businessObject, final Method method,
-            final boolean isOnDeviceImpl) throws DevFailed {
+            final Accessors accessors, final boolean isOnDeviceImpl) throws DevFailed {
         xlogger.entry();
         Object target;
         if (isOnDeviceImpl) {
@@ -71,6 +73,40 @@ final class AttributeMethodBuilder {
         } else {
             target = businessObject;
         }
+        final Class<?> type = accessors.getType();
+        final Method getter = accessors.getGetter();
+        final Method setter = accessors.getSetter();
+
+        final Attribute annot = method.getAnnotation(Attribute.class);
+        final String attributeName = BuilderUtils.getAttributeName(accessors.getFieldName(), annot);
+
+        final AttributeConfiguration config = BuilderUtils.getAttributeConfiguration(type, getter, setter, annot,
+                attributeName);
+        AttributePropertiesImpl props = BuilderUtils.getAttributeProperties(method, attributeName,
+                config.getScalarType());
+        props = BuilderUtils.setEnumLabelProperty(type, props);
+        config.setAttributeProperties(props);
+
+        final AttributeImpl attr = new AttributeImpl(new ReflectAttributeBehavior(config, target, getter, setter),
+                device.getName());
+        configureStateMachine(setter, getter, attr);
+        logger.debug("Has an attribute: {} {}", attr.getName(), attr.getFormat().value());
+
+        device.addAttribute(attr);
+        xlogger.exit();
+    }
+
+    /**
+     * Find the getter and setter of an attribute
+     *
+     * @param targetClass
+     *            the class of the object holding the attribute
+     * @param method
+     *            the annotated method
+     * @return the accessors
+     * @throws DevFailed
+     */
+    static Accessors resolve(final Class<?> targetClass, final Method method) throws DevFailed {
         checkSyntax(method);
 
         // retrieve field attribute
@@ -89,7 +125,7 @@ final class AttributeMethodBuilder {
             fieldName = removedGet.substring(0, 1).toLowerCase(Locale.ENGLISH) + removedGet.substring(1);
             type = method.getReturnType();
             try {
-                setter = target.getClass().getMethod(setterName, type);
+                setter = targetClass.getMethod(setterName, type);
             } catch (final NoSuchMethodException e) {
                 // attribute is write only
             }
@@ -110,31 +146,14 @@ final class AttributeMethodBuilder {
                 getterName = BuilderUtils.GET + removedGet;
             }
             try {
-                getter = target.getClass().getMethod(getterName);
+                getter = targetClass.getMethod(getterName);
             } catch (final NoSuchMethodException e) {
                 // attribute is write only
             }
         }
 
         checkNull(getterName, setterName, setter, getter);
-
-        final Attribute annot = method.getAnnotation(Attribute.class);
-        final String attributeName = BuilderUtils.getAttributeName(fieldName, annot);
-
-        final AttributeConfiguration config = BuilderUtils.getAttributeConfiguration(type, getter, setter, annot,
-                attributeName);
-        AttributePropertiesImpl props = BuilderUtils.getAttributeProperties(method, attributeName,
-                config.getScalarType());
-        props = BuilderUtils.setEnumLabelProperty(type, props);
-        config.setAttributeProperties(props);
-
-        final AttributeImpl attr = new AttributeImpl(new ReflectAttributeBehavior(config, target, getter, setter),
-                device.getName());
-        configureStateMachine(setter, getter, attr);
-        logger.debug("Has an attribute: {} {}", attr.getName(), attr.getFormat().value());
-
-        device.addAttribute(attr);
-        xlogger.exit();
+        return new Accessors(fieldName, type, getter, setter);
     }
 
     private void configureStateMachine(final Method setter, final Method getter, final AttributeImpl attr) {
@@ -146,7 +165,7 @@ final class AttributeMethodBuilder {
         }
     }
 
-    private void checkNull(final String getterName, final String setterName, final Method setter, final Method getter)
+    private static void checkNull(final String getterName, final String setterName, final Method setter, final Method getter)
             throws DevFailed {
         if (setter == null && getter == null) {
             throw DevFailedUtils.newDevFailed(BuilderUtils.INIT_ERROR, getterName + " or " + setterName
@@ -154,7 +173,7 @@ final class AttributeMethodBuilder {
         }
     }
 
-    private void checkSyntax(final Method method) throws DevFailed {
+    private static void checkSyntax(final Method method) throws DevFailed {
         if (!method.getName().startsWith(BuilderUtils.GET) && !method.getName().startsWith(BuilderUtils.IS)
                 && !method.getName().startsWith(BuilderUtils.SET)) {
             throw DevFailedUtils.newDevFailed(BuilderUtils.INIT_ERROR, method + " can only be a get/set method");
@@ -129,6 +129,7 @@ final class BuilderUtils {
         config.setCheckChangeEvent(annot.checkChangeEvent());
         config.setPushArchiveEvent(annot.pushArchiveEvent());
         config.setCheckArchivingEvent(annot.checkArchivingEvent());
+        config.setConcurrentRead(annot.concurrentRead());
         if (setter == null) {
             config.setWritable(AttrWriteType.READ);
         } else if (getter == null) {
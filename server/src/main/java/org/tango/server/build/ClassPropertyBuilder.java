@@ -55,12 +55,14 @@ final class ClassPropertyBuilder {
      * 
      * @param clazz
      * @param field
+     * @param setter
+     *            the setter found by {@link #resolveSetter(Class, Field)}
      * @param device
      * @param businessObject
      * @throws DevFailed
      */
-    public void build(final Class<?> clazz, final Field field, final DeviceImpl device, final Object businessObject)
-	    throws DevFailed {
+    public void build(final Class<?> clazz, final Field field, final Method setter, final DeviceImpl device,
+	    final Object businessObject) throws DevFailed {
 	xlogger.entry();
 	// create class property
 	final ClassProperty annot = field.getAnnotation(ClassProperty.class);
@@ -72,19 +74,32 @@ final class ClassPropertyBuilder {
 	    propName = annot.name();
 	}
 	logger.debug("Has a ClassProperty : {}", propName);
+	final ClassPropertyImpl property = new ClassPropertyImpl(propName, annot.description(), setter, businessObject,
+		device.getClassName(), annot.defaultValue());
+	device.addClassProperty(property);
+	xlogger.exit();
+    }
+
+    /**
+     * Find the setter of a class property
+     * 
+     * @param businessClass
+     *            the class of the device
+     * @param field
+     *            the annotated field
+     * @return the setter
+     * @throws DevFailed
+     */
+    static Method resolveSetter(final Class<?> businessClass, final Field field) throws DevFailed {
 	BuilderUtils.checkStatic(field);
+	final String fieldName = field.getName();
 	final String setterName = BuilderUtils.SET + fieldName.substring(0, 1).toUpperCase(Locale.ENGLISH)
 		+ fieldName.substring(1);
-	Method setter = null;
 	try {
-	    setter = businessObject.getClass().getMethod(setterName, field.getType());
+	    return businessClass.getMethod(setterName, field.getType());
 	} catch (final NoSuchMethodException e) {
 	    throw DevFailedUtils.newDevFailed(e);
 	}
-	final ClassPropertyImpl property = new ClassPropertyImpl(propName, annot.description(), setter, businessObject,
-		device.getClassName(), annot.defaultValue());
-	device.addClassProperty(property);
-	xlogger.exit();
     }
 
 }
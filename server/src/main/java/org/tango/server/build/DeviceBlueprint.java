@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.build;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.tango.server.annotation.Attribute;
+import org.tango.server.annotation.ClassProperty;
+import org.tango.server.annotation.Device;
+import org.tango.server.annotation.DeviceProperty;
+import org.tango.server.annotation.Pipe;
+import org.tango.server.servant.DeviceImpl;
+import org.tango.utils.ReflectionScanner;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * The annotated members of a device class and the accessors of its attributes, pipes and properties. It is computed
+ * for the first device of the class, the next devices only bind it to their business object.
+ */
+final class DeviceBlueprint {
+
+    private static final Map<Class<?>, DeviceBlueprint> BLUEPRINTS = new ConcurrentHashMap<Class<?>, DeviceBlueprint>();
+
+    private final ReflectionScanner deviceImplScanner;
+    private final ReflectionScanner scanner;
+    private final List<ReflectionScanner> superScanners;
+    private final Map<Member, Accessors> accessors = new HashMap<Member, Accessors>();
+    private final Map<Field, Method> propertySetters = new HashMap<Field, Method>();
+
+    private DeviceBlueprint(final Class<?> clazz) throws DevFailed {
+        deviceImplScanner = new ReflectionScanner(DeviceImpl.class);
+        resolveAttributes(deviceImplScanner, DeviceImpl.class, clazz);
+
+        scanner = new ReflectionScanner(clazz);
+        resolveMembers(scanner, clazz);
+
+        final List<ReflectionScanner> supers = new ArrayList<ReflectionScanner>();
+        Class<?> superDeviceClass = clazz.getSuperclass();
+        while (superDeviceClass != null && superDeviceClass.getAnnotation(Device.class) != null) {
+            final ReflectionScanner superScanner = new ReflectionScanner(superDeviceClass);
+            resolveMembers(superScanner, clazz);
+            supers.add(superScanner);
+            superDeviceClass = superDeviceClass.getSuperclass();
+        }
+        superScanners = Collections.unmodifiableList(supers);
+    }
+
+    /**
+     * Get the blueprint of a device class, computing it if needed
+     *
+     * @param clazz the device class
+     * @return the blueprint
+     * @throws DevFailed if a member of the class is not correctly declared
+     */
+    static DeviceBlueprint of(final Class<?> clazz) throws DevFailed {
+        DeviceBlueprint blueprint = BLUEPRINTS.get(clazz);
+        if (blueprint == null) {
+            // devices built in parallel may compute it at the same time, they get the same result
+            blueprint = new DeviceBlueprint(clazz);
+            BLUEPRINTS.put(clazz, blueprint);
+        }
+        return blueprint;
+    }
+
+    private void resolveAttributes(final ReflectionScanner classScanner, final Class<?> targetClass,
+            final Class<?> businessClass) throws DevFailed {
+        for (final Method method : members(classScanner.getMethodsAnnotatedWith(Attribute.class))) {
+            accessors.put(method, AttributeMethodBuilder.resolve(targetClass, method));
+        }
+        for (final Field field : members(classScanner.getFieldsAnnotatedWith(Attribute.class))) {
+            accessors.put(field, AttributeFieldBuilder.resolve(targetClass, businessClass, field));
+        }
+    }
+
+    private void resolveMembers(final ReflectionScanner classScanner, final Class<?> businessClass)
+            throws DevFailed {
+        resolveAttributes(classScanner, businessClass, businessClass);
+        for (final Field field : members(classScanner.getFieldsAnnotatedWith(Pipe.class))) {
+            accessors.put(field, PipeBuilder.resolve(businessClass, field));
+        }
+        for (final Field field : members(classScanner.getFieldsAnnotatedWith(DeviceProperty.class))) {
+            propertySetters.put(field, DevicePropertyBuilder.resolveSetter(businessClass, field));
+        }
+        for (final Field field : members(classScanner.getFieldsAnnotatedWith(ClassProperty.class))) {
+            propertySetters.put(field, ClassPropertyBuilder.resolveSetter(businessClass, field));
+        }
+    }
+
+    private static <T> Set<T> members(final Set<T> annotated) {
+        return annotated == null ? Collections.<T> emptySet() : annotated;
+    }
+
+    /**
+     * @return the members of {@link DeviceImpl}
+     */
+    ReflectionScanner getDeviceImplScanner() {
+        return deviceImplScanner;
+    }
+
+    /**
+     * @return the members of the device class
+     */
+    ReflectionScanner getScanner() {
+        return scanner;
+    }
+
+    /**
+     * @return the members of the super classes that are devices, from the nearest one
+     */
+    List<ReflectionScanner> getSuperScanners() {
+        return superScanners;
+    }
+
+    /**
+     * @param member an attribute or pipe method or field
+     * @return its accessors
+     */
+    Accessors getAccessors(final Member member) {
+        return accessors.get(member);
+    }
+
+    /**
+     * @param field a device or class property field
+     * @return its setter
+     */
+    Method getPropertySetter(final Field field) {
+        return propertySetters.get(field);
+    }
+}
@@ -71,6 +71,12 @@ public final class DeviceBuilder {
     private final Class<?> clazz;
     private final String className;
     private final String name;
+    private DeviceBlueprint blueprint;
+    /**
+     * share the managers of the device between its class and its super classes
+     */
+    private final DynamicManagerBuilder dynamicManagerBuilder = new DynamicManagerBuilder();
+    private final DeviceManagerBuilder deviceManagerBuilder = new DeviceManagerBuilder();
     private DeviceImpl device;
     private Object businessObject;
 
@@ -86,8 +92,7 @@ public final class DeviceBuilder {
         xlogger.entry();
 
         checkIsTangoDevice(clazz, name);
-        DeviceManagerBuilder.clear();
-        DynamicManagerBuilder.clear();
+        blueprint = DeviceBlueprint.of(clazz);
 
         try {
             final Device annotation = clazz.getAnnotation(Device.class);
@@ -102,12 +107,12 @@ public final class DeviceBuilder {
             addSuperDevices();
 
             // create default attributes and commands
-            final ReflectionScanner deviceImplScanner = new ReflectionScanner(device.getClass());
+            final ReflectionScanner deviceImplScanner = blueprint.getDeviceImplScanner();
 
             createBusinessObjectAttrField(deviceImplScanner, true);
             createBusinessObjectAttrCmd(deviceImplScanner, true);
 
-            final ReflectionScanner boScanner = new ReflectionScanner(clazz);
+            final ReflectionScanner boScanner = blueprint.getScanner();
 
             createBusinessObjectFields(boScanner);
             createBusinessObjectAttrField(boScanner, false);
@@ -131,9 +136,8 @@ public final class DeviceBuilder {
 
     private void addSuperDevices() throws DevFailed {
         Class<?> superDeviceClass = clazz.getSuperclass();
-        while (superDeviceClass != null && superDeviceClass.getAnnotation(Device.class) != null) {
+        for (final ReflectionScanner superClassScanner : blueprint.getSuperScanners()) {
             logger.debug("adding super class to device {}", superDeviceClass.getCanonicalName());
-            final ReflectionScanner superClassScanner = new ReflectionScanner(superDeviceClass);
             createBusinessObjectAttrCmd(superClassScanner, false);
             createBusinessObjectAttrField(superClassScanner, false);
             createBusinessObjectProps(superClassScanner);
@@ -162,7 +166,7 @@ public final class DeviceBuilder {
         if (attrs != null) {
             final AttributeMethodBuilder attr = new AttributeMethodBuilder();
             for (final Method method : attrs) {
-                attr.build(device, businessObject, method, isOnDeviceImpl);
+                attr.build(device, businessObject, method, blueprint.getAccessors(method), isOnDeviceImpl);
             }
         }
     }
@@ -210,7 +214,7 @@ public final class DeviceBuilder {
         if (attributeF != null) {
             final AttributeFieldBuilder attr = new AttributeFieldBuilder();
             for (final Field field : attributeF) {
-                attr.build(device, businessObject, field, isOnDeviceImpl);
+                attr.build(device, businessObject, field, blueprint.getAccessors(field), isOnDeviceImpl);
             }
         }
 
@@ -222,7 +226,7 @@ public final class DeviceBuilder {
         if (fields != null) {
             final PipeBuilder pipe = new PipeBuilder();
             for (final Field field : fields) {
-                pipe.build(device, businessObject, field);
+                pipe.build(device, businessObject, field, blueprint.getAccessors(field));
             }
         }
 
@@ -237,7 +241,7 @@ public final class DeviceBuilder {
                         + MUST_BE_UNIQUE);
             }
             if (dynF.size() == 1) {
-                new DynamicManagerBuilder().build(dynF.iterator().next(), device, businessObject);
+                dynamicManagerBuilder.build(dynF.iterator().next(), device, businessObject);
             }
         }
 
@@ -249,7 +253,7 @@ public final class DeviceBuilder {
                         + MUST_BE_UNIQUE);
             }
             if (deviceF.size() == 1) {
-                new DeviceManagerBuilder().build(deviceF.iterator().next(), device, businessObject);
+                deviceManagerBuilder.build(deviceF.iterator().next(), device, businessObject);
             }
         }
     }
@@ -316,7 +320,7 @@ public final class DeviceBuilder {
         if (devicePropF != null) {
             final DevicePropertyBuilder devicePropB = new DevicePropertyBuilder();
             for (final Field field : devicePropF) {
-                devicePropB.build(clazz, field, device, businessObject);
+                devicePropB.build(clazz, field, blueprint.getPropertySetter(field), device, businessObject);
             }
         }
         // ClassProperty
@@ -324,7 +328,7 @@ public final class DeviceBuilder {
         if (classPropF != null) {
             final ClassPropertyBuilder classPropB = new ClassPropertyBuilder();
             for (final Field field : classPropF) {
-                classPropB.build(clazz, field, device, businessObject);
+                classPropB.build(clazz, field, blueprint.getPropertySetter(field), device, businessObject);
             }
         }
     }
@@ -65,15 +65,34 @@ public class DeviceClassBuilder {
     }
 
     public DeviceImpl buildDevice(final String name) throws DevFailed {
-        final String lowerName = name.toLowerCase(Locale.ENGLISH);
-        logger.debug("create device {} of class {}", lowerName, clazz.getName());
-        final DeviceImpl dev = new DeviceBuilder(clazz, className, name).createDevice();
-        deviceImplMap.put(lowerName, dev);
-
+        final DeviceImpl dev = createDevice(name);
+        addDevice(name, dev);
         return dev;
 
     }
 
+    /**
+     * Create a device without adding it to the devices of this class
+     *
+     * @param name The device name
+     * @return The device
+     * @throws DevFailed
+     */
+    public DeviceImpl createDevice(final String name) throws DevFailed {
+        logger.debug("create device {} of class {}", name.toLowerCase(Locale.ENGLISH), clazz.getName());
+        return new DeviceBuilder(clazz, className, name).createDevice();
+    }
+
+    /**
+     * Add a device created with {@link #createDevice(String)}
+     *
+     * @param name   The device name
+     * @param device The device
+     */
+    public void addDevice(final String name, final DeviceImpl device) {
+        deviceImplMap.put(name.toLowerCase(Locale.ENGLISH), device);
+    }
+
     public void removeDevice(final String name) {
         final String lowerName = name.toLowerCase(Locale.ENGLISH);
         logger.debug("remove device {}", lowerName);
@@ -27,9 +27,7 @@ package org.tango.server.build;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,13 +44,9 @@ final class DeviceManagerBuilder {
     private final Logger logger = LoggerFactory.getLogger(DeviceManagerBuilder.class);
     private final XLogger xlogger = XLoggerFactory.getXLogger(DeviceManagerBuilder.class);
     /**
-     * keep record of DeviceManagers for device inheritance
+     * keep record of the DeviceManager of the device for device inheritance. A builder is used for a single device.
      */
-    private static final Map<String, DeviceManager> DEV_MNGERS = new HashMap<String, DeviceManager>();
-
-    public static void clear() {
-        DEV_MNGERS.clear();
-    }
+    private DeviceManager manager;
 
     /**
      * create a {@link DeviceManager} {@link DeviceManagement}
@@ -71,16 +65,11 @@ final class DeviceManagerBuilder {
         final String setterName = BuilderUtils.SET + name.substring(0, 1).toUpperCase(Locale.ENGLISH)
                 + name.substring(1);
         try {
-            final String deviceName = device.getName().toLowerCase(Locale.ENGLISH);
-
             final Method setter = businessObject.getClass().getMethod(setterName, DeviceManager.class);
-            if (DEV_MNGERS.containsKey(deviceName)) {
-                setter.invoke(businessObject, DEV_MNGERS.get(deviceName));
-            } else {
-                final DeviceManager mnger = new DeviceManager(device);
-                setter.invoke(businessObject, mnger);
-                DEV_MNGERS.put(deviceName, mnger);
+            if (manager == null) {
+                manager = new DeviceManager(device);
             }
+            setter.invoke(businessObject, manager);
         } catch (final IllegalArgumentException e) {
             throw DevFailedUtils.newDevFailed(e);
         } catch (final IllegalAccessException e) {
@@ -55,12 +55,14 @@ final class DevicePropertyBuilder {
      * 
      * @param clazz
      * @param field
+     * @param setter
+     *            the setter found by {@link #resolveSetter(Class, Field)}
      * @param device
      * @param businessObject
      * @throws DevFailed
      */
-    public void build(final Class<?> clazz, final Field field, final DeviceImpl device, final Object businessObject)
-            throws DevFailed {
+    public void build(final Class<?> clazz, final Field field, final Method setter, final DeviceImpl device,
+            final Object businessObject) throws DevFailed {
         xlogger.entry();
         try {
             // Inject each device property
@@ -73,24 +75,6 @@ final class DevicePropertyBuilder {
                 propName = annot.name();
             }
             logger.debug("Has a DeviceProperty : {}", propName);
-            BuilderUtils.checkStatic(field);
-            String setterName = BuilderUtils.SET + fieldName.substring(0, 1).toUpperCase(Locale.ENGLISH)
-                    + fieldName.substring(1);
-            Method setter = null;
-            try {
-                setter = businessObject.getClass().getMethod(setterName, field.getType());
-            } catch (final NoSuchMethodException e) {
-                if (fieldName.startsWith(BuilderUtils.IS)) {
-                    setterName = BuilderUtils.SET + fieldName.substring(2);
-                    try {
-                        setter = businessObject.getClass().getMethod(setterName, field.getType());
-                    } catch (final NoSuchMethodException e1) {
-                        throw DevFailedUtils.newDevFailed(e);
-                    }
-                } else {
-                    throw DevFailedUtils.newDevFailed(e);
-                }
-            }
             final DevicePropertyImpl property = new DevicePropertyImpl(propName, annot.description(), setter,
                     businessObject, device.getName(), device.getClassName(), annot.isMandatory(), annot.defaultValue());
             device.addDeviceProperty(property);
@@ -100,4 +84,37 @@ final class DevicePropertyBuilder {
         xlogger.exit();
     }
 
+    /**
+     * Find the setter of a device property
+     *
+     * @param businessClass
+     *            the class of the device
+     * @param field
+     *            the annotated field
+     * @return the setter
+     * @throws DevFailed
+     */
+    static Method resolveSetter(final Class<?> businessClass, final Field field) throws DevFailed {
+        BuilderUtils.checkStatic(field);
+        final String fieldName = field.getName();
+        String setterName = BuilderUtils.SET + fieldName.substring(0, 1).toUpperCase(Locale.ENGLISH)
+                + fieldName.substring(1);
+        Method setter;
+        try {
+            setter = businessClass.getMethod(setterName, field.getType());
+        } catch (final NoSuchMethodException e) {
+            if (fieldName.startsWith(BuilderUtils.IS)) {
+                setterName = BuilderUtils.SET + fieldName.substring(2);
+                try {
+                    setter = businessClass.getMethod(setterName, field.getType());
+                } catch (final NoSuchMethodException e1) {
+                    throw DevFailedUtils.newDevFailed(e);
+                }
+            } else {
+                throw DevFailedUtils.newDevFailed(e);
+            }
+        }
+        return setter;
+    }
+
 }
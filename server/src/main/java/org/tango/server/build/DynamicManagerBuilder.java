@@ -27,9 +27,7 @@ package org.tango.server.build;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,13 +52,9 @@ final class DynamicManagerBuilder {
     private final XLogger xlogger = XLoggerFactory.getXLogger(DynamicManagerBuilder.class);
 
     /**
-     * keep record of DynamicManager for device inheritance
+     * keep record of the DynamicManager of the device for device inheritance. A builder is used for a single device.
      */
-    private static final Map<String, DynamicManager> DYN_MNGRS = new HashMap<String, DynamicManager>();
-
-    public static void clear() {
-        DYN_MNGRS.clear();
-    }
+    private DynamicManager manager;
 
     /**
      * create a {@link DynamicManager} {@link DynamicManagement}
@@ -79,15 +73,11 @@ final class DynamicManagerBuilder {
         final String setterName = BuilderUtils.SET + name.substring(0, 1).toUpperCase(Locale.ENGLISH)
                 + name.substring(1);
         try {
-            final String deviceName = device.getName().toLowerCase(Locale.ENGLISH);
             final Method setter = businessObject.getClass().getMethod(setterName, DynamicManager.class);
-            if (DYN_MNGRS.containsKey(deviceName)) {
-                setter.invoke(businessObject, DYN_MNGRS.get(deviceName));
-            } else {
-                final DynamicManager mnger = new DynamicManager(device);
-                setter.invoke(businessObject, mnger);
-                DYN_MNGRS.put(deviceName, mnger);
+            if (manager == null) {
+                manager = new DynamicManager(device);
             }
+            setter.invoke(businessObject, manager);
         } catch (final IllegalArgumentException e) {
             throw DevFailedUtils.newDevFailed(e);
         } catch (final IllegalAccessException e) {
@@ -46,10 +46,38 @@ final class PipeBuilder {
     private final Logger logger = LoggerFactory.getLogger(PipeBuilder.class);
     private final XLogger xlogger = XLoggerFactory.getXLogger(PipeBuilder.class);
 
-    public void build(final DeviceImpl device, final Object businessObject, final Field field) throws DevFailed {
+    public void build(final DeviceImpl device, final Object businessObject, final Field field,
+            final Accessors accessors) throws DevFailed {
         final String fieldName = field.getName();
         xlogger.entry(fieldName);
 
+        final Class<?> type = accessors.getType();
+        final Method getter = accessors.getGetter();
+        final Method setter = accessors.getSetter();
+        final Pipe annot = field.getAnnotation(Pipe.class);
+        final String pipeName = BuilderUtils.getPipeName(fieldName, annot);
+        final PipeConfiguration config = BuilderUtils.getPipeConfiguration(type, getter, setter, annot, pipeName);
+
+        final PipeImpl pipe = new PipeImpl(new ReflectPipeBehavior(config, businessObject, getter, setter),
+                device.getName());
+
+        logger.debug("Has a pipe: {}", pipe.getName());
+        BuilderUtils.setStateMachine(field, pipe);
+        device.addPipe(pipe);
+        xlogger.exit(field.getName());
+
+    }
+
+    /**
+     * Find the getter and setter of a pipe
+     *
+     * @param businessClass the class of the device
+     * @param field         the annotated field
+     * @return the accessors
+     * @throws DevFailed
+     */
+    static Accessors resolve(final Class<?> businessClass, final Field field) throws DevFailed {
+        final String fieldName = field.getName();
         final Class<?> type = field.getType();
         if (!type.equals(PipeValue.class)) {
             throw DevFailedUtils.newDevFailed(BuilderUtils.INIT_ERROR, fieldName + " must be a PipeValue");
@@ -58,7 +86,7 @@ final class PipeBuilder {
                 + fieldName.substring(1);
         Method getter = null;
         try {
-            getter = businessObject.getClass().getMethod(getterName);
+            getter = businessClass.getMethod(getterName);
         } catch (final NoSuchMethodException e) {
             // pipe is write only
         }
@@ -68,7 +96,7 @@ final class PipeBuilder {
 
         Method setter = null;
         try {
-            setter = businessObject.getClass().getMethod(setterName, type);
+            setter = businessClass.getMethod(setterName, type);
         } catch (final NoSuchMethodException e) {
             // pipe is read only
         }
@@ -77,19 +105,7 @@ final class PipeBuilder {
             throw DevFailedUtils.newDevFailed(BuilderUtils.INIT_ERROR, getterName + " or " + setterName
                     + BuilderUtils.METHOD_NOT_FOUND);
         }
-
-        final Pipe annot = field.getAnnotation(Pipe.class);
-        final String pipeName = BuilderUtils.getPipeName(fieldName, annot);
-        final PipeConfiguration config = BuilderUtils.getPipeConfiguration(type, getter, setter, annot, pipeName);
-
-        final PipeImpl pipe = new PipeImpl(new ReflectPipeBehavior(config, businessObject, getter, setter),
-                device.getName());
-
-        logger.debug("Has a pipe: {}", pipe.getName());
-        BuilderUtils.setStateMachine(field, pipe);
-        device.addPipe(pipe);
-        xlogger.exit(field.getName());
-
+        return new Accessors(fieldName, type, getter, setter);
     }
 
 }
@@ -29,43 +29,31 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.constructs.blocking.SelfPopulatingCache;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tango.server.attribute.AttributeImpl;
+import org.tango.server.attribute.AttributeValue;
 import org.tango.server.device.AroundInvokeImpl;
 import org.tango.server.device.DeviceLocker;
 
+import fr.esrf.Tango.DevFailed;
+
 public final class AttributeCache {
     private final Logger logger = LoggerFactory.getLogger(AttributeCache.class);
 
     private ScheduledFuture<?> result;
-    private final SelfPopulatingCache cache;
+    private final AttributeCacheEntryFactory factory;
     private final AttributeImpl attribute;
 
-    public AttributeCache(final CacheManager manager, final AttributeImpl attr, final String deviceName,
-            final DeviceLocker deviceLock, final AroundInvokeImpl aroundInvoke) {
+    public AttributeCache(final AttributeImpl attr, final String deviceName, final DeviceLocker deviceLock,
+            final AroundInvokeImpl aroundInvoke) {
         attribute = attr;
-        final String cacheName = "attrTangoPollingCache." + deviceName + "/" + attr.getName();
-        Cache defaultCache = manager.getCache(cacheName);
-        if (defaultCache == null) {
-            manager.addCache(cacheName);
-            defaultCache = manager.getCache(cacheName);
-            // defaultCache.setStatisticsEnabled(true);
-        }
-        defaultCache.flush();
-        cache = new SelfPopulatingCache(defaultCache, new AttributeCacheEntryFactory(attr, deviceLock, deviceName,
-                aroundInvoke));
-        cache.getCacheConfiguration().setTimeToLiveSeconds(60);
-
+        factory = new AttributeCacheEntryFactory(attr, deviceLock, deviceName, aroundInvoke);
     }
 
     public void startRefresh(final ScheduledExecutorService pollingPool) {
         logger.debug("start refresh cache of {} ", attribute.getName());
-        final CacheRefresher refresher = new CacheRefresher(cache, attribute.getName().toLowerCase(Locale.ENGLISH));
+        final CacheRefresher refresher = new CacheRefresher(factory, attribute.getName().toLowerCase(Locale.ENGLISH));
         result = pollingPool.scheduleAtFixedRate(refresher, 0L, attribute.getPollingPeriod(), TimeUnit.MILLISECONDS);
     }
 
@@ -76,7 +64,31 @@ public final class AttributeCache {
         }
     }
 
-    public SelfPopulatingCache getCache() {
-        return cache;
+    /**
+     * Poll the attribute now
+     *
+     * @throws DevFailed
+     */
+    public void refresh() throws DevFailed {
+        factory.createEntry();
+    }
+
+    AttributeCacheEntryFactory getEntryFactory() {
+        return factory;
+    }
+
+    /**
+     * Get the last polled value. The attribute is read if it has not been polled yet.
+     *
+     * @return the value
+     * @throws DevFailed the last polling error
+     */
+    public AttributeValue getValue() throws DevFailed {
+        AttributeValue value = attribute.getHistory().getLastReadValue();
+        if (value == null) {
+            factory.createEntry();
+            value = attribute.getHistory().getLastReadValue();
+        }
+        return value;
     }
 }
@@ -25,10 +25,8 @@
 package org.tango.server.cache;
 
 import fr.esrf.Tango.DevFailed;
-import net.sf.ehcache.constructs.blocking.CacheEntryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.tango.server.InvocationContext;
 import org.tango.server.InvocationContext.CallType;
 import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.attribute.AttributeImpl;
@@ -36,8 +34,6 @@ import org.tango.server.device.AroundInvokeImpl;
 import org.tango.server.device.DeviceLocker;
 import org.tango.server.events.EventManager;
 
-import java.util.Locale;
-
 public final class AttributeCacheEntryFactory implements CacheEntryFactory {
     private static final double NANO_TO_MILLI = 1000000.0;
 
@@ -59,63 +55,46 @@ public final class AttributeCacheEntryFactory implements CacheEntryFactory {
     }
 
     @Override
-    public Object createEntry(final Object key) throws DevFailed {
-
-        logger.debug("Creating entry for key = {} , attribute {}/{} ",
-                new Object[]{key, deviceName, attribute.getName()});
-
-        // profilerPeriod.stop().print();
-        // profilerPeriod = new Profiler("period");
-        // profilerPeriod.start(attribute.getName());
-        // if (element != null) {
-        // logger.debug("{} hint {}", element.getHitCount());
-        // System.out.println(element.getExpirationTime());
-        // }
-        // final Profiler profiler = new Profiler("read time");
-        // profiler.start(attribute.getName());
-        Object result = null;
+    public void createEntry() throws DevFailed {
+        try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(attribute.isConcurrentRead())) {
+            updateEntry();
+        }// locked
+    }
 
-        if (key.equals(attribute.getName().toLowerCase(Locale.ENGLISH))) {
-            final Object lock = deviceLock.getAttributeLock();
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, CallType.POLLING, null,
-                        attribute.getName()));
-                attribute.lock();
-                try {
-                    final long time1 = System.nanoTime();
-                    attribute.updateValue();
-                    final long now = System.nanoTime();
-                    final long nowMilli = System.currentTimeMillis();
-                    final long deltaTime = now - lastUpdateTime;
-                    lastUpdateTime = now;
-                    final long executionDuration = lastUpdateTime - time1;
-                    attribute.setPollingStats(executionDuration / NANO_TO_MILLI, nowMilli, deltaTime
-                            / NANO_TO_MILLI);
-                    attribute.addToHistory();
-                    result = attribute.getReadValue();
-                    EventManager.getInstance().pushAttributeValueEvent(deviceName, attribute.getName());
-                } catch (final DevFailed e) {
-                    attribute.addErrorToHistory(e);
-                    EventManager.getInstance().pushAttributeErrorEvent(deviceName, attribute.getName(), e);
-                    throw e;
-                } finally {
-                    attribute.unlock();
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, CallType.POLLING,
-                            null, attribute.getName()));
-                }
-            }// synchronized
+    /**
+     * Read the attribute, add the result to its history and push its events. The device attribute lock must be held by
+     * the caller.
+     *
+     * @throws DevFailed the reading error, already added to the history
+     */
+    void updateEntry() throws DevFailed {
+        logger.debug("Creating entry for attribute {}/{} ", deviceName, attribute.getName());
+        aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, CallType.POLLING, null,
+                attribute.getName());
+        attribute.lock();
+        try {
+            final long time1 = System.nanoTime();
+            attribute.updateValue();
+            final long now = System.nanoTime();
+            final long nowMilli = System.currentTimeMillis();
+            final long deltaTime = now - lastUpdateTime;
+            lastUpdateTime = now;
+            final long executionDuration = lastUpdateTime - time1;
+            attribute.setPollingStats(executionDuration / NANO_TO_MILLI, nowMilli, deltaTime / NANO_TO_MILLI);
+            attribute.addToHistory();
+            EventManager.getInstance().pushAttributeValueEvent(deviceName, attribute.getName());
+        } catch (final DevFailed e) {
+            attribute.addErrorToHistory(e);
+            EventManager.getInstance().pushAttributeErrorEvent(deviceName, attribute.getName(), e);
+            throw e;
+        } finally {
+            attribute.unlock();
+            aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, CallType.POLLING, null,
+                    attribute.getName());
         }
+    }
 
-        // profiler.stop().print();
-
-        return result;
+    AttributeImpl getAttribute() {
+        return attribute;
     }
-    // @Override
-    // public void updateEntryValue(final Object key, final Object value) throws
-    // Exception {
-    // System.out.println("~~~~~~UPDATING entry for key = " + key);
-    // final StringBuffer stringBuffer = (StringBuffer) value;
-    // stringBuffer.append(stringBuffer.length());
-    //
-    // }
 }
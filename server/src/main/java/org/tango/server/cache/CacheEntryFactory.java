@@ -0,0 +1,40 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.cache;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * Poll an attribute or a command and add the result to its history, which is the polling cache
+ */
+public interface CacheEntryFactory {
+
+    /**
+     * Poll the object once
+     *
+     * @throws DevFailed the polling error, already added to the history
+     */
+    void createEntry() throws DevFailed;
+}
@@ -26,38 +26,32 @@ package org.tango.server.cache;
 
 import java.util.Locale;
 
-import net.sf.ehcache.CacheException;
-import net.sf.ehcache.constructs.blocking.SelfPopulatingCache;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tango.utils.DevFailedUtils;
+
+import fr.esrf.Tango.DevFailed;
 
 public final class CacheRefresher implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(CacheRefresher.class);
-    private final SelfPopulatingCache cache;
+    private final CacheEntryFactory factory;
     private final String name;
 
-//    private final Profiler profiler;
-
-    public CacheRefresher(final SelfPopulatingCache cache, final String name) {
-        this.cache = cache;
+    public CacheRefresher(final CacheEntryFactory factory, final String name) {
+        this.factory = factory;
         this.name = name.toLowerCase(Locale.ENGLISH);
-//        profiler = new Profiler("tangoCache");
-//        profiler.start(cache.getName());
     }
 
     @Override
     public void run() {
-        logger.debug("refresh {}", cache.getName());
-
-//        profiler.stop().print();
-//        profiler.start(cache.getName());
+        logger.debug("refresh {}", name);
         try {
-            cache.get(name);
-            cache.refresh();
-        } catch (final CacheException e) {
-            logger.error("error {}", e.getCause());
+            factory.createEntry();
+        } catch (final DevFailed e) {
+            logger.error("error polling {}: {}", name, DevFailedUtils.toString(e));
+        } catch (final RuntimeException e) {
+            // do not stop the periodic polling
+            logger.error("error polling " + name, e);
         }
-
     }
 }
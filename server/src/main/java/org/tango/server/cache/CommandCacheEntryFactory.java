@@ -24,11 +24,8 @@
  */
 package org.tango.server.cache;
 
-import net.sf.ehcache.constructs.blocking.CacheEntryFactory;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.tango.server.InvocationContext;
 import org.tango.server.InvocationContext.CallType;
 import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.command.CommandImpl;
@@ -56,16 +53,14 @@ public final class CommandCacheEntryFactory implements CacheEntryFactory {
     }
 
     @Override
-    public Object createEntry(final Object key) throws DevFailed {
-        logger.debug("Creating entry for key = {} , command {} ", key, command.getName());
-        Object result = null;
-        final Object lock = deviceLock.getCommandLock();
-        synchronized (lock != null ? lock : new Object()) {
-            aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_COMMAND, CallType.POLLING, null, command
-                    .getName()));
+    public void createEntry() throws DevFailed {
+        logger.debug("Creating entry for command {} ", command.getName());
+        try (DeviceLocker.Hold ignoredLock = deviceLock.lockCommand()) {
+            aroundInvoke.aroundInvoke(ContextType.PRE_COMMAND, CallType.POLLING, null, command
+                    .getName());
             try {
                 final long time1 = System.nanoTime();
-                result = command.execute(null);
+                final Object result = command.execute(null);
                 final long now = System.nanoTime();
                 final long nowMilli = System.currentTimeMillis();
                 final long deltaTime = now - lastUpdateTime;
@@ -77,11 +72,10 @@ public final class CommandCacheEntryFactory implements CacheEntryFactory {
                 command.addErrorToHistory(e);
                 throw e;
             } finally {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_COMMAND, CallType.POLLING, null,
-                        command.getName()));
+                aroundInvoke.aroundInvoke(ContextType.POST_COMMAND, CallType.POLLING, null,
+                        command.getName());
             }
-        }// synchronized
-        return result;
+        }// locked
     }
 
 }
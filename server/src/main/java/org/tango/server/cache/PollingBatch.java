@@ -0,0 +1,199 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.cache;
+
+import fr.esrf.Tango.DevFailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.server.InvocationContext.CallType;
+import org.tango.server.InvocationContext.ContextType;
+import org.tango.server.device.AroundInvokeImpl;
+import org.tango.server.device.DeviceLocker;
+import org.tango.utils.DevFailedUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Poll all the attributes of a device that have the same polling period in a single task. At each tick, the
+ * attributes are read like with read_attributes: the device lock is taken once, the hooks for several attributes are
+ * called around the readings and, as read_attributes does, the hooks of each attribute around its reading. Each
+ * attribute history and events are then updated.
+ *
+ * @see TangoCacheManager
+ */
+public final class PollingBatch implements Runnable {
+    private static final double NANO_TO_MILLI = 1000000.0;
+
+    private final Logger logger = LoggerFactory.getLogger(PollingBatch.class);
+
+    private final int pollingPeriod;
+    private final DeviceLocker deviceLock;
+    private final AroundInvokeImpl aroundInvoke;
+    private final List<AttributeCacheEntryFactory> entries = new CopyOnWriteArrayList<AttributeCacheEntryFactory>();
+    private ScheduledFuture<?> result;
+
+    private volatile long firstTickTime;
+    private volatile long ticks;
+    private volatile long overruns;
+    private volatile double lastJitter;
+    private volatile double maxJitter;
+
+    PollingBatch(final int pollingPeriod, final DeviceLocker deviceLock, final AroundInvokeImpl aroundInvoke) {
+        this.pollingPeriod = pollingPeriod;
+        this.deviceLock = deviceLock;
+        this.aroundInvoke = aroundInvoke;
+    }
+
+    void add(final AttributeCacheEntryFactory entry) {
+        entries.add(entry);
+    }
+
+    void remove(final AttributeCacheEntryFactory entry) {
+        entries.remove(entry);
+    }
+
+    boolean contains(final AttributeCacheEntryFactory entry) {
+        return entries.contains(entry);
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    void startRefresh(final ScheduledExecutorService pollingPool) {
+        if (result == null) {
+            logger.debug("start refresh of {} attributes at period of {}", entries.size(), pollingPeriod);
+            ticks = 0;
+            overruns = 0;
+            lastJitter = 0;
+            maxJitter = 0;
+            result = pollingPool.scheduleAtFixedRate(this, 0L, pollingPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void stopRefresh() {
+        if (result != null) {
+            logger.debug("stop refresh of {} attributes at period of {}", entries.size(), pollingPeriod);
+            result.cancel(true);
+            result = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        final long start = System.nanoTime();
+        if (ticks == 0) {
+            firstTickTime = start;
+        }
+        final long expected = firstTickTime + TimeUnit.MILLISECONDS.toNanos(ticks * pollingPeriod);
+        try {
+            poll();
+        } catch (final DevFailed e) {
+            logger.error("error polling {}: {}", this, DevFailedUtils.toString(e));
+        } catch (final RuntimeException e) {
+            // do not stop the periodic polling
+            logger.error("error polling " + this, e);
+        }
+        final long duration = System.nanoTime() - start;
+        if (duration > TimeUnit.MILLISECONDS.toNanos(pollingPeriod)) {
+            overruns++;
+        }
+        lastJitter = (start - expected) / NANO_TO_MILLI;
+        maxJitter = Math.max(maxJitter, lastJitter);
+        ticks++;
+    }
+
+    private void poll() throws DevFailed {
+        final AttributeCacheEntryFactory[] polled = entries.toArray(new AttributeCacheEntryFactory[0]);
+        final String[] names = new String[polled.length];
+        boolean shared = true;
+        for (int i = 0; i < polled.length; i++) {
+            names[i] = polled[i].getAttribute().getName();
+            shared &= polled[i].getAttribute().isConcurrentRead();
+        }
+        try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(shared)) {
+            aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, CallType.POLLING, null,
+                    names);
+            for (final AttributeCacheEntryFactory entry : polled) {
+                try {
+                    entry.updateEntry();
+                } catch (final DevFailed e) {
+                    // already in the attribute history
+                    logger.debug("error polling {}: {}", entry.getAttribute().getName(), DevFailedUtils.toString(e));
+                }
+            }
+            aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, CallType.POLLING, null,
+                    names);
+        }
+    }
+
+    public int getPollingPeriod() {
+        return pollingPeriod;
+    }
+
+    /**
+     * @return the number of polled attributes
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of ticks since the start of the polling
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return the number of ticks that lasted longer than the polling period
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * @return the delay of the last tick compared to its scheduled time, in ms
+     */
+    public double getLastJitter() {
+        return lastJitter;
+    }
+
+    /**
+     * @return the maximum delay of a tick compared to its scheduled time, in ms
+     */
+    public double getMaxJitter() {
+        return maxJitter;
+    }
+
+    @Override
+    public String toString() {
+        return "batch of " + entries.size() + " attributes polled every " + pollingPeriod + " ms";
+    }
+}
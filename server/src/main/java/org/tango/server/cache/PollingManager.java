@@ -24,9 +24,9 @@
  */
 package org.tango.server.cache;
 
+import fr.esrf.Tango.AttributeValue_4;
+import fr.esrf.Tango.AttributeValue_5;
 import fr.esrf.Tango.DevFailed;
-import net.sf.ehcache.CacheException;
-import net.sf.ehcache.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tango.client.database.DatabaseFactory;
@@ -43,7 +43,6 @@ import org.tango.server.servant.CommandGetter;
 import org.tango.server.servant.DeviceImpl;
 import org.tango.utils.DevFailedUtils;
 
-import java.io.Serializable;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
@@ -194,26 +193,16 @@ public final class PollingManager {
             }
             checkPolling(objectName, att);
             try {
-                cacheManager.getAttributeCache(att).refresh(att.getName());
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    throw (DevFailed) e.getCause();
-                } else {
-                    throw DevFailedUtils.newDevFailed(e.getCause());
-                }
+                cacheManager.refreshAttribute(att);
             } catch (final NoCacheFoundException e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
         } else {
             checkPolling(objectName, cmd);
             try {
-                cacheManager.getCommandCache(cmd).refresh(cmd.getName());
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    throw (DevFailed) e.getCause();
-                } else {
-                    throw DevFailedUtils.newDevFailed(e.getCause());
-                }
+                cacheManager.refreshCommand(cmd);
+            } catch (final NoCacheFoundException e) {
+                throw DevFailedUtils.newDevFailed(e);
             }
         }
     }
@@ -356,43 +345,66 @@ public final class PollingManager {
         cacheManager.removeAll();
     }
 
+    /**
+     * @param cmd the command
+     * @return the last polled result
+     * @throws DevFailed the last polling error, or if the command is not polled
+     */
     public Object getCommandCacheElement(final CommandImpl cmd) throws DevFailed {
-        Object ret;
         try {
-            final Element element = cacheManager.getCommandCache(cmd).get(cmd.getName().toLowerCase(Locale.ENGLISH));
-            final Serializable cmdValue = element.getValue();
-            if (cmdValue instanceof org.tango.server.attribute.AttributeValue) {
-                // state or status are returned as attribute value
-                ret = ((org.tango.server.attribute.AttributeValue) cmdValue).getValue();
-            } else {
-                ret = element.getValue();
-            }
-        } catch (final CacheException e) {
-            if (e.getCause() instanceof DevFailed) {
-                throw (DevFailed) e.getCause();
-            } else {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            }
+            return cacheManager.getCommandValue(cmd);
+        } catch (final NoCacheFoundException e) {
+            throw DevFailedUtils.newDevFailed(e);
         }
-        return ret;
     }
 
     /**
      * @param att the attribute
-     * @return element or null
-     * @throws IllegalStateException TODO description
-     * @throws CacheException        TODO description
+     * @return the last polled value, or null if the attribute is not polled
+     * @throws DevFailed the last polling error
      */
-    public AttributeValue getAttributeCacheElement(final AttributeImpl att) throws CacheException {
-        final Element element;
+    public AttributeValue getAttributeCacheElement(final AttributeImpl att) throws DevFailed {
         try {
-            element = cacheManager.getAttributeCache(att).get(att.getName().toLowerCase(Locale.ENGLISH));
-            return (AttributeValue) element.getValue();
-        } catch (NoCacheFoundException e) {
+            return cacheManager.getAttributeValue(att);
+        } catch (final NoCacheFoundException e) {
             return null;
         }
     }
 
+    /**
+     * @param att the attribute
+     * @return the last polled value converted to IDL5, or null if the attribute is not polled. It is shared between
+     * the clients and must not be modified.
+     * @throws DevFailed the last polling error
+     */
+    public AttributeValue_5 getAttributeCacheElement5(final AttributeImpl att) throws DevFailed {
+        if (getAttributeCacheElement(att) == null) {
+            return null;
+        }
+        return att.getHistory().getLastReadValue5(att);
+    }
+
+    /**
+     * @param att the attribute
+     * @return the last polled value converted to IDL4, or null if the attribute is not polled. It is shared between
+     * the clients and must not be modified.
+     * @throws DevFailed the last polling error
+     */
+    public AttributeValue_4 getAttributeCacheElement4(final AttributeImpl att) throws DevFailed {
+        if (getAttributeCacheElement(att) == null) {
+            return null;
+        }
+        return att.getHistory().getLastReadValue4(att);
+    }
+
+    /**
+     * @param att the attribute
+     * @return the batch that polls the attribute, or null if it is not polled in a batch
+     */
+    public PollingBatch getPollingBatch(final AttributeImpl att) {
+        return cacheManager.getPollingBatch(att);
+    }
+
     public void setPollRingDepth(final int pollRingDepth) {
         this.pollRingDepth = pollRingDepth;
     }
@@ -0,0 +1,151 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring of the last polled values of an attribute or a command. Writers (the poller, the external triggers or
+ * the filling of the history by the device) are serialized between them, readers never lock: they take a snapshot of
+ * the published elements and skip the ones that have been overwritten in the meantime.
+ *
+ * @param <E> the element type
+ */
+public final class PollingRing<E> {
+
+    private static final class Slot<E> {
+        private final long sequence;
+        private final E element;
+
+        private Slot(final long sequence, final E element) {
+            this.sequence = sequence;
+            this.element = element;
+        }
+    }
+
+    private static final class Ring<E> {
+        private final AtomicReferenceArray<Slot<E>> slots;
+        /**
+         * number of elements added, published after the write of its slot
+         */
+        private volatile long count;
+
+        private Ring(final int capacity) {
+            slots = new AtomicReferenceArray<Slot<E>>(capacity);
+        }
+
+        private int capacity() {
+            return slots.length();
+        }
+
+        private void add(final E element) {
+            final long sequence = count;
+            slots.set((int) (sequence % capacity()), new Slot<E>(sequence, element));
+            count = sequence + 1;
+        }
+
+        private List<E> toList(final int maxSize) {
+            final long end = count;
+            final long start = Math.max(0, end - Math.min(maxSize, capacity()));
+            final List<E> list = new ArrayList<E>((int) (end - start));
+            for (long sequence = start; sequence < end; sequence++) {
+                final Slot<E> slot = slots.get((int) (sequence % capacity()));
+                // an older slot may have been overwritten by the writer during the copy
+                if (slot != null && slot.sequence == sequence) {
+                    list.add(slot.element);
+                }
+            }
+            return list;
+        }
+    }
+
+    private volatile Ring<E> ring;
+
+    /**
+     * @param capacity the maximum number of elements, at least one is kept
+     */
+    public PollingRing(final int capacity) {
+        ring = new Ring<E>(Math.max(1, capacity));
+    }
+
+    /**
+     * Add an element, the oldest one is dropped if the ring is full
+     *
+     * @param element the element
+     */
+    public synchronized void add(final E element) {
+        ring.add(element);
+    }
+
+    /**
+     * @return the last added element, or null if empty
+     */
+    public E getLast() {
+        final Ring<E> current = ring;
+        final long count = current.count;
+        if (count == 0) {
+            return null;
+        }
+        return current.slots.get((int) ((count - 1) % current.capacity())).element;
+    }
+
+    /**
+     * @param maxSize the maximum number of elements to return
+     * @return the last elements, from the oldest to the newest
+     */
+    public List<E> toList(final int maxSize) {
+        return ring.toList(maxSize);
+    }
+
+    public int size() {
+        final Ring<E> current = ring;
+        return (int) Math.min(current.count, current.capacity());
+    }
+
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Change the capacity. The last elements are kept.
+     *
+     * @param capacity the maximum number of elements, at least one is kept
+     */
+    public synchronized void setCapacity(final int capacity) {
+        final Ring<E> resized = new Ring<E>(Math.max(1, capacity));
+        if (resized.capacity() != ring.capacity()) {
+            for (final E element : ring.toList(resized.capacity())) {
+                resized.add(element);
+            }
+            ring = resized;
+        }
+    }
+
+    public synchronized void clear() {
+        ring = new Ring<E>(ring.capacity());
+    }
+}
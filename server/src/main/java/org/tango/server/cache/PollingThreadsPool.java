@@ -0,0 +1,194 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * The polling threads of a server, like in the C++ API: each thread polls a group of devices, so that a slow device
+ * only delays the devices of its group. The groups come from the admin device property polling_threads_pool_conf
+ * (one element per thread, with the device names separated by commas). A device that is not configured gets a new
+ * thread while there are less than polling_threads_pool_size threads, otherwise it joins the least loaded thread.
+ */
+final class PollingThreadsPool {
+
+    private static final class PollingThread {
+        private final Set<String> devices = new LinkedHashSet<String>();
+        private ScheduledExecutorService executor;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(PollingThreadsPool.class);
+
+    private final List<PollingThread> threads = new ArrayList<PollingThread>();
+    private int maxThreads;
+
+    PollingThreadsPool(final int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Set the device groups. The threads already started are kept.
+     *
+     * @param configuration the value of polling_threads_pool_conf
+     */
+    synchronized void setConfiguration(final String[] configuration) {
+        for (final PollingThread thread : threads) {
+            if (thread.executor == null) {
+                thread.devices.clear();
+            }
+        }
+        for (final String group : configuration) {
+            PollingThread thread = null;
+            for (final String name : group.split(",")) {
+                final String deviceName = name.trim().toLowerCase(Locale.ENGLISH);
+                if (!deviceName.isEmpty() && getThread(deviceName) == null) {
+                    if (thread == null) {
+                        thread = new PollingThread();
+                        threads.add(thread);
+                    }
+                    thread.devices.add(deviceName);
+                }
+            }
+        }
+        removeUnusedThreads();
+    }
+
+    /**
+     * @return the device groups, as for polling_threads_pool_conf
+     */
+    synchronized String[] getConfiguration() {
+        final List<String> configuration = new ArrayList<String>(threads.size());
+        for (final PollingThread thread : threads) {
+            if (!thread.devices.isEmpty()) {
+                configuration.add(String.join(",", thread.devices));
+            }
+        }
+        return configuration.toArray(new String[0]);
+    }
+
+    /**
+     * @return the polled devices, ordered by thread
+     */
+    synchronized List<String> getDevices() {
+        final List<String> devices = new ArrayList<String>();
+        for (final PollingThread thread : threads) {
+            devices.addAll(thread.devices);
+        }
+        return Collections.unmodifiableList(devices);
+    }
+
+    /**
+     * Change the maximum number of threads. It applies to the devices that are not polled yet, the current polling
+     * is not restarted.
+     *
+     * @param maxThreads the maximum number of threads
+     */
+    synchronized void setMaxThreads(final int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    synchronized int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @param deviceName the device name
+     * @return true if the device has already a polling thread
+     */
+    synchronized boolean isAssigned(final String deviceName) {
+        final PollingThread thread = getThread(deviceName.toLowerCase(Locale.ENGLISH));
+        return thread != null && thread.executor != null;
+    }
+
+    /**
+     * Get the polling thread of a device, it is assigned if necessary
+     *
+     * @param deviceName the device name
+     * @return the executor of the device polling thread
+     */
+    synchronized ScheduledExecutorService getExecutor(final String deviceName) {
+        final String name = deviceName.toLowerCase(Locale.ENGLISH);
+        PollingThread thread = getThread(name);
+        if (thread == null) {
+            if (threads.size() < maxThreads) {
+                thread = new PollingThread();
+                threads.add(thread);
+            } else {
+                thread = threads.get(0);
+                for (final PollingThread other : threads) {
+                    if (other.devices.size() < thread.devices.size()) {
+                        thread = other;
+                    }
+                }
+            }
+            thread.devices.add(name);
+        }
+        if (thread.executor == null) {
+            thread.executor = new ScheduledThreadPoolExecutor(1, new TangoCacheThreadFactory());
+            logger.debug("new polling thread for {}", thread.devices);
+        }
+        return thread.executor;
+    }
+
+    /**
+     * Stop all polling threads
+     */
+    synchronized void shutdown() {
+        for (final PollingThread thread : threads) {
+            if (thread.executor != null) {
+                thread.executor.shutdownNow();
+                thread.executor = null;
+            }
+        }
+        threads.clear();
+    }
+
+    private PollingThread getThread(final String deviceName) {
+        for (final PollingThread thread : threads) {
+            if (thread.devices.contains(deviceName)) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    private void removeUnusedThreads() {
+        for (int i = threads.size() - 1; i >= 0; i--) {
+            if (threads.get(i).devices.isEmpty() && threads.get(i).executor == null) {
+                threads.remove(i);
+            }
+        }
+    }
+}
@@ -24,12 +24,11 @@
  */
 package org.tango.server.cache;
 
-import net.sf.ehcache.Cache;
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.constructs.blocking.SelfPopulatingCache;
+import fr.esrf.Tango.DevFailed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tango.server.attribute.AttributeImpl;
+import org.tango.server.attribute.AttributeValue;
 import org.tango.server.command.CommandImpl;
 import org.tango.server.device.AroundInvokeImpl;
 import org.tango.server.device.DeviceLocker;
@@ -40,31 +39,22 @@ import java.util.concurrent.TimeUnit;
 
 public final class StateStatusCache {
     private final Logger logger = LoggerFactory.getLogger(StateStatusCache.class);
-    private final SelfPopulatingCache cache;
+    private final StateStatusCacheEntryFactory factory;
     private final CommandImpl command;
+    private final AttributeImpl attribute;
     private ScheduledFuture<?> result;
 
-    public StateStatusCache(final CacheManager manager, final CommandImpl command, final AttributeImpl attribute,
-                            final String deviceName, final DeviceLocker deviceLock, final AroundInvokeImpl aroundInvoke) {
+    public StateStatusCache(final CommandImpl command, final AttributeImpl attribute, final String deviceName,
+                            final DeviceLocker deviceLock, final AroundInvokeImpl aroundInvoke) {
         this.command = command;
-        final String cacheName = "stateStatusTangoPollingCache." + deviceName + "/" + command.getName();
-        Cache defaultCache = manager.getCache(cacheName);
-        if (defaultCache == null) {
-            manager.addCache(cacheName);
-            defaultCache = manager.getCache(cacheName);
-            // defaultCache.setStatisticsEnabled(true);
-        }
-        defaultCache.flush();
-        cache = new SelfPopulatingCache(defaultCache, new StateStatusCacheEntryFactory(command, attribute, deviceLock,
-                deviceName, aroundInvoke));
-        cache.getCacheConfiguration().setTimeToLiveSeconds(60);
-
+        this.attribute = attribute;
+        factory = new StateStatusCacheEntryFactory(command, attribute, deviceLock, deviceName, aroundInvoke);
     }
 
     public void startRefresh(final ScheduledExecutorService pollingPool) {
         if (result == null) {
             logger.debug("start refresh cache of {} at period of {}", command.getName(), command.getPollingPeriod());
-            final CacheRefresher refresher = new CacheRefresher(cache, command.getName());
+            final CacheRefresher refresher = new CacheRefresher(factory, command.getName());
             result = pollingPool.scheduleAtFixedRate(refresher, 0L, command.getPollingPeriod(), TimeUnit.MILLISECONDS);
         }
     }
@@ -83,7 +73,40 @@ public final class StateStatusCache {
         }
     }
 
-    public SelfPopulatingCache getCache() {
-        return cache;
+    /**
+     * Read the state or the status now
+     *
+     * @throws DevFailed
+     */
+    public void refresh() throws DevFailed {
+        factory.createEntry();
+    }
+
+    /**
+     * Get the last polled value as an attribute. It is read if it has not been polled yet.
+     *
+     * @return the value
+     * @throws DevFailed the last polling error
+     */
+    public AttributeValue getAttributeValue() throws DevFailed {
+        AttributeValue value = attribute.getHistory().getLastReadValue();
+        if (value == null) {
+            factory.createEntry();
+            value = attribute.getHistory().getLastReadValue();
+        }
+        return value;
+    }
+
+    /**
+     * Get the last polled value as a command result. It is read if it has not been polled yet.
+     *
+     * @return the state or the status
+     * @throws DevFailed the last polling error
+     */
+    public Object getCommandValue() throws DevFailed {
+        if (!command.getHistory().hasValue()) {
+            factory.createEntry();
+        }
+        return command.getHistory().getLastValue();
     }
 }
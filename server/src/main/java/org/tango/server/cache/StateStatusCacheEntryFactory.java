@@ -25,12 +25,9 @@
 package org.tango.server.cache;
 
 import fr.esrf.Tango.DevFailed;
-import net.sf.ehcache.constructs.blocking.CacheEntryFactory;
-import org.tango.server.InvocationContext;
 import org.tango.server.InvocationContext.CallType;
 import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.attribute.AttributeImpl;
-import org.tango.server.attribute.AttributeValue;
 import org.tango.server.command.CommandImpl;
 import org.tango.server.device.AroundInvokeImpl;
 import org.tango.server.device.DeviceLocker;
@@ -55,13 +52,10 @@ public final class StateStatusCacheEntryFactory implements CacheEntryFactory {
     }
 
     @Override
-    public Object createEntry(final Object key) throws DevFailed {
-
-        Object result = null;
-        final Object lock = deviceLock.getAttributeLock();
-        synchronized (lock != null ? lock : new Object()) {
-            aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, CallType.POLLING, null,
-                    attribute.getName()));
+    public void createEntry() throws DevFailed {
+        try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
+            aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, CallType.POLLING, null,
+                    attribute.getName());
             attribute.lock();
             try {
                 final long time1 = System.nanoTime();
@@ -74,8 +68,7 @@ public final class StateStatusCacheEntryFactory implements CacheEntryFactory {
                 attribute.setPollingStats(executionDuration / NANO_TO_MILLI, nowMilli, deltaTime / NANO_TO_MILLI);
                 command.setPollingStats(executionDuration / NANO_TO_MILLI, nowMilli, deltaTime / NANO_TO_MILLI);
                 attribute.addToHistory();
-                result = attribute.getReadValue();
-                command.addToHistory(((AttributeValue) result).getValue());
+                command.addToHistory(attribute.getReadValue().getValue());
                 EventManager.getInstance().pushAttributeValueEvent(deviceName, attribute.getName());
             } catch (final DevFailed e) {
                 command.addErrorToHistory(e);
@@ -84,11 +77,10 @@ public final class StateStatusCacheEntryFactory implements CacheEntryFactory {
                 throw e;
             } finally {
                 attribute.unlock();
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, CallType.POLLING,
-                        null, attribute.getName()));
+                aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, CallType.POLLING,
+                        null, attribute.getName());
             }
-        }// synchronized
-        return result;
+        }// locked
     }
 
 }
@@ -25,33 +25,29 @@
 package org.tango.server.cache;
 
 import fr.esrf.Tango.DevFailed;
-import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.config.CacheConfiguration;
-import net.sf.ehcache.config.Configuration;
-import net.sf.ehcache.constructs.blocking.SelfPopulatingCache;
-import net.sf.ehcache.management.ManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.tango.client.database.DatabaseFactory;
+import org.tango.server.Constants;
 import org.tango.server.ServerManager;
 import org.tango.server.attribute.AttributeImpl;
+import org.tango.server.attribute.AttributeValue;
 import org.tango.server.command.CommandImpl;
 import org.tango.server.device.AroundInvokeImpl;
 import org.tango.server.device.DeviceLocker;
 import org.tango.server.properties.PropertiesUtils;
 import org.tango.server.servant.DeviceImpl;
 
-import javax.management.MBeanServer;
-import java.lang.management.ManagementFactory;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 /**
- * Manage cache for attributes/commands of a Tango device
+ * Manage cache for attributes/commands of a Tango device. The cache of a polled object is its history: reads from
+ * cache return its last entry without locking.
  *
  * @author ABEILLE
  *
@@ -64,29 +60,30 @@ public final class TangoCacheManager {
 
     private static final int POOL_SIZE = 1;
 
-    private static volatile ScheduledExecutorService POLLING_POOL = new ScheduledThreadPoolExecutor(POOL_SIZE,
-            new TangoCacheThreadFactory());
     /**
-     * Maintains the ordered list of polled device of the server
+     * The polling threads, one per group of devices
      */
-    private static List<String> polledDevices = new LinkedList<String>();
-    private volatile static CacheManager MANAGER;
-    private static int poolSize = POOL_SIZE;
-    private static Map<String, TangoCacheManager> cacheList = new HashMap<String, TangoCacheManager>();
-    private final Map<AttributeImpl, AttributeCache> attributeCacheMap = new HashMap<AttributeImpl, AttributeCache>();
-    private final Map<CommandImpl, CommandCache> commandCacheMap = new HashMap<CommandImpl, CommandCache>();
+    private static final PollingThreadsPool POLLING_THREADS = new PollingThreadsPool(POOL_SIZE);
+    private static Map<String, TangoCacheManager> cacheList = new ConcurrentHashMap<String, TangoCacheManager>();
+    private final Map<AttributeImpl, AttributeCache> attributeCacheMap = new ConcurrentHashMap<AttributeImpl, AttributeCache>();
+    private final Map<CommandImpl, CommandCache> commandCacheMap = new ConcurrentHashMap<CommandImpl, CommandCache>();
     /**
      * pollingPeriod==0 means that the polling is triggered externally
      */
-    private final Map<AttributeImpl, AttributeCache> extTrigAttributeCacheMap = new HashMap<AttributeImpl, AttributeCache>();
-    private final Map<CommandImpl, CommandCache> extTrigCommandCacheMap = new HashMap<CommandImpl, CommandCache>();
+    private final Map<AttributeImpl, AttributeCache> extTrigAttributeCacheMap = new ConcurrentHashMap<AttributeImpl, AttributeCache>();
+    private final Map<CommandImpl, CommandCache> extTrigCommandCacheMap = new ConcurrentHashMap<CommandImpl, CommandCache>();
+    /**
+     * The attributes polled in batch, by polling period
+     */
+    private final Map<Integer, PollingBatch> pollingBatches = new HashMap<Integer, PollingBatch>();
+    private final boolean isBatchedPolling = Boolean.getBoolean(Constants.BATCHED_POLLING_PROPERTY);
     private final DeviceLocker deviceLock;
 
     private final String deviceName;
 
     private final AroundInvokeImpl aroundInvoke;
-    private StateStatusCache stateCache;
-    private StateStatusCache statusCache;
+    private volatile StateStatusCache stateCache;
+    private volatile StateStatusCache statusCache;
 
     public TangoCacheManager(final String deviceName, final DeviceLocker deviceLock, final AroundInvokeImpl aroundInvoke) {
         this.deviceLock = deviceLock;
@@ -95,111 +92,86 @@ public final class TangoCacheManager {
         cacheList.put(deviceName, this);
     }
 
-    private static void startCache() {
-        final Configuration config = new Configuration();
-        config.setUpdateCheck(false);
-        final CacheConfiguration defaultCacheConfiguration = new CacheConfiguration();
-        defaultCacheConfiguration.setDiskPersistent(false);
-        defaultCacheConfiguration.setOverflowToDisk(false);
-        defaultCacheConfiguration.setMaxElementsInMemory(1);
-        config.setDefaultCacheConfiguration(defaultCacheConfiguration);
-        MANAGER = CacheManager.create(config);
-        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
-        ManagementService.registerMBeans(MANAGER, mBeanServer, true, true, true, true, true);
-        setPollSize(POOL_SIZE);
-    }
-
     public static void shutdown() {
-        if (MANAGER != null) {
-            MANAGER.shutdown();
-            MANAGER = null;
-        }
-        if (POLLING_POOL != null) {
-            POLLING_POOL.shutdownNow();
-            POLLING_POOL = null;
-        }
+        POLLING_THREADS.shutdown();
     }
 
     /**
-     * Retrieve the ordered list of polled devices
+     * Retrieve the device groups of the polling threads. Each element of polling_threads_pool_conf is the comma
+     * separated list of the devices polled by a same thread.
      *
      * @throws DevFailed
      */
     public static void initPoolConf() throws DevFailed {
-        polledDevices.clear();
         final Map<String, String[]> prop = PropertiesUtils.getDeviceProperties(ServerManager.getInstance()
                 .getAdminDeviceName());
         if (prop.containsKey(POLLING_THREADS_POOL_CONF)) {
-            final String[] pollingThreadsPoolConf = prop.get(POLLING_THREADS_POOL_CONF);
-            for (int i = 0; i < pollingThreadsPoolConf.length; i++) {
-                if (cacheList.containsKey(pollingThreadsPoolConf[i]) && !pollingThreadsPoolConf[i].isEmpty()
-                        && !polledDevices.contains(pollingThreadsPoolConf[i])) {
-                    polledDevices.add(pollingThreadsPoolConf[i]);
-                }
-            }
+            POLLING_THREADS.setConfiguration(prop.get(POLLING_THREADS_POOL_CONF));
+        } else {
+            POLLING_THREADS.setConfiguration(new String[0]);
         }
     }
 
+    /**
+     * Set the maximum number of polling threads. The devices already polled keep their thread.
+     *
+     * @param poolSize
+     *            the maximum number of polling threads, ignored if not strictly positive
+     */
     public static void setPollSize(final int poolSize) {
         if (poolSize > 0) {
-            TangoCacheManager.poolSize = poolSize;
-            for (final TangoCacheManager cache : cacheList.values()) {
-                cache.stop();
-            }
-            if (POLLING_POOL != null) {
-                POLLING_POOL.shutdownNow();
-            }
-            POLLING_POOL = new ScheduledThreadPoolExecutor(poolSize, new TangoCacheThreadFactory());
-            for (final TangoCacheManager cache : cacheList.values()) {
-                cache.start();
-            }
+            POLLING_THREADS.setMaxThreads(poolSize);
             LOGGER.debug("polling pool size is {}", poolSize);
         }
     }
 
     public static int getPoolSize() {
-        return poolSize;
+        return POLLING_THREADS.getMaxThreads();
     }
 
     public static List<String> getPolledDevices() {
-        return polledDevices;
+        return POLLING_THREADS.getDevices();
+    }
+
+    /**
+     * @return the polling thread of this device
+     */
+    private ScheduledExecutorService getPollingPool() {
+        return POLLING_THREADS.getExecutor(deviceName);
     }
 
     /**
-     * Add the current device in polled list and persist it as device property of admin device. This property is not
-     * used. Just here to have the same behavior as C++ Tango API.
+     * Assign a polling thread to the current device and persist the device groups as property of admin device, like
+     * the C++ Tango API.
      *
      * @throws DevFailed
      */
     private void updatePoolConf() throws DevFailed {
-        if (!polledDevices.contains(deviceName)) {
-            polledDevices.add(deviceName);
+        if (!POLLING_THREADS.isAssigned(deviceName)) {
+            getPollingPool();
             final Map<String, String[]> properties = new HashMap<String, String[]>();
-            properties.put(POLLING_THREADS_POOL_CONF, polledDevices.toArray(new String[0]));
+            properties.put(POLLING_THREADS_POOL_CONF, POLLING_THREADS.getConfiguration());
             DatabaseFactory.getDatabase().setDeviceProperties(ServerManager.getInstance().getAdminDeviceName(),
                     properties);
         }
     }
 
     public synchronized void startStateStatusPolling(final CommandImpl command, final AttributeImpl attribute) {
-        if (MANAGER == null) {
-            startCache();
-        }
         if (command.getName().equalsIgnoreCase(DeviceImpl.STATE_NAME)) {
             if (stateCache != null) {
                 stateCache.stopRefresh();
             }
-            stateCache = new StateStatusCache(MANAGER, command, attribute, deviceName, deviceLock, aroundInvoke);
+            stateCache = new StateStatusCache(command, attribute, deviceName, deviceLock, aroundInvoke);
             if (command.getPollingPeriod() != 0) {
-                stateCache.startRefresh(POLLING_POOL);
+                stateCache.startRefresh(getPollingPool());
             }
         } else if (command.getName().equalsIgnoreCase(DeviceImpl.STATUS_NAME)) {
             if (statusCache != null) {
                 statusCache.stopRefresh();
             }
-            statusCache = new StateStatusCache(MANAGER, command, attribute, deviceName, deviceLock, aroundInvoke);
+            statusCache = new StateStatusCache(command, attribute, deviceName, deviceLock, aroundInvoke);
             if (command.getPollingPeriod() != 0) {
-                statusCache.startRefresh(POLLING_POOL);
+                statusCache.startRefresh(getPollingPool());
             }
         }
     }
@@ -215,7 +187,7 @@ public final class TangoCacheManager {
         addCommandPolling(command);
         LOGGER.debug("starting command {} for polling on device {}", command.getName(), deviceName);
         if (command.getPollingPeriod() != 0) {
-            commandCacheMap.get(command).startRefresh(POLLING_POOL);
+            commandCacheMap.get(command).startRefresh(getPollingPool());
         }
     }
 
@@ -226,11 +198,8 @@ public final class TangoCacheManager {
      * @throws DevFailed
      */
     private void addCommandPolling(final CommandImpl command) throws DevFailed {
-        if (MANAGER == null) {
-            startCache();
-        }
         removeCommandPolling(command);
-        final CommandCache cache = new CommandCache(MANAGER, command, deviceName, deviceLock, aroundInvoke);
+        final CommandCache cache = new CommandCache(command, deviceLock, aroundInvoke);
         if (command.getPollingPeriod() == 0) {
             extTrigCommandCacheMap.put(command, cache);
         } else {
@@ -250,7 +219,35 @@ public final class TangoCacheManager {
         addAttributePolling(attr);
         LOGGER.debug("starting attribute {} for polling on device {}", attr.getName(), deviceName);
         if (attr.getPollingPeriod() != 0) {
-            attributeCacheMap.get(attr).startRefresh(POLLING_POOL);
+            startRefresh(attr, attributeCacheMap.get(attr));
+        }
+    }
+
+    private void startRefresh(final AttributeImpl attr, final AttributeCache cache) {
+        if (isBatchedPolling) {
+            PollingBatch batch = pollingBatches.get(attr.getPollingPeriod());
+            if (batch == null) {
+                batch = new PollingBatch(attr.getPollingPeriod(), deviceLock, aroundInvoke);
+                pollingBatches.put(attr.getPollingPeriod(), batch);
+            }
+            batch.add(cache.getEntryFactory());
+            batch.startRefresh(getPollingPool());
+        } else {
+            cache.startRefresh(getPollingPool());
+        }
+    }
+
+    private void stopRefresh(final AttributeCache cache) {
+        cache.stopRefresh();
+        // the polling period may have already been changed, so look into all batches
+        final Iterator<PollingBatch> it = pollingBatches.values().iterator();
+        while (it.hasNext()) {
+            final PollingBatch batch = it.next();
+            batch.remove(cache.getEntryFactory());
+            if (batch.isEmpty()) {
+                batch.stopRefresh();
+                it.remove();
+            }
         }
     }
 
@@ -261,11 +258,8 @@ public final class TangoCacheManager {
      * @throws DevFailed
      */
     private void addAttributePolling(final AttributeImpl attr) throws DevFailed {
-        if (MANAGER == null) {
-            startCache();
-        }
         removeAttributePolling(attr);
-        final AttributeCache cache = new AttributeCache(MANAGER, attr, deviceName, deviceLock, aroundInvoke);
+        final AttributeCache cache = new AttributeCache(attr, deviceName, deviceLock, aroundInvoke);
         if (attr.getPollingPeriod() == 0) {
             extTrigAttributeCacheMap.put(attr, cache);
         } else {
@@ -283,7 +277,7 @@ public final class TangoCacheManager {
     public synchronized void removeAttributePolling(final AttributeImpl attr) throws DevFailed {
         if (attributeCacheMap.containsKey(attr)) {
             final AttributeCache cache = attributeCacheMap.get(attr);
-            cache.stopRefresh();
+            stopRefresh(cache);
             attributeCacheMap.remove(attr);
         } else if (extTrigAttributeCacheMap.containsKey(attr)) {
             extTrigAttributeCacheMap.remove(attr);
@@ -303,6 +297,10 @@ public final class TangoCacheManager {
         for (final AttributeCache cache : attributeCacheMap.values()) {
             cache.stopRefresh();
         }
+        for (final PollingBatch batch : pollingBatches.values()) {
+            batch.stopRefresh();
+        }
+        pollingBatches.clear();
         attributeCacheMap.clear();
         extTrigAttributeCacheMap.clear();
         for (final CommandCache cache : commandCacheMap.values()) {
@@ -347,17 +345,24 @@ public final class TangoCacheManager {
      * Start all polling
      */
     public synchronized void start() {
-        for (final AttributeCache cache : attributeCacheMap.values()) {
-            cache.startRefresh(POLLING_POOL);
+        final ScheduledExecutorService pollingPool = getPollingPool();
+        if (isBatchedPolling) {
+            for (final PollingBatch batch : pollingBatches.values()) {
+                batch.startRefresh(pollingPool);
+            }
+        } else {
+            for (final AttributeCache cache : attributeCacheMap.values()) {
+                cache.startRefresh(pollingPool);
+            }
         }
         for (final CommandCache cache : commandCacheMap.values()) {
-            cache.startRefresh(POLLING_POOL);
+            cache.startRefresh(pollingPool);
         }
         if (stateCache != null) {
-            stateCache.startRefresh(POLLING_POOL);
+            stateCache.startRefresh(pollingPool);
         }
         if (statusCache != null) {
-            statusCache.startRefresh(POLLING_POOL);
+            statusCache.startRefresh(pollingPool);
         }
     }
 
@@ -368,6 +373,9 @@ public final class TangoCacheManager {
         for (final AttributeCache cache : attributeCacheMap.values()) {
             cache.stopRefresh();
         }
+        for (final PollingBatch batch : pollingBatches.values()) {
+            batch.stopRefresh();
+        }
         for (final CommandCache cache : commandCacheMap.values()) {
             cache.stopRefresh();
         }
@@ -377,59 +385,125 @@ public final class TangoCacheManager {
         if (statusCache != null) {
             statusCache.stopRefresh();
         }
-        if (POLLING_POOL != null) {
-            POLLING_POOL.shutdownNow();
-            POLLING_POOL = new ScheduledThreadPoolExecutor(poolSize, new TangoCacheThreadFactory());
+    }
+
+    /**
+     * Get the last polled value of an attribute
+     *
+     * @param attr
+     *            the attribute
+     * @return the value
+     * @throws NoCacheFoundException if the attribute is not polled
+     * @throws DevFailed the last polling error
+     */
+    public AttributeValue getAttributeValue(final AttributeImpl attr) throws NoCacheFoundException, DevFailed {
+        if (attr.getName().equalsIgnoreCase(DeviceImpl.STATE_NAME)) {
+            return getStateStatusCache(stateCache, attr.getName()).getAttributeValue();
+        } else if (attr.getName().equalsIgnoreCase(DeviceImpl.STATUS_NAME)) {
+            return getStateStatusCache(statusCache, attr.getName()).getAttributeValue();
+        } else {
+            return getAttributeCache(attr).getValue();
         }
     }
 
     /**
-     * Get cache of an attribute
+     * Poll an attribute now
      *
      * @param attr
      *            the attribute
-     * @return the attribute cache
-     * @throws NoCacheFoundException if cache for the attribute is not found
+     * @throws NoCacheFoundException if the attribute is not polled
+     * @throws DevFailed the polling error
      */
-    public synchronized SelfPopulatingCache getAttributeCache(final AttributeImpl attr) throws NoCacheFoundException {
+    public void refreshAttribute(final AttributeImpl attr) throws NoCacheFoundException, DevFailed {
         if (attr.getName().equalsIgnoreCase(DeviceImpl.STATE_NAME)) {
-            return stateCache.getCache();
+            getStateStatusCache(stateCache, attr.getName()).refresh();
         } else if (attr.getName().equalsIgnoreCase(DeviceImpl.STATUS_NAME)) {
-            return statusCache.getCache();
+            getStateStatusCache(statusCache, attr.getName()).refresh();
         } else {
-            return tryGetAttributeCache(attr);
+            getAttributeCache(attr).refresh();
+        }
+    }
+
+    /**
+     * Get the batch that polls an attribute
+     *
+     * @param attr
+     *            the attribute
+     * @return the batch, or null if the attribute is not polled in a batch
+     */
+    public synchronized PollingBatch getPollingBatch(final AttributeImpl attr) {
+        final AttributeCache cache = attributeCacheMap.get(attr);
+        if (cache != null) {
+            for (final PollingBatch batch : pollingBatches.values()) {
+                if (batch.contains(cache.getEntryFactory())) {
+                    return batch;
+                }
+            }
         }
+        return null;
     }
 
-    private SelfPopulatingCache tryGetAttributeCache(final AttributeImpl attr) throws NoCacheFoundException {
+    private AttributeCache getAttributeCache(final AttributeImpl attr) throws NoCacheFoundException {
         AttributeCache attrCache = attributeCacheMap.get(attr);
         if (attrCache == null) {
             attrCache = extTrigAttributeCacheMap.get(attr);
             if (attrCache == null)
                 throw new NoCacheFoundException("No cache found for " + attr.getName());
         }
-        return attrCache.getCache();
+        return attrCache;
     }
 
     /**
-     * Get cache of a command
+     * Get the last polled result of a command
      *
      * @param cmd
      *            The command
-     * @return The command cache
+     * @return The result
+     * @throws NoCacheFoundException if the command is not polled
+     * @throws DevFailed the last polling error
      */
-    public synchronized SelfPopulatingCache getCommandCache(final CommandImpl cmd) {
-        SelfPopulatingCache cache = null;
+    public Object getCommandValue(final CommandImpl cmd) throws NoCacheFoundException, DevFailed {
         if (cmd.getName().equalsIgnoreCase(DeviceImpl.STATE_NAME)) {
-            cache = stateCache.getCache();
+            return getStateStatusCache(stateCache, cmd.getName()).getCommandValue();
         } else if (cmd.getName().equalsIgnoreCase(DeviceImpl.STATUS_NAME)) {
-            cache = statusCache.getCache();
+            return getStateStatusCache(statusCache, cmd.getName()).getCommandValue();
         } else {
-            CommandCache cmdCache = commandCacheMap.get(cmd);
-            if (cmdCache == null) {
-                cmdCache = extTrigCommandCacheMap.get(cmd);
-            }
-            cache = cmdCache.getCache();
+            return getCommandCache(cmd).getValue();
+        }
+    }
+
+    /**
+     * Execute a polled command now
+     *
+     * @param cmd
+     *            The command
+     * @throws NoCacheFoundException if the command is not polled
+     * @throws DevFailed the polling error
+     */
+    public void refreshCommand(final CommandImpl cmd) throws NoCacheFoundException, DevFailed {
+        if (cmd.getName().equalsIgnoreCase(DeviceImpl.STATE_NAME)) {
+            getStateStatusCache(stateCache, cmd.getName()).refresh();
+        } else if (cmd.getName().equalsIgnoreCase(DeviceImpl.STATUS_NAME)) {
+            getStateStatusCache(statusCache, cmd.getName()).refresh();
+        } else {
+            getCommandCache(cmd).refresh();
+        }
+    }
+
+    private CommandCache getCommandCache(final CommandImpl cmd) throws NoCacheFoundException {
+        CommandCache cmdCache = commandCacheMap.get(cmd);
+        if (cmdCache == null) {
+            cmdCache = extTrigCommandCacheMap.get(cmd);
+            if (cmdCache == null)
+                throw new NoCacheFoundException("No cache found for " + cmd.getName());
+        }
+        return cmdCache;
+    }
+
+    private static StateStatusCache getStateStatusCache(final StateStatusCache cache, final String name)
+            throws NoCacheFoundException {
+        if (cache == null) {
+            throw new NoCacheFoundException("No cache found for " + name);
         }
         return cache;
     }
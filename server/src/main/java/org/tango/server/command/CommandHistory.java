@@ -25,18 +25,16 @@
 package org.tango.server.command;
 
 import java.lang.reflect.Array;
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.tango.orb.ORBManager;
 import org.tango.server.Constants;
+import org.tango.server.cache.PollingRing;
 import org.tango.server.idl.CleverAnyCommand;
 import org.tango.server.idl.TangoIDLUtil;
 
@@ -48,9 +46,11 @@ import fr.esrf.Tango.EltInArray;
 import fr.esrf.Tango.TimeVal;
 import fr.esrf.TangoDs.TangoConst;
 
+/**
+ * The polling buffer of a command. Its last item is the value returned for executions from the cache.
+ */
 public final class CommandHistory {
 
-    private final Logger logger = LoggerFactory.getLogger(CommandHistory.class);
     /**
      * Utility to get array type of a scalar type
      */
@@ -112,42 +112,61 @@ public final class CommandHistory {
 	}
     }
 
-    private final Deque<HistoryItem> commandHistory = new ArrayDeque<HistoryItem>(Constants.QUEUE_CAPACITY);
+    private final PollingRing<HistoryItem> commandHistory = new PollingRing<HistoryItem>(
+	    Constants.DEFAULT_POLL_DEPTH);
 
     private final int type;
-    private int maxSize = 10;
 
     public CommandHistory(final int type) {
 	this.type = type;
     }
 
     public void setMaxSize(final int maxSize) {
-	this.maxSize = maxSize;
+	commandHistory.setCapacity(maxSize);
+    }
+
+    public void addToHistory(final Object value, final DevError[] error) throws DevFailed {
+	commandHistory.add(new HistoryItem(value, System.currentTimeMillis(), error));
+    }
+
+    /**
+     * @return true if the history contains at least one result
+     */
+    public boolean hasValue() {
+	return commandHistory.size() != 0;
     }
 
-    public synchronized void addToHistory(final Object value, final DevError[] error) throws DevFailed {
-	while (commandHistory.size() >= maxSize - 1) {
-	    commandHistory.poll();
+    /**
+     * Get the last result of the history
+     *
+     * @return the value, null if the history is empty
+     * @throws DevFailed the error of the last execution
+     */
+    public Object getLastValue() throws DevFailed {
+	final HistoryItem item = commandHistory.getLast();
+	if (item == null) {
+	    return null;
 	}
-	final boolean isInserted = commandHistory.offer(new HistoryItem(value, System.currentTimeMillis(), error));
-	if (!isInserted) {
-	    logger.debug("{} not inserted in command history queue ", value);
+	if (item.getError().length != 0) {
+	    throw new DevFailed(item.getError());
 	}
+	return item.getValue();
     }
 
-    public synchronized int size() {
+    public int size() {
 	return commandHistory.size();
     }
 
-    public synchronized void clear() {
+    public void clear() {
 	commandHistory.clear();
     }
 
-    public synchronized DevCmdHistory_4 toDevCmdHistory4(final int maxSize) throws DevFailed {
+    public DevCmdHistory_4 toDevCmdHistory4(final int maxSize) throws DevFailed {
 
 	final DevCmdHistory_4 history = new DevCmdHistory_4();
-	if (!commandHistory.isEmpty()) {
-	    final HistoryItem[] returnedhistoryArray = createHistoryArray(maxSize);
+	final List<HistoryItem> items = commandHistory.toList(maxSize);
+	if (!items.isEmpty()) {
+	    final HistoryItem[] returnedhistoryArray = items.toArray(new HistoryItem[items.size()]);
 	    final TimeVal[] times = new TimeVal[returnedhistoryArray.length];
 
 	    final LinkedList<AttributeDim> dim = new LinkedList<AttributeDim>();
@@ -215,21 +234,7 @@ public final class CommandHistory {
 	return array;
     }
 
-    private HistoryItem[] createHistoryArray(final int maxSize) {
-	final HistoryItem[] historyArray = Collections.asLifoQueue(commandHistory).toArray(
-		new HistoryItem[commandHistory.size()]);
-	HistoryItem[] returnedhistoryArray;
-	if (commandHistory.size() > maxSize) {
-	    returnedhistoryArray = new HistoryItem[maxSize];
-	    System.arraycopy(historyArray, historyArray.length - maxSize, returnedhistoryArray, 0,
-		    returnedhistoryArray.length);
-	} else {
-	    returnedhistoryArray = historyArray;
-	}
-	return returnedhistoryArray;
-    }
-
     public int getMaxSize() {
-	return maxSize;
+	return commandHistory.getCapacity();
     }
 }
@@ -24,7 +24,8 @@
  */
 package org.tango.server.command;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 
 import org.apache.commons.lang3.ClassUtils;
@@ -32,6 +33,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
+import org.tango.server.MethodHandleUtils;
 import org.tango.server.StateMachineBehavior;
 import org.tango.utils.DevFailedUtils;
 
@@ -42,39 +44,43 @@ public final class ReflectCommandBehavior implements ICommandBehavior {
     private final XLogger xlogger = XLoggerFactory.getXLogger(ReflectCommandBehavior.class);
 
     private final Method executeMethod;
+    /**
+     * The execute method, called through a method handle created with the behavior
+     */
+    private final MethodHandle executeHandle;
     private final Object businessObject;
     private final CommandConfiguration config;
 
     public ReflectCommandBehavior(final Method executeMethod, final Object businessObject,
-            final CommandConfiguration config) {
+            final CommandConfiguration config) throws DevFailed {
         this.executeMethod = executeMethod;
         this.businessObject = businessObject;
         this.config = config;
+        executeHandle = MethodHandleUtils.bind(executeMethod, businessObject,
+                MethodType.genericMethodType(executeMethod.getParameterCount()));
     }
 
     @Override
     public Object execute(final Object arg) throws DevFailed {
         xlogger.entry();
         Object obj = null;
+        if (!config.getInType().equals(Void.class)) {
+            checkInputType(arg);
+        }
         try {
             if (!config.getInType().equals(Void.class)) {
-                checkInputType(arg);
                 // execute with params
-                obj = executeMethod.invoke(businessObject, arg);
+                obj = (Object) executeHandle.invokeExact(arg);
             } else {
                 // execute without params
-                obj = executeMethod.invoke(businessObject);
+                obj = (Object) executeHandle.invokeExact();
             }
-        } catch (final IllegalAccessException e) {
+        } catch (final DevFailed e) {
+            throw e;
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable e) {
             throw DevFailedUtils.newDevFailed(e);
-        } catch (IllegalArgumentException| InvocationTargetException e) {
-            DevFailed devFailed;
-            if (e.getCause() instanceof DevFailed) {
-                devFailed = (DevFailed) e.getCause();
-            } else {
-                devFailed = DevFailedUtils.newDevFailed(e.getCause());
-            }
-            throw devFailed;
         }
 
         xlogger.exit();
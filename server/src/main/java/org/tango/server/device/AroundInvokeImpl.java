@@ -32,9 +32,12 @@ import org.apache.commons.lang3.builder.ToStringStyle;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 import org.tango.server.InvocationContext;
+import org.tango.server.InvocationContext.CallType;
+import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.annotation.AroundInvoke;
 import org.tango.utils.DevFailedUtils;
 
+import fr.esrf.Tango.ClntIdent;
 import fr.esrf.Tango.DevFailed;
 
 /**
@@ -63,6 +66,48 @@ public final class AroundInvokeImpl {
         this.aroundInvokeMethod = aroundInvokeMethod;
     }
 
+    /**
+     * Call aroundInvoke implementation for an attribute, a command, a pipe or the device. The context is created only
+     * if the device has an {@link AroundInvoke} method.
+     *
+     * @param context
+     *            the context type
+     * @param callType
+     *            the call type
+     * @param clientID
+     *            the client, may be null
+     * @param name
+     *            the name of the attribute, command, pipe or device
+     * @throws DevFailed
+     */
+    public void aroundInvoke(final ContextType context, final CallType callType, final ClntIdent clientID,
+            final String name) throws DevFailed {
+        if (aroundInvokeMethod != null) {
+            aroundInvoke(new InvocationContext(context, callType, clientID, name));
+        }
+    }
+
+    /**
+     * Call aroundInvoke implementation for several attributes. The context is created only if the device has an
+     * {@link AroundInvoke} method.
+     *
+     * @param context
+     *            the context type
+     * @param callType
+     *            the call type
+     * @param clientID
+     *            the client, may be null
+     * @param names
+     *            the attribute names
+     * @throws DevFailed
+     */
+    public void aroundInvoke(final ContextType context, final CallType callType, final ClntIdent clientID,
+            final String[] names) throws DevFailed {
+        if (aroundInvokeMethod != null) {
+            aroundInvoke(new InvocationContext(context, callType, clientID, names));
+        }
+    }
+
     /**
      * Call aroundInvoke implementation
      *
@@ -24,10 +24,15 @@
  */
 package org.tango.server.device;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.tango.server.annotation.TransactionType;
+import org.tango.server.monitoring.DeviceMonitoring;
 
 /**
  * Manage a tango device synchronization.
@@ -37,24 +42,37 @@ import org.tango.server.annotation.TransactionType;
  * 
  */
 public final class DeviceLocker {
+
+    /**
+     * A held lock, released by {@link #close()}
+     */
+    public interface Hold extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Hold NO_LOCK = () -> {
+    };
+
     /**
      * Lock for attributes
      */
-    private final Object attributeLock;
+    private final ReadWriteLock attributeLock;
     /**
      * Lock for commands
      */
-    private final Object commandLock;
+    private final ReadWriteLock commandLock;
     /**
      * Lock for server
      */
-    private static final Object SERVER_LOCK = new Object();
+    private static final ReadWriteLock SERVER_LOCK = new ExclusiveLock();
     /**
      * Lock for classes
      */
-    private static final Map<Class<?>, Object> CLASS_LOCKS = new HashMap<Class<?>, Object>();
+    private static final Map<Class<?>, ReadWriteLock> CLASS_LOCKS = new ConcurrentHashMap<Class<?>, ReadWriteLock>();
 
     private final TransactionType txType;
+    private final DeviceMonitoring monitoring;
 
     /**
      * Ctr
@@ -65,37 +83,50 @@ public final class DeviceLocker {
      *            the class to lock
      */
     public DeviceLocker(final TransactionType txType, final Class<?> deviceClass) {
+        this(txType, deviceClass, null);
+    }
+
+    /**
+     * Ctr
+     * 
+     * @param txType
+     *            lock type
+     * @param deviceClass
+     *            the class to lock
+     * @param monitoring
+     *            records the time spent waiting for the locks, may be null
+     */
+    public DeviceLocker(final TransactionType txType, final Class<?> deviceClass, final DeviceMonitoring monitoring) {
         this.txType = txType;
+        this.monitoring = monitoring;
         switch (txType) {
             case DEVICE:
-                attributeLock = new Object();
+                attributeLock = new ExclusiveLock();
                 commandLock = attributeLock;
                 break;
             case ATTRIBUTE:
-                attributeLock = new Object();
+                attributeLock = new ExclusiveLock();
                 commandLock = null;
                 break;
             case COMMAND:
-                commandLock = new Object();
+                commandLock = new ExclusiveLock();
                 attributeLock = null;
                 break;
             case CLASS:
-                if (CLASS_LOCKS.containsKey(deviceClass)) {
-                    commandLock = CLASS_LOCKS.get(deviceClass);
-                    attributeLock = commandLock;
-                } else {
-                    commandLock = new Object();
-                    attributeLock = commandLock;
-                    CLASS_LOCKS.put(deviceClass, commandLock);
-                }
+                commandLock = CLASS_LOCKS.computeIfAbsent(deviceClass, k -> new ExclusiveLock());
+                attributeLock = commandLock;
                 break;
             case SERVER:
                 attributeLock = SERVER_LOCK;
                 commandLock = SERVER_LOCK;
                 break;
             case ATTRIBUTE_COMMAND:
-                attributeLock = new Object();
-                commandLock = new Object();
+                attributeLock = new ExclusiveLock();
+                commandLock = new ExclusiveLock();
+                break;
+            case READ_WRITE:
+                attributeLock = new ReentrantReadWriteLock();
+                commandLock = attributeLock;
                 break;
             case NONE:
             default:
@@ -105,16 +136,60 @@ public final class DeviceLocker {
         }
     }
 
-    public Object getAttributeLock() {
-        return attributeLock;
+    /**
+     * Lock the device to access its attributes
+     * 
+     * @param shared
+     *            true if the request only reads attributes whose read can run concurrently. It is then executed at
+     *            the same time as the other shared requests with {@link TransactionType#READ_WRITE}, it is exclusive
+     *            with the other transaction types.
+     * @return the hold to release
+     */
+    public Hold lockAttributes(final boolean shared) {
+        return lock(attributeLock, shared);
     }
 
-    public Object getCommandLock() {
-        return commandLock;
+    /**
+     * Lock the device to execute a command
+     * 
+     * @return the hold to release
+     */
+    public Hold lockCommand() {
+        return lock(commandLock, false);
+    }
+
+    private Hold lock(final ReadWriteLock readWriteLock, final boolean shared) {
+        if (readWriteLock == null) {
+            return NO_LOCK;
+        }
+        final Lock lock = shared ? readWriteLock.readLock() : readWriteLock.writeLock();
+        final long start = System.nanoTime();
+        lock.lock();
+        if (monitoring != null) {
+            monitoring.addLockWait(shared, System.nanoTime() - start);
+        }
+        return lock::unlock;
     }
 
     public TransactionType getTxType() {
         return txType;
     }
 
+    /**
+     * A read write lock where reads are exclusive too
+     */
+    private static final class ExclusiveLock implements ReadWriteLock {
+        private final Lock lock = new ReentrantLock();
+
+        @Override
+        public Lock readLock() {
+            return lock;
+        }
+
+        @Override
+        public Lock writeLock() {
+            return lock;
+        }
+    }
+
 }
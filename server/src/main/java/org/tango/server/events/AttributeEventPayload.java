@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+import org.tango.server.attribute.AttributeImpl;
+
+/**
+ * Marshalled value of an attribute for one push. The value is marshalled at most once per IDL version, the resulting
+ * buffer is then shared by all the events (change, periodic, archive...) and all the sockets of this push. The buffers
+ * must not be modified once built.
+ */
+final class AttributeEventPayload {
+
+    private byte[] idl5;
+    private byte[] idl4;
+
+    /**
+     * Get the marshalled value of the attribute, marshall it on first call
+     *
+     * @param attribute          the attribute to marshall
+     * @param isLatestIDLVersion true for an IDL5 value, false for IDL4
+     * @return the marshalled attribute value
+     * @throws DevFailed if marshall action failed
+     */
+    byte[] get(final AttributeImpl attribute, final boolean isLatestIDLVersion) throws DevFailed {
+        if (isLatestIDLVersion) {
+            if (idl5 == null) {
+                idl5 = EventUtilities.marshallIDL5(attribute);
+            }
+            return idl5;
+        } else {
+            if (idl4 == null) {
+                idl4 = EventUtilities.marshallIDL4(attribute);
+            }
+            return idl4;
+        }
+    }
+}
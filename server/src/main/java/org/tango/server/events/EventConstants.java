@@ -43,6 +43,16 @@ interface EventConstants {
     // Time to manage events
     long EVENT_RESUBSCRIBE_PERIOD = 600000;
     long EVENT_HEARTBEAT_PERIOD = 9000;
+    long EVENT_EXPIRY_CHECK_PERIOD = 10000;
+
+    // Asynchronous event publishing, disabled by default
+    String ASYNC_PUBLISHING_PROPERTY = "org.tango.server.events.async";
+    String PUBLISHING_QUEUE_SIZE_PROPERTY = "org.tango.server.events.queueSize";
+    int PUBLISHING_QUEUE_SIZE_DEFAULT = 10000;
+    int PUBLISHING_BATCH_SIZE = 100;
+
+    // Larger event encoding buffers are not kept between events
+    int MAX_ENCODING_BUFFER_SIZE = 16 * 1024 * 1024;
 
     // Used by sent object but not yet by client API
     String EXECUTE_METHOD = "";
@@ -33,7 +33,6 @@ import org.tango.server.attribute.AttributeImpl;
 import org.tango.server.pipe.PipeImpl;
 import org.tango.server.servant.DeviceImpl;
 import org.tango.utils.DevFailedUtils;
-import org.zeromq.ZMQ;
 
 /**
  * based on AttributeImpl object with event information
@@ -48,7 +47,7 @@ final class EventImpl {
     private final boolean isLatestIDLVersion;
     private final String fullName;
     private AttributeImpl attribute;
-    private long subscribeTime;
+    private volatile long subscribeTime;
     private int counter = 0;
 
     /**
@@ -94,6 +93,10 @@ final class EventImpl {
         updateSubscribeTime();
     }
 
+    String getFullName() {
+        return fullName;
+    }
+
     /**
      * Update the subscribe time to manage if subscribe is still active.
      */
@@ -113,49 +116,35 @@ final class EventImpl {
     }
 
     /**
-     * Fire an event containing a value is condition is valid.
+     * Fire an event containing a value if condition is valid. The trigger is evaluated once and the same marshalled
+     * value is sent to all sockets.
      *
+     * @param eventSender sends the event to the event sockets
+     * @param payload     the attribute value, marshalled at most once per IDL version for all events of a push
      * @throws DevFailed
-     * @param eventSocket
      */
-    protected void pushAttributeValueEvent(ZMQ.Socket eventSocket) throws DevFailed {
+    void pushAttributeValueEvent(final EventSender eventSender, final AttributeEventPayload payload) throws DevFailed {
         xlogger.entry();
         eventTrigger.setError(null);
         eventTrigger.updateProperties();
         if (isSendEvent()) {
-            sendAttributeValueEvent(eventSocket);
-        }
-        xlogger.exit();
-    }
-
-
-    private void sendAttributeValueEvent(ZMQ.Socket eventSocket) throws DevFailed {
-        xlogger.entry();
-        try {
-            if (isLatestIDLVersion) {
-                synchronized (eventSocket) {
-                    EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL5(attribute));
-                }
-            } else {
-                synchronized (eventSocket) {
-                    EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL4(attribute));
+            try {
+                eventSender.send(fullName, counter++, payload.get(attribute, isLatestIDLVersion));
+            } catch (final org.zeromq.ZMQException | ArrayIndexOutOfBoundsException e) {
+                if (e instanceof ArrayIndexOutOfBoundsException) {
+                    logger.error(fullName, e);
                 }
+                throw DevFailedUtils.newDevFailed(e);
             }
-        } catch (final org.zeromq.ZMQException | ArrayIndexOutOfBoundsException e) {
-            if (e instanceof ArrayIndexOutOfBoundsException) {
-                logger.error(fullName, e);
-            }
-            throw DevFailedUtils.newDevFailed(e);
         }
         xlogger.exit();
     }
 
-    public void pushAttributeIDL5Event(AttributeValue_5 value, ZMQ.Socket eventSocket) throws DevFailed {
+    void pushAttributeIDL5Event(final AttributeValue_5 value, final EventSender eventSender)
+            throws DevFailed {
         xlogger.entry();
         try {
-            synchronized (eventSocket) {
-                EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL5(value));
-            }
+            eventSender.send(fullName, counter++, EventUtilities.marshallIDL5(value));
         } catch (final org.zeromq.ZMQException | ArrayIndexOutOfBoundsException e) {
             if (e instanceof ArrayIndexOutOfBoundsException) {
                 logger.error(fullName, e);
@@ -168,75 +157,63 @@ final class EventImpl {
     /**
      * Send a data ready event
      *
-     * @param counter  a counter value
-     * @param eventSocket
+     * @param counter     a counter value
+     * @param eventSender sends the event to the event sockets
      * @throws DevFailed
      */
-    protected void pushAttributeDataReadyEvent(final int counter, ZMQ.Socket eventSocket)
-            throws DevFailed {
+    void pushAttributeDataReadyEvent(final int counter, final EventSender eventSender) throws DevFailed {
         xlogger.entry();
         try {
             final AttDataReady dataReady = new AttDataReady(attribute.getName(), attribute.getTangoType(), counter);
-            synchronized (eventSocket) {
-                EventUtilities.sendToSocket(eventSocket, fullName, counter, EventUtilities.marshall(dataReady));
-            }
+            eventSender.send(fullName, counter, EventUtilities.marshall(dataReady));
         } catch (final org.zeromq.ZMQException e) {
             throw DevFailedUtils.newDevFailed(e);
         }
-
         xlogger.exit();
     }
 
-    protected void pushAttributeConfigIDL5Event(AttributeConfig_5 config, ZMQ.Socket eventSocket) throws DevFailed {
+    void pushAttributeConfigIDL5Event(final AttributeConfig_5 config, final EventSender eventSender)
+            throws DevFailed {
         xlogger.entry();
         try {
-            synchronized (eventSocket) {
-                EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL5Config(config));
-            }
+            eventSender.send(fullName, counter++, EventUtilities.marshallIDL5Config(config));
         } catch (final org.zeromq.ZMQException e) {
             throw DevFailedUtils.newDevFailed(e);
         }
         xlogger.exit();
     }
 
-    protected void pushAttributeConfigEvent(ZMQ.Socket eventSocket) throws DevFailed {
+    void pushAttributeConfigEvent(final EventSender eventSender) throws DevFailed {
         xlogger.entry();
         try {
+            final byte[] data;
             if (isLatestIDLVersion) {
-                synchronized (eventSocket) {
-                    EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL5Config(attribute));
-                }
+                data = EventUtilities.marshallIDL5Config(attribute);
             } else {
-                synchronized (eventSocket) {
-                    EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshallIDL4Config(attribute));
-                }
+                data = EventUtilities.marshallIDL4Config(attribute);
             }
+            eventSender.send(fullName, counter++, data);
         } catch (final org.zeromq.ZMQException e) {
             throw DevFailedUtils.newDevFailed(e);
         }
         xlogger.exit();
     }
 
-    void pushInterfaceChangeEvent(
-            final DevIntrChange deviceInterface, ZMQ.Socket eventSocket) throws DevFailed {
+    void pushInterfaceChangeEvent(final DevIntrChange deviceInterface, final EventSender eventSender)
+            throws DevFailed {
         xlogger.entry();
         try {
-            synchronized (eventSocket) {
-                EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshall(deviceInterface));
-            }
+            eventSender.send(fullName, counter++, EventUtilities.marshall(deviceInterface));
         } catch (final org.zeromq.ZMQException e) {
             throw DevFailedUtils.newDevFailed(e);
         }
         xlogger.exit();
     }
 
-    protected void pushPipeEvent(final DevPipeData pipeData, ZMQ.Socket eventSocket)
-            throws DevFailed {
+    void pushPipeEvent(final DevPipeData pipeData, final EventSender eventSender) throws DevFailed {
         xlogger.entry();
         try {
-            synchronized (eventSocket) {
-                EventUtilities.sendToSocket(eventSocket, fullName, counter++, EventUtilities.marshall(pipeData));
-            }
+            eventSender.send(fullName, counter++, EventUtilities.marshall(pipeData));
         } catch (final org.zeromq.ZMQException e) {
             throw DevFailedUtils.newDevFailed(e);
         }
@@ -246,19 +223,17 @@ final class EventImpl {
     /**
      * Fire an event containing a DevFailed.
      *
-     * @param devFailed the failed object to be sent.
-     * @param eventSocket
+     * @param devFailed   the failed object to be sent.
+     * @param eventSender sends the event to the event sockets
      * @throws DevFailed
      */
-    protected void pushDevFailedEvent(final DevFailed devFailed, ZMQ.Socket eventSocket) throws DevFailed {
+    void pushDevFailedEvent(final DevFailed devFailed, final EventSender eventSender) throws DevFailed {
         xlogger.entry();
         eventTrigger.updateProperties();
         eventTrigger.setError(devFailed);
         if (isSendEvent()) {
             try {
-                synchronized (eventSocket) {
-                    EventUtilities.sendToSocket(eventSocket, fullName, counter++, true, EventUtilities.marshall(devFailed));
-                }
+                eventSender.send(fullName, counter++, true, EventUtilities.marshall(devFailed));
             } catch (final org.zeromq.ZMQException e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
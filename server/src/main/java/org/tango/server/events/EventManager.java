@@ -74,7 +74,7 @@ public final class EventManager {
     public static final String IDL_LATEST = "idl" + DeviceImpl.SERVER_VERSION + "_";
     private static final EventManager INSTANCE = new EventManager();
 
-    private final Map<String, EventImpl> eventImplMap = new HashMap<String, EventImpl>();
+    private final EventRegistry eventRegistry = new EventRegistry();
     private final ScheduledExecutorService scheduledHeartbeatExecutor = Executors.newSingleThreadScheduledExecutor(
             new ThreadFactoryBuilder()
                     .setNameFormat("Event-HeartBeat-%d")
@@ -85,19 +85,8 @@ public final class EventManager {
     private final int clientHWN = initializeClientHwm();
     private final Map<String, ZMQ.Socket> heartbeatEndpoints = Maps.newLinkedHashMap();
     private final Map<String, ZMQ.Socket> eventEndpoints = Maps.newLinkedHashMap();
-
-    private final java.util.function.Function<EventImpl, Void> pushAttributeValueEvent = (eventImpl) -> {
-        for (Map.Entry<String, ZMQ.Socket> eventSocket : eventEndpoints.entrySet()) {
-            try {
-                logger.debug("sending event to {}", eventSocket.getKey());
-                eventImpl.pushAttributeValueEvent(eventSocket.getValue());
-            } catch (DevFailed devFailed) {
-                logger.error("Failed to pushAttributeValueEvent");
-                DevFailedUtils.logDevFailed(devFailed, logger);
-            }
-        }
-        return null;
-    };
+    private final EventPublisher eventPublisher;
+    private final EventSender eventSender;
 
     private EventManager() {
         List<String> ipAddresses = getIp4Addresses();
@@ -105,6 +94,18 @@ public final class EventManager {
         bindEndpoints(createSocket(), ipAddresses, heartbeatEndpoints, SocketType.HEARTBEAT);
         bindEndpoints(createEventSocket(), ipAddresses, eventEndpoints, SocketType.EVENTS);
 
+        if (Boolean.getBoolean(EventConstants.ASYNC_PUBLISHING_PROPERTY)) {
+            // events are sent from a dedicated thread
+            eventPublisher = new EventPublisher(eventEndpoints.values(), Integer.getInteger(
+                    EventConstants.PUBLISHING_QUEUE_SIZE_PROPERTY, EventConstants.PUBLISHING_QUEUE_SIZE_DEFAULT));
+            eventPublisher.start();
+            eventSender = eventPublisher;
+        } else {
+            eventPublisher = null;
+            eventSender = (fullName, counter, isException, data) -> EventUtilities.sendToSockets(
+                    eventEndpoints.values(), fullName, counter, isException, data);
+        }
+
         final String adminDeviceName = ServerManager.getInstance().getAdminDeviceName();
         final String heartbeatName;
         try {
@@ -115,6 +116,9 @@ public final class EventManager {
             logger.error("Failed to build heartbeat event name, heartbeats won't be send!");
             DevFailedUtils.logDevFailed(devFailed, logger);
         }
+        // expired subscriptions are removed in background, not while pushing events
+        scheduledHeartbeatExecutor.scheduleAtFixedRate(eventRegistry::removeExpired,
+                EventConstants.EVENT_EXPIRY_CHECK_PERIOD, EventConstants.EVENT_EXPIRY_CHECK_PERIOD, TimeUnit.MILLISECONDS);
 
     }
 
@@ -243,38 +247,8 @@ public final class EventManager {
     }
 
 
-    /**
-     * Search the specified EventImpl object
-     *
-     * @param fullName specified EventImpl name.
-     * @return the specified EventImpl object if found, otherwise returns null.
-     */
-    //TODO concurrency
-    private EventImpl getEventImpl(final String fullName) {
-        // Check if subscribed
-        EventImpl eventImpl = eventImplMap.get(fullName);
-
-        // Check if subscription is out of time
-        if (eventImpl != null && !eventImpl.isStillSubscribed()) {
-            logger.debug("{} not subscribed any more", fullName);
-            // System.out.println(fullName + "Not Subscribed any more");
-            eventImplMap.remove(fullName);
-
-            return null;
-        } else {
-            return eventImpl;
-        }
-    }
-
     public boolean hasSubscriber(final String deviceName) {
-        boolean hasSubscriber = false;
-        for (final String eventName : eventImplMap.keySet()) {
-            if (eventName.toLowerCase(Locale.ENGLISH).contains(deviceName.toLowerCase(Locale.ENGLISH))) {
-                hasSubscriber = true;
-                break;
-            }
-        }
-        return hasSubscriber;
+        return eventRegistry.hasSubscriber(deviceName);
     }
 
     /**
@@ -291,11 +265,14 @@ public final class EventManager {
             logger.error("could not stop event hearbeat");
             Thread.currentThread().interrupt();
         }
+        if (eventPublisher != null) {
+            eventPublisher.close();
+        }
 
         //TODO ensure this is done in the same thread where sockets were created
             // close all open sockets
 //        context.destroy();
-        eventImplMap.clear();
+        eventRegistry.clear();
 
         logger.debug("all event resources closed");
         xlogger.exit();
@@ -333,14 +310,9 @@ public final class EventManager {
         // If first time start the ZMQ management
         // check if event is already subscribed
         final String fullName = EventUtilities.buildPipeEventName(deviceName, pipe.getName());
-        EventImpl eventImpl = eventImplMap.get(fullName);
-        if (eventImpl == null) {
-            // If not already manage, create EventImpl object and add it to the map
-            eventImpl = new EventImpl(pipe, DeviceImpl.SERVER_VERSION, fullName);
-            eventImplMap.put(fullName, eventImpl);
-        } else {
-            eventImpl.updateSubscribeTime();
-        }
+        // If not already manage, create EventImpl object and add it to the registry
+        eventRegistry.subscribe(deviceName, pipe.getName(), EventType.PIPE_EVENT, DeviceImpl.SERVER_VERSION,
+                () -> new EventImpl(pipe, DeviceImpl.SERVER_VERSION, fullName));
 
         return buildConnectionParameters(fullName);
     }
@@ -360,19 +332,15 @@ public final class EventManager {
         xlogger.entry();
         // check if event is already subscribed
         final String fullName = EventUtilities.buildEventName(deviceName, attribute.getName(), eventType, idlVersion);
-        EventImpl eventImpl = eventImplMap.get(fullName);
-        if (eventImpl == null) {
+        eventRegistry.subscribe(deviceName, attribute.getName(), eventType, idlVersion, () -> {
             // special case for forwarded attribute, subscribe to root attribute
             if (attribute.getBehavior() instanceof ForwardedAttribute) {
                 final ForwardedAttribute fwdAttr = (ForwardedAttribute) attribute.getBehavior();
                 fwdAttr.subscribe(eventType);
             }
-            // If not already manage, create EventImpl object and add it to the map
-            eventImpl = new EventImpl(attribute, eventType, idlVersion, fullName);
-            eventImplMap.put(fullName, eventImpl);
-        } else {
-            eventImpl.updateSubscribeTime();
-        }
+            // If not already manage, create EventImpl object and add it to the registry
+            return new EventImpl(attribute, eventType, idlVersion, fullName);
+        });
         logger.debug("starting event {}", fullName);
         return buildConnectionParameters(fullName);
     }
@@ -389,14 +357,9 @@ public final class EventManager {
         xlogger.entry();
         // check if event is already subscribed
         final String fullName = EventUtilities.buildDeviceEventName(deviceName, EventType.INTERFACE_CHANGE_EVENT);
-        EventImpl eventImpl = eventImplMap.get(fullName);
-        if (eventImpl == null) {
-            // If not already manage, create EventImpl object and add it to the map
-            eventImpl = new EventImpl(DeviceImpl.SERVER_VERSION, fullName);
-            eventImplMap.put(fullName, eventImpl);
-        } else {
-            eventImpl.updateSubscribeTime();
-        }
+        // If not already manage, create EventImpl object and add it to the registry
+        eventRegistry.subscribe(deviceName, null, EventType.INTERFACE_CHANGE_EVENT, DeviceImpl.SERVER_VERSION,
+                () -> new EventImpl(DeviceImpl.SERVER_VERSION, fullName));
 
         return buildConnectionParameters(fullName);
     }
@@ -433,35 +396,44 @@ public final class EventManager {
             throws DevFailed {
         xlogger.entry();
         for (final EventType eventType : EventType.values()) {
-            final String fullName = EventUtilities.buildEventName(deviceName, attributeName, eventType);
-            final EventImpl eventImpl = getEventImpl(fullName);
+            final EventImpl eventImpl = eventRegistry.get(deviceName, attributeName, eventType,
+                    DeviceImpl.SERVER_VERSION);
             if (eventImpl != null) {
-                for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                    eventImpl.pushDevFailedEvent(devFailed, eventSocket);
-                }
+                eventImpl.pushDevFailedEvent(devFailed, eventSender);
             }
         }
         xlogger.exit();
     }
 
     /**
-     * Check if the event must be sent and fire it if must be done
+     * Check if the event must be sent and fire it if must be done. The attribute value is marshalled at most once per
+     * IDL version and sent to all event endpoints.
      *
      * @param attributeName specified event attribute
      * @throws DevFailed
      */
     public void pushAttributeValueEvent(final String deviceName, final String attributeName) throws DevFailed {
         xlogger.entry();
+        final AttributeEventPayload payload = new AttributeEventPayload();
         for (final EventType eventType : EventType.getEventTypeListForAttrPolling()) {
-            forEachIdlVersionDo(deviceName, attributeName, eventType, pushAttributeValueEvent);
+            forEachIdlVersionDo(deviceName, attributeName, eventType, eventImpl -> pushAttributeValueEvent(eventImpl, payload));
         }
         xlogger.exit();
     }
 
+    private Void pushAttributeValueEvent(final EventImpl eventImpl, final AttributeEventPayload payload) {
+        try {
+            eventImpl.pushAttributeValueEvent(eventSender, payload);
+        } catch (DevFailed devFailed) {
+            logger.error("Failed to pushAttributeValueEvent");
+            DevFailedUtils.logDevFailed(devFailed, logger);
+        }
+        return null;
+    }
+
     private void forEachIdlVersionDo(String deviceName, String attributeName, EventType eventType, java.util.function.Function<EventImpl, Void> action) throws DevFailed {
         for (int idl = MINIMUM_IDL_VERSION; idl <= DeviceImpl.SERVER_VERSION; idl++) {
-            final String fullName = EventUtilities.buildEventName(deviceName, attributeName, eventType, idl);
-            final EventImpl eventImpl = getEventImpl(fullName);
+            final EventImpl eventImpl = eventRegistry.get(deviceName, attributeName, eventType, idl);
             if (eventImpl != null) {
                 action.apply(eventImpl);
             }
@@ -479,7 +451,8 @@ public final class EventManager {
     public void pushAttributeValueEvent(final String deviceName, final String attributeName, final EventType eventType)
             throws DevFailed {
         xlogger.entry();
-        forEachIdlVersionDo(deviceName, attributeName, eventType, pushAttributeValueEvent);
+        final AttributeEventPayload payload = new AttributeEventPayload();
+        forEachIdlVersionDo(deviceName, attributeName, eventType, eventImpl -> pushAttributeValueEvent(eventImpl, payload));
         xlogger.exit();
     }
 
@@ -494,12 +467,10 @@ public final class EventManager {
     public void pushAttributeDataReadyEvent(final String deviceName, final String attributeName, final int counter)
             throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildEventName(deviceName, attributeName, EventType.DATA_READY_EVENT);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, attributeName, EventType.DATA_READY_EVENT,
+                DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushAttributeDataReadyEvent(counter, eventSocket);
-            }
+            eventImpl.pushAttributeDataReadyEvent(counter, eventSender);
         }
         xlogger.exit();
     }
@@ -507,13 +478,11 @@ public final class EventManager {
     public void pushAttributeConfigEvent(final String deviceName, final String attributeName) throws DevFailed {
         xlogger.entry();
         forEachIdlVersionDo(deviceName, attributeName, EventType.ATT_CONF_EVENT, (eventImpl -> {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                try {
-                    eventImpl.pushAttributeConfigEvent(eventSocket);
-                } catch (DevFailed devFailed) {
-                    logger.error("Failed to pushAttributeConfigEvent");
-                    DevFailedUtils.logDevFailed(devFailed, logger);
-                }
+            try {
+                eventImpl.pushAttributeConfigEvent(eventSender);
+            } catch (DevFailed devFailed) {
+                logger.error("Failed to pushAttributeConfigEvent");
+                DevFailedUtils.logDevFailed(devFailed, logger);
             }
             return null;
         }));
@@ -523,26 +492,21 @@ public final class EventManager {
     public void pushInterfaceChangedEvent(final String deviceName, final DevIntrChange deviceInterface)
             throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildDeviceEventName(deviceName, EventType.INTERFACE_CHANGE_EVENT);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, null, EventType.INTERFACE_CHANGE_EVENT,
+                DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushInterfaceChangeEvent(deviceInterface, eventSocket);
-            }
+            eventImpl.pushInterfaceChangeEvent(deviceInterface, eventSender);
         }
         xlogger.exit();
     }
 
     public void pushPipeEvent(final String deviceName, final String pipeName, final PipeValue blob) throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildPipeEventName(deviceName, pipeName);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, pipeName, EventType.PIPE_EVENT,
+                DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushPipeEvent(
-                        new DevPipeData(pipeName, TangoIDLUtil.getTime(blob.getTime()), blob.getValue()
-                                .getDevPipeBlobObject()), eventSocket);
-            }
+            eventImpl.pushPipeEvent(new DevPipeData(pipeName, TangoIDLUtil.getTime(blob.getTime()), blob.getValue()
+                    .getDevPipeBlobObject()), eventSender);
         }
         xlogger.exit();
     }
@@ -550,12 +514,10 @@ public final class EventManager {
     public void pushPipeEvent(final String deviceName, final String pipeName, final DevFailed devFailed)
             throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildPipeEventName(deviceName, pipeName);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, pipeName, EventType.PIPE_EVENT,
+                DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushDevFailedEvent(devFailed, eventSocket);
-            }
+            eventImpl.pushDevFailedEvent(devFailed, eventSender);
         }
         xlogger.exit();
     }
@@ -563,24 +525,19 @@ public final class EventManager {
 
     public void pushAttributeValueIDL5Event(final String deviceName, final String attributeName, AttributeValue_5 value, EventType evtType) throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildEventName(deviceName, attributeName, evtType);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, attributeName, evtType, DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushAttributeIDL5Event(value, eventSocket);
-            }
+            eventImpl.pushAttributeIDL5Event(value, eventSender);
         }
         xlogger.exit();
     }
 
     public void pushAttributeConfigIDL5Event(final String deviceName, final String attributeName, AttributeConfig_5 config) throws DevFailed {
         xlogger.entry();
-        final String fullName = EventUtilities.buildEventName(deviceName, attributeName, EventType.ATT_CONF_EVENT);
-        final EventImpl eventImpl = getEventImpl(fullName);
+        final EventImpl eventImpl = eventRegistry.get(deviceName, attributeName, EventType.ATT_CONF_EVENT,
+                DeviceImpl.SERVER_VERSION);
         if (eventImpl != null) {
-            for (ZMQ.Socket eventSocket : eventEndpoints.values()) {
-                eventImpl.pushAttributeConfigIDL5Event(config, eventSocket);
-            }
+            eventImpl.pushAttributeConfigIDL5Event(config, eventSender);
         }
         xlogger.exit();
     }
@@ -604,7 +561,7 @@ public final class EventManager {
         @Override
         public void run() {
             xlogger.entry();
-            if (eventImplMap.isEmpty()) return;
+            if (eventRegistry.isEmpty()) return;
             for (Map.Entry<String, ZMQ.Socket> heartbeatSocket : heartbeatEndpoints.entrySet()) {
                 // Fire heartbeat
                 try {
@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.utils.DevFailedUtils;
+import org.zeromq.ZMQ;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MalformedObjectNameException;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends events to the event sockets from a dedicated thread, so that polling and device threads never wait for
+ * the network. Events are queued in a bounded queue, and dropped if it is full. Queued events are sent by batches,
+ * taking the lock of each socket once per batch.
+ * <p>
+ * Enabled with the system property {@link EventConstants#ASYNC_PUBLISHING_PROPERTY}.
+ */
+final class EventPublisher implements EventSender, EventPublisherMXBean {
+
+    private static final String OBJECT_NAME = "org.tango.server:type=EventPublisher";
+    private static final long POLL_TIMEOUT = 100;
+
+    private final Logger logger = LoggerFactory.getLogger(EventPublisher.class);
+    private final Collection<ZMQ.Socket> eventSockets;
+    private final BlockingQueue<EventMessage> queue;
+    private final int capacity;
+    private final Thread thread;
+    private volatile boolean isRunning = true;
+
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder sendErrors = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private ObjectName objectName;
+
+    /**
+     * An event waiting to be sent
+     */
+    private static final class EventMessage {
+        private final String fullName;
+        private final int counter;
+        private final boolean isException;
+        private final byte[] data;
+        private final long pushTime = System.nanoTime();
+
+        private EventMessage(final String fullName, final int counter, final boolean isException, final byte[] data) {
+            this.fullName = fullName;
+            this.counter = counter;
+            this.isException = isException;
+            this.data = data;
+        }
+    }
+
+    /**
+     * Ctr
+     *
+     * @param eventSockets the sockets to send the events to
+     * @param capacity     the maximum number of events waiting to be sent
+     */
+    EventPublisher(final Collection<ZMQ.Socket> eventSockets, final int capacity) {
+        this.eventSockets = eventSockets;
+        this.capacity = capacity;
+        queue = new ArrayBlockingQueue<EventMessage>(capacity);
+        thread = new Thread(this::publish, "Event-Publisher");
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+        try {
+            objectName = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (final MalformedObjectNameException | InstanceAlreadyExistsException | MBeanRegistrationException
+                | NotCompliantMBeanException e) {
+            logger.warn("event publisher statistics not available: {}", e.getMessage());
+        }
+        logger.debug("asynchronous event publisher started with a queue of {}", capacity);
+    }
+
+    /**
+     * Stop the publisher thread after sending the events already queued
+     */
+    void close() {
+        isRunning = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (final MBeanRegistrationException | InstanceNotFoundException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    public void send(final String fullName, final int counter, final boolean isException, final byte[] data) {
+        if (!queue.offer(new EventMessage(fullName, counter, isException, data))) {
+            droppedEvents.increment();
+            logger.debug("event queue full, {} dropped", fullName);
+        }
+    }
+
+    private void publish() {
+        final List<EventMessage> batch = new ArrayList<EventMessage>();
+        while (isRunning || !queue.isEmpty()) {
+            try {
+                final EventMessage first = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, EventConstants.PUBLISHING_BATCH_SIZE - 1);
+                    sendBatch(batch);
+                    batch.clear();
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (final DevFailed e) {
+                logger.error("failed to publish events");
+                DevFailedUtils.logDevFailed(e, logger);
+                batch.clear();
+            } catch (final RuntimeException e) {
+                logger.error("failed to publish events", e);
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(final List<EventMessage> batch) throws DevFailed {
+        final byte[][] contextData = new byte[batch.size()][];
+        for (int i = 0; i < contextData.length; i++) {
+            final EventMessage message = batch.get(i);
+            contextData[i] = EventUtilities.marshall(message.counter, message.isException);
+        }
+        for (final ZMQ.Socket eventSocket : eventSockets) {
+            synchronized (eventSocket) {
+                for (int i = 0; i < contextData.length; i++) {
+                    final EventMessage message = batch.get(i);
+                    try {
+                        EventUtilities.sendEvent(eventSocket, message.fullName, contextData[i], message.data);
+                    } catch (final org.zeromq.ZMQException e) {
+                        sendErrors.increment();
+                        logger.error("failed to send event {}: {}", message.fullName, e.getMessage());
+                    }
+                }
+            }
+        }
+        final long now = System.nanoTime();
+        for (final EventMessage message : batch) {
+            final long latency = TimeUnit.NANOSECONDS.toMicros(now - message.pushTime);
+            totalLatency.add(latency);
+            maxLatency.accumulateAndGet(latency, Math::max);
+        }
+        sentEvents.add(batch.size());
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getSentEvents() {
+        return sentEvents.sum();
+    }
+
+    @Override
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    @Override
+    public long getSendErrors() {
+        return sendErrors.sum();
+    }
+
+    @Override
+    public long getAverageSendLatency() {
+        final long sent = sentEvents.sum();
+        return sent == 0 ? 0 : totalLatency.sum() / sent;
+    }
+
+    @Override
+    public long getMaxSendLatency() {
+        return maxLatency.get();
+    }
+
+    @Override
+    public void resetStats() {
+        sentEvents.reset();
+        droppedEvents.reset();
+        sendErrors.reset();
+        totalLatency.reset();
+        maxLatency.set(0);
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import javax.management.MXBean;
+
+/**
+ * Statistics of the asynchronous event publisher
+ */
+@MXBean
+public interface EventPublisherMXBean {
+
+    /**
+     * @return the number of events waiting to be sent
+     */
+    int getQueueSize();
+
+    int getQueueCapacity();
+
+    long getSentEvents();
+
+    /**
+     * @return the number of events dropped because the queue was full
+     */
+    long getDroppedEvents();
+
+    long getSendErrors();
+
+    /**
+     * @return the average time between the push of an event and its sending, in microseconds
+     */
+    long getAverageSendLatency();
+
+    /**
+     * @return the maximum time between the push of an event and its sending, in microseconds
+     */
+    long getMaxSendLatency();
+
+    void resetStats();
+}
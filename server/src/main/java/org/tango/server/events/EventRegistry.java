@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.server.servant.DeviceImpl;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Subscribed events, indexed by device, attribute (or pipe), event type and IDL version. Lookups are lock-free and
+ * do not build event names, so that they can be done on each push. Subscriptions and expiry are serialized.
+ */
+final class EventRegistry {
+
+    private static final String NO_NAME = "";
+    private static final int NB_IDL_VERSIONS = DeviceImpl.SERVER_VERSION - EventManager.MINIMUM_IDL_VERSION + 1;
+    private static final int NB_EVENTS = EventType.values().length * NB_IDL_VERSIONS;
+
+    private final Logger logger = LoggerFactory.getLogger(EventRegistry.class);
+
+    /**
+     * device name -> attribute or pipe name -> events by type and IDL version
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, AtomicReferenceArray<EventImpl>>> events = new ConcurrentHashMap<>();
+
+    /**
+     * Build an event for a new subscription
+     */
+    @FunctionalInterface
+    interface EventImplFactory {
+        EventImpl create() throws DevFailed;
+    }
+
+    private static String toKey(final String name) {
+        return name == null ? NO_NAME : name.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static int toIndex(final EventType eventType, final int idlVersion) {
+        final int idl = Math.max(EventManager.MINIMUM_IDL_VERSION, Math.min(DeviceImpl.SERVER_VERSION, idlVersion));
+        return eventType.ordinal() * NB_IDL_VERSIONS + idl - EventManager.MINIMUM_IDL_VERSION;
+    }
+
+    /**
+     * Get a subscribed event
+     *
+     * @param deviceName the device name
+     * @param name       the attribute or pipe name, null for device events
+     * @param eventType  the event type
+     * @param idlVersion the IDL version
+     * @return the event or null if not subscribed
+     */
+    EventImpl get(final String deviceName, final String name, final EventType eventType, final int idlVersion) {
+        final Map<String, AtomicReferenceArray<EventImpl>> deviceEvents = events.get(toKey(deviceName));
+        if (deviceEvents == null) {
+            return null;
+        }
+        final AtomicReferenceArray<EventImpl> nameEvents = deviceEvents.get(toKey(name));
+        if (nameEvents == null) {
+            return null;
+        }
+        return nameEvents.get(toIndex(eventType, idlVersion));
+    }
+
+    /**
+     * Subscribe to an event: create it if not already subscribed, otherwise update its subscribe time
+     *
+     * @param deviceName the device name
+     * @param name       the attribute or pipe name, null for device events
+     * @param eventType  the event type
+     * @param idlVersion the IDL version
+     * @param factory    creates the event, called only if not already subscribed
+     * @return the subscribed event
+     * @throws DevFailed if the event creation failed
+     */
+    synchronized EventImpl subscribe(final String deviceName, final String name, final EventType eventType,
+                                     final int idlVersion, final EventImplFactory factory) throws DevFailed {
+        final AtomicReferenceArray<EventImpl> nameEvents = events
+                .computeIfAbsent(toKey(deviceName), k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(toKey(name), k -> new AtomicReferenceArray<>(NB_EVENTS));
+        final int index = toIndex(eventType, idlVersion);
+        EventImpl eventImpl = nameEvents.get(index);
+        if (eventImpl == null) {
+            eventImpl = factory.create();
+            nameEvents.set(index, eventImpl);
+        } else {
+            eventImpl.updateSubscribeTime();
+        }
+        return eventImpl;
+    }
+
+    /**
+     * Remove the events that have not been subscribed again since {@link EventConstants#EVENT_RESUBSCRIBE_PERIOD}
+     */
+    synchronized void removeExpired() {
+        final Iterator<ConcurrentMap<String, AtomicReferenceArray<EventImpl>>> deviceIt = events.values().iterator();
+        while (deviceIt.hasNext()) {
+            final Iterator<AtomicReferenceArray<EventImpl>> nameIt = deviceIt.next().values().iterator();
+            while (nameIt.hasNext()) {
+                final AtomicReferenceArray<EventImpl> nameEvents = nameIt.next();
+                boolean isEmpty = true;
+                for (int i = 0; i < nameEvents.length(); i++) {
+                    final EventImpl eventImpl = nameEvents.get(i);
+                    if (eventImpl != null) {
+                        if (eventImpl.isStillSubscribed()) {
+                            isEmpty = false;
+                        } else {
+                            logger.debug("{} not subscribed any more", eventImpl.getFullName());
+                            nameEvents.set(i, null);
+                        }
+                    }
+                }
+                if (isEmpty) {
+                    nameIt.remove();
+                }
+            }
+        }
+        events.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * @param deviceName the device name
+     * @return true if at least one event of this device is subscribed
+     */
+    boolean hasSubscriber(final String deviceName) {
+        return events.containsKey(toKey(deviceName));
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * Sends marshalled events to the event sockets, either directly or through the {@link EventPublisher}
+ */
+interface EventSender {
+
+    /**
+     * Send an event. The data buffer must not be modified afterwards.
+     *
+     * @param fullName    the event name
+     * @param counter     the event counter
+     * @param isException true if the event contains a DevFailed
+     * @param data        the marshalled event data
+     * @throws DevFailed if marshall action failed
+     * @throws org.zeromq.ZMQException if sending failed
+     */
+    void send(String fullName, int counter, boolean isException, byte[] data) throws DevFailed;
+
+    default void send(final String fullName, final int counter, final byte[] data) throws DevFailed {
+        send(fullName, counter, false, data);
+    }
+}
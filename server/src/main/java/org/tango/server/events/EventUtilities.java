@@ -38,6 +38,7 @@ import org.zeromq.ZMQ;
 import java.util.ArrayList;
 import java.util.Locale;
 import java.util.StringTokenizer;
+import java.util.function.Consumer;
 
 /**
  * This class is a set of static utilities used for event management.
@@ -56,6 +57,12 @@ class EventUtilities {
     private static final XLogger XLOGGER = XLoggerFactory.getXLogger(EventUtilities.class);
     private static final Logger LOGGER = LoggerFactory.getLogger(EventUtilities.class);
     private static double zmqVersion = -1.0;
+    private static final byte[] NO_HEADER = {};
+    // C++ alignment: 4 (or 8 for pipes) bytes at beginning of the event data
+    private static final byte[] CPP_ALIGNMENT = {(byte) 0xc0, (byte) 0xde, (byte) 0xc0, (byte) 0xde};
+    private static final byte[] CPP_ALIGNMENT_8 = {(byte) 0xc0, (byte) 0xde, (byte) 0xc0, (byte) 0xde, (byte) 0xc0,
+            (byte) 0xde, (byte) 0xc0, (byte) 0xde};
+    private static final ThreadLocal<byte[]> ENCODING_BUFFER = new ThreadLocal<byte[]>();
 
     static String buildEventName(final String deviceName, final String attributeName, final EventType eventType,
                                  final int idlVersion) throws DevFailed {
@@ -106,43 +113,37 @@ class EventUtilities {
     }
 
     /**
-     * Add 8 bytes at beginning for C++ alignment
+     * Marshall event data into a single frame starting with the C++ alignment header. The CDR body is written into a
+     * buffer kept per thread between events, then copied once into the frame. The frame is handed to ZMQ, which keeps
+     * a reference on it until it is really sent, so it must not be reused.
      *
-     * @param data buffer to be aligned
-     * @return buffer after c++ alignment.
+     * @param header the C++ alignment header, may be empty
+     * @param writer writes the data into the CDR stream
+     * @return the event frame
      */
-    static byte[] cppAlignmentAdd8(final byte[] data) {
-        XLOGGER.entry();
-        final byte[] buffer = new byte[data.length + 8];
-        buffer[0] = (byte) 0xc0;
-        buffer[1] = (byte) 0xde;
-        buffer[2] = (byte) 0xc0;
-        buffer[3] = (byte) 0xde;
-        buffer[4] = (byte) 0xc0;
-        buffer[5] = (byte) 0xde;
-        buffer[6] = (byte) 0xc0;
-        buffer[7] = (byte) 0xde;
-        System.arraycopy(data, 0, buffer, 8, data.length);
-        XLOGGER.exit();
-        return buffer;
-    }
-
-    /**
-     * Add 4 bytes at beginning for C++ alignment
-     *
-     * @param data buffer to be aligned
-     * @return buffer after c++ alignment.
-     */
-    static byte[] cppAlignment(final byte[] data) {
-        XLOGGER.entry();
-        final byte[] buffer = new byte[data.length + 4];
-        buffer[0] = (byte) 0xc0;
-        buffer[1] = (byte) 0xde;
-        buffer[2] = (byte) 0xc0;
-        buffer[3] = (byte) 0xde;
-        System.arraycopy(data, 0, buffer, 4, data.length);
-        XLOGGER.exit();
-        return buffer;
+    private static byte[] encode(final byte[] header, final Consumer<CDROutputStream> writer) {
+        final CDROutputStream os = new CDROutputStream();
+        final byte[] buffer = ENCODING_BUFFER.get();
+        if (buffer != null) {
+            // the buffer belongs to the stream until it is released
+            ENCODING_BUFFER.remove();
+            os.setBuffer(buffer);
+        }
+        byte[] used = null;
+        try {
+            writer.accept(os);
+            final int size = os.size();
+            used = os.releaseBuffer();
+            final byte[] frame = new byte[header.length + size];
+            System.arraycopy(header, 0, frame, 0, header.length);
+            System.arraycopy(used, 0, frame, header.length, size);
+            return frame;
+        } finally {
+            os.close();
+            if (used != null && used.length <= EventConstants.MAX_ENCODING_BUFFER_SIZE) {
+                ENCODING_BUFFER.set(used);
+            }
+        }
     }
 
     /**
@@ -153,14 +154,9 @@ class EventUtilities {
      */
     static byte[] marshallIDL5(final AttributeValue_5 attributeValue) throws DevFailed {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            AttributeValue_5Helper.write(os, attributeValue);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> AttributeValue_5Helper.write(os, attributeValue));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -171,14 +167,9 @@ class EventUtilities {
      */
     static byte[] marshallIDL4(final AttributeValue_4 attributeValue) throws DevFailed {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            AttributeValue_4Helper.write(os, attributeValue);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> AttributeValue_4Helper.write(os, attributeValue));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -190,9 +181,7 @@ class EventUtilities {
      */
     static byte[] marshallIDL5(final AttributeImpl attribute) throws DevFailed {
         XLOGGER.entry();
-        final AttributeValue_5 attributeValue = TangoIDLAttributeUtil.toAttributeValue5(attribute,
-                attribute.getReadValue(), attribute.getWriteValue());
-        return marshallIDL5(attributeValue);
+        return marshallIDL5(attribute.getReadValue5());
     }
 
     /**
@@ -218,14 +207,9 @@ class EventUtilities {
      */
     static byte[] marshall(final AttDataReady dataReady) throws DevFailed {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            AttDataReadyHelper.write(os, dataReady);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> AttDataReadyHelper.write(os, dataReady));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -237,14 +221,9 @@ class EventUtilities {
     static byte[] marshallIDL4Config(final AttributeImpl attribute) throws DevFailed {
         XLOGGER.entry();
         final AttributeConfig_3 config = TangoIDLAttributeUtil.toAttributeConfig3(attribute);
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            AttributeConfig_3Helper.write(os, config);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> AttributeConfig_3Helper.write(os, config));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -266,14 +245,9 @@ class EventUtilities {
     static byte[] marshallIDL5Config(AttributeConfig_5 config) {
         XLOGGER.entry();
         //  System.out.println("config "+ ToStringBuilder.reflectionToString(config, ToStringStyle.MULTI_LINE_STYLE));
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            AttributeConfig_5Helper.write(os, config);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> AttributeConfig_5Helper.write(os, config));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -285,14 +259,9 @@ class EventUtilities {
      */
     static byte[] marshall(final DevFailed devFailed) throws DevFailed {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            DevErrorListHelper.write(os, devFailed.errors);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> DevErrorListHelper.write(os, devFailed.errors));
+        XLOGGER.exit();
+        return data;
     }
 
     /**
@@ -307,40 +276,24 @@ class EventUtilities {
         XLOGGER.entry();
         final ZmqCallInfo zmqCallInfo = new ZmqCallInfo(EventConstants.ZMQ_RELEASE, counter,
                 EventConstants.EXECUTE_METHOD, EventConstants.OBJECT_IDENTIFIER, isException);
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            ZmqCallInfoHelper.write(os, zmqCallInfo);
-            XLOGGER.exit();
-            // EventManager.dump(os.getBufferCopy());
-            return os.getBufferCopy();
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(NO_HEADER, os -> ZmqCallInfoHelper.write(os, zmqCallInfo));
+        XLOGGER.exit();
+        return data;
     }
 
     static byte[] marshall(final DevIntrChange deviceInterface) {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            DevIntrChangeHelper.write(os, deviceInterface);
-            XLOGGER.exit();
-            return cppAlignment(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT, os -> DevIntrChangeHelper.write(os, deviceInterface));
+        XLOGGER.exit();
+        return data;
 
     }
 
     static byte[] marshall(final DevPipeData pipeData) {
         XLOGGER.entry();
-        final CDROutputStream os = new CDROutputStream();
-        try {
-            DevPipeDataHelper.write(os, pipeData);
-            XLOGGER.exit();
-            return cppAlignmentAdd8(os.getBufferCopy());
-        } finally {
-            os.close();
-        }
+        final byte[] data = encode(CPP_ALIGNMENT_8, os -> DevPipeDataHelper.write(os, pipeData));
+        XLOGGER.exit();
+        return data;
 
     }
 
@@ -423,4 +376,61 @@ class EventUtilities {
     static void sendToSocket(final ZMQ.Socket eventSocket, final String fullName, int counter, byte[] data) throws DevFailed {
         sendToSocket(eventSocket, fullName, counter, false, data);
     }
+
+    /**
+     * Send the same event to several ZMQ sockets. The context data and the event data are marshalled only once and the
+     * same buffers are sent to every socket. See {@link #sendToSocket(ZMQ.Socket, String, int, boolean, byte[])} for
+     * thread safety.
+     *
+     * @param eventSockets the sockets to send to
+     * @param fullName     the event name
+     * @param counter      the event counter
+     * @param isException  true if the event contains a DevFailed
+     * @param data         the marshalled event data
+     * @throws DevFailed if marshall action failed
+     * @throws org.zeromq.ZMQException the last ZMQ error if sending to one of the sockets failed
+     */
+    static void sendToSockets(final Iterable<ZMQ.Socket> eventSockets, final String fullName, final int counter,
+                              final boolean isException, final byte[] data) throws DevFailed {
+        XLOGGER.entry();
+        final byte[] contextData = EventUtilities.marshall(counter, isException);
+        org.zeromq.ZMQException error = null;
+        for (final ZMQ.Socket eventSocket : eventSockets) {
+            try {
+                synchronized (eventSocket) {
+                    sendEvent(eventSocket, fullName, contextData, data);
+                }
+            } catch (final org.zeromq.ZMQException e) {
+                // go on with other sockets
+                LOGGER.error("failed to send event {}: {}", fullName, e.getMessage());
+                error = e;
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        LOGGER.debug("event sent for {}", fullName);
+        XLOGGER.exit();
+    }
+
+    static void sendToSockets(final Iterable<ZMQ.Socket> eventSockets, final String fullName, final int counter,
+                              final byte[] data) throws DevFailed {
+        sendToSockets(eventSockets, fullName, counter, false, data);
+    }
+
+    /**
+     * Send the frames of an event to a ZMQ socket. The caller must hold the socket lock.
+     *
+     * @param eventSocket the socket
+     * @param fullName    the event name
+     * @param contextData the marshalled ZmqCallInfo
+     * @param data        the marshalled event data
+     */
+    static void sendEvent(final ZMQ.Socket eventSocket, final String fullName, final byte[] contextData,
+                          final byte[] data) {
+        eventSocket.sendMore(fullName);
+        eventSocket.send(LITTLE_ENDIAN, ZMQ.SNDMORE);
+        eventSocket.send(contextData, ZMQ.SNDMORE);
+        eventSocket.send(data);
+    }
 }
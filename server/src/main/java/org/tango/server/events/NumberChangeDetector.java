@@ -0,0 +1,345 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import fr.esrf.TangoDs.TangoConst;
+
+import java.util.Arrays;
+
+/**
+ * Compare numeric attribute values against absolute and relative change criteria, without converting them to String
+ * nor boxing them. Arrays are compared element by element in their primitive type and the comparison stops at the
+ * first element that has changed. Values of unsigned Tango types are compared as unsigned.
+ * <p>
+ * Primitive arrays are first scanned with {@link Arrays#mismatch}, which the JVM compiles to vector instructions, so
+ * that the criteria are evaluated only from the elements that differ. An element equal to its previous value cannot
+ * reach a positive criterion.
+ */
+final class NumberChangeDetector {
+
+    private static final String NOT_PARSED = "";
+    /**
+     * Number of elements evaluated after a mismatch before looking for the next one
+     */
+    private static final int EVALUATION_BLOCK_SIZE = 64;
+
+    private double absolute;
+    private boolean checkAbsolute;
+    private double relative;
+    private boolean checkRelative;
+    private String absoluteProperty = NOT_PARSED;
+    private String relativeProperty = NOT_PARSED;
+    /**
+     * true if the criteria are reached even without change, ie they are zero or negative
+     */
+    private boolean isAlwaysChanged;
+
+    /**
+     * Set the criteria from the attribute properties. They are parsed only if they have changed.
+     *
+     * @param absolute the absolute change delta, not a number if not checked
+     * @param relative the relative change delta in percent, not a number if not checked
+     */
+    void setCriteria(final String absolute, final String relative) {
+        if (!absoluteProperty.equals(absolute)) {
+            try {
+                this.absolute = Double.parseDouble(absolute);
+                checkAbsolute = true;
+            } catch (final NumberFormatException e) {
+                checkAbsolute = false;
+            }
+            absoluteProperty = absolute;
+        }
+        if (!relativeProperty.equals(relative)) {
+            try {
+                this.relative = Double.parseDouble(relative);
+                checkRelative = true;
+            } catch (final NumberFormatException e) {
+                checkRelative = false;
+            }
+            relativeProperty = relative;
+        }
+        isAlwaysChanged = checkAbsolute && this.absolute <= 0 || checkRelative && this.relative <= 0;
+    }
+
+    /**
+     * @param tangoType a Tango type
+     * @return true if the values of this type must be compared as unsigned
+     */
+    static boolean isUnsigned(final int tangoType) {
+        return tangoType == TangoConst.Tango_DEV_UCHAR || tangoType == TangoConst.Tango_DEV_USHORT
+                || tangoType == TangoConst.Tango_DEV_ULONG || tangoType == TangoConst.Tango_DEV_ULONG64;
+    }
+
+    /**
+     * Check if a value has changed according to the criteria
+     *
+     * @param value    the new value
+     * @param previous the previous value
+     * @return true if the absolute or the relative change is reached
+     */
+    boolean hasChanged(final double value, final double previous) {
+        boolean hasChanged = false;
+        // absolute change
+        if (checkAbsolute) {
+            hasChanged = Math.abs(value - previous) >= absolute;
+        }
+        // relative change
+        if (!hasChanged && checkRelative) {
+            final double delta;
+            if (previous == 0) {
+                if (value == 0) {
+                    delta = 0;
+                } else {
+                    delta = 100;
+                }
+            } else {
+                delta = (value - previous) / previous * 100.0;
+            }
+            hasChanged = Math.abs(delta) >= relative;
+        }
+        return hasChanged;
+    }
+
+    /**
+     * Check if a scalar value has changed according to the criteria
+     *
+     * @param value      the new value, a {@link Number}
+     * @param previous   the previous value, a {@link Number}
+     * @param isUnsigned true for an unsigned Tango type
+     * @return true if the absolute or the relative change is reached
+     */
+    boolean hasScalarChanged(final Object value, final Object previous, final boolean isUnsigned) {
+        return hasChanged(toDouble((Number) value, isUnsigned), toDouble((Number) previous, isUnsigned));
+    }
+
+    /**
+     * Check if an array value has changed according to the criteria
+     *
+     * @param value      the new value, an array of primitives or of {@link Number}
+     * @param previous   the previous value, of the same type
+     * @param isUnsigned true for an unsigned Tango type
+     * @return true if the lengths differ or if the absolute or the relative change is reached for one element
+     */
+    boolean hasArrayChanged(final Object value, final Object previous, final boolean isUnsigned) {
+        if (value.getClass() != previous.getClass()) {
+            return true;
+        }
+        if (value instanceof double[]) {
+            return hasChanged((double[]) value, (double[]) previous);
+        } else if (value instanceof float[]) {
+            return hasChanged((float[]) value, (float[]) previous);
+        } else if (value instanceof int[]) {
+            return hasChanged((int[]) value, (int[]) previous, isUnsigned);
+        } else if (value instanceof long[]) {
+            return hasChanged((long[]) value, (long[]) previous, isUnsigned);
+        } else if (value instanceof short[]) {
+            return hasChanged((short[]) value, (short[]) previous, isUnsigned);
+        } else if (value instanceof byte[]) {
+            return hasChanged((byte[]) value, (byte[]) previous, isUnsigned);
+        } else {
+            return hasChanged((Object[]) value, (Object[]) previous, isUnsigned);
+        }
+    }
+
+    private boolean hasChanged(final double[] value, final double[] previous) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                if (hasChanged(value[i], previous[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final float[] value, final float[] previous) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                if (hasChanged(value[i], previous[i])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final int[] value, final int[] previous, final boolean isUnsigned) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                final boolean hasChanged;
+                if (isUnsigned) {
+                    hasChanged = hasChanged(Integer.toUnsignedLong(value[i]), Integer.toUnsignedLong(previous[i]));
+                } else {
+                    hasChanged = hasChanged(value[i], previous[i]);
+                }
+                if (hasChanged) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final long[] value, final long[] previous, final boolean isUnsigned) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                final boolean hasChanged;
+                if (isUnsigned) {
+                    hasChanged = hasChanged(unsignedToDouble(value[i]), unsignedToDouble(previous[i]));
+                } else {
+                    hasChanged = hasChanged(value[i], previous[i]);
+                }
+                if (hasChanged) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final short[] value, final short[] previous, final boolean isUnsigned) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                final boolean hasChanged;
+                if (isUnsigned) {
+                    hasChanged = hasChanged(Short.toUnsignedInt(value[i]), Short.toUnsignedInt(previous[i]));
+                } else {
+                    hasChanged = hasChanged(value[i], previous[i]);
+                }
+                if (hasChanged) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final byte[] value, final byte[] previous, final boolean isUnsigned) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        if (isAlwaysChanged) {
+            return value.length > 0;
+        }
+        int i = 0;
+        while ((i = nextMismatch(Arrays.mismatch(value, i, value.length, previous, i, previous.length), i)) >= 0) {
+            final int end = Math.min(i + EVALUATION_BLOCK_SIZE, value.length);
+            for (; i < end; i++) {
+                final boolean hasChanged;
+                if (isUnsigned) {
+                    hasChanged = hasChanged(Byte.toUnsignedInt(value[i]), Byte.toUnsignedInt(previous[i]));
+                } else {
+                    hasChanged = hasChanged(value[i], previous[i]);
+                }
+                if (hasChanged) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChanged(final Object[] value, final Object[] previous, final boolean isUnsigned) {
+        if (value.length != previous.length) {
+            return true;
+        }
+        for (int i = 0; i < value.length; i++) {
+            if (hasChanged(toDouble((Number) value[i], isUnsigned), toDouble((Number) previous[i], isUnsigned))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param mismatch the result of {@link Arrays#mismatch} from an index
+     * @param from     the index
+     * @return the index of the mismatching element in the whole array, or -1
+     */
+    private static int nextMismatch(final int mismatch, final int from) {
+        return mismatch < 0 ? -1 : from + mismatch;
+    }
+
+    private static double toDouble(final Number value, final boolean isUnsigned) {
+        if (isUnsigned) {
+            if (value instanceof Byte) {
+                return Byte.toUnsignedInt(value.byteValue());
+            } else if (value instanceof Short) {
+                return Short.toUnsignedInt(value.shortValue());
+            } else if (value instanceof Integer) {
+                return Integer.toUnsignedLong(value.intValue());
+            } else if (value instanceof Long) {
+                return unsignedToDouble(value.longValue());
+            }
+        }
+        return value.doubleValue();
+    }
+
+    private static double unsignedToDouble(final long value) {
+        final double result = value & Long.MAX_VALUE;
+        return value < 0 ? result + 0x1.0p63 : result;
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.export;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.server.annotation.Device;
+import org.tango.server.build.DeviceClassBuilder;
+import org.tango.server.servant.DeviceImpl;
+import org.tango.utils.DevFailedUtils;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * Builds devices on a pool of threads. The devices of a class declared with {@link Device#orderedInit()} are built one
+ * after the other, the others are built independently. The devices are only created, adding them to their class and
+ * exporting them is left to the caller.
+ */
+final class ParallelDeviceBuilder {
+
+    private static final int SLOWEST_REPORTED = 5;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDeviceBuilder.class);
+
+    private final int threads;
+    private final List<DeviceBuild> builds = new ArrayList<DeviceBuild>();
+    private final List<Runnable> tasks = new ArrayList<Runnable>();
+    /**
+     * Set when interrupted, the builds not started yet are then not run
+     */
+    private volatile boolean cancelled;
+
+    ParallelDeviceBuilder(final int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Add the devices of a class
+     *
+     * @param classBuilder The class
+     * @param deviceNames  The devices to build
+     */
+    void add(final DeviceClassBuilder classBuilder, final String[] deviceNames) {
+        final List<DeviceBuild> classBuilds = new ArrayList<DeviceBuild>(deviceNames.length);
+        for (final String deviceName : deviceNames) {
+            classBuilds.add(new DeviceBuild(classBuilder, deviceName));
+        }
+        builds.addAll(classBuilds);
+        final Device annotation = classBuilder.getDeviceClass().getAnnotation(Device.class);
+        if (annotation != null && annotation.orderedInit()) {
+            tasks.add(() -> {
+                for (final DeviceBuild build : classBuilds) {
+                    run(build);
+                    if (build.error != null) {
+                        break;
+                    }
+                }
+            });
+        } else {
+            for (final DeviceBuild build : classBuilds) {
+                tasks.add(() -> run(build));
+            }
+        }
+    }
+
+    private void run(final DeviceBuild build) {
+        if (cancelled) {
+            build.error = DevFailedUtils.newDevFailed("build of device " + build.name + " cancelled");
+        } else {
+            build.run();
+        }
+    }
+
+    /**
+     * Build all devices and wait for the end of all builds. If interrupted, the builds not started are cancelled but
+     * the running ones are still waited for, so that the caller gets all the devices built.
+     *
+     * @return The builds, in the order the devices were added
+     */
+    List<DeviceBuild> build() {
+        final long start = System.nanoTime();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("Device-Build-%d").setDaemon(true).build());
+        for (final Runnable task : tasks) {
+            executor.execute(task);
+        }
+        executor.shutdown();
+        boolean interrupted = false;
+        boolean terminated = false;
+        while (!terminated) {
+            try {
+                terminated = executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (final InterruptedException e) {
+                interrupted = true;
+                cancelled = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("{} devices built in {} ms with {} threads", builds.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+        reportSlowest();
+        return builds;
+    }
+
+    private void reportSlowest() {
+        final List<DeviceBuild> slowest = new ArrayList<DeviceBuild>(builds);
+        slowest.sort(Comparator.comparingLong((DeviceBuild build) -> build.duration).reversed());
+        final StringJoiner joiner = new StringJoiner(", ");
+        for (final DeviceBuild build : slowest.subList(0, Math.min(SLOWEST_REPORTED, slowest.size()))) {
+            joiner.add(build.name + " (" + TimeUnit.NANOSECONDS.toMillis(build.duration) + " ms)");
+        }
+        LOGGER.info("slowest device builds: {}", joiner);
+    }
+
+    /**
+     * The build of a device
+     */
+    static final class DeviceBuild implements Runnable {
+
+        private final DeviceClassBuilder classBuilder;
+        private final String name;
+        private DeviceImpl device;
+        private DevFailed error;
+        private long duration;
+
+        private DeviceBuild(final DeviceClassBuilder classBuilder, final String name) {
+            this.classBuilder = classBuilder;
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            final long start = System.nanoTime();
+            try {
+                device = classBuilder.createDevice(name);
+            } catch (final DevFailed e) {
+                error = e;
+            } catch (final Throwable e) {
+                // also errors of the device code, such as ExceptionInInitializerError
+                error = DevFailedUtils.newDevFailed(e);
+            } finally {
+                duration = System.nanoTime() - start;
+            }
+            LOGGER.debug("device {} built in {} ms", name, TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+
+        DeviceClassBuilder getClassBuilder() {
+            return classBuilder;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * @return The device, null if its build failed or did not run
+         */
+        DeviceImpl getDevice() {
+            return device;
+        }
+
+        /**
+         * @return The build error, null if the build succeeded or did not run
+         */
+        DevFailed getError() {
+            return error;
+        }
+    }
+}
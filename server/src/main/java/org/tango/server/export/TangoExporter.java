@@ -30,6 +30,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,12 +84,12 @@ public final class TangoExporter implements IExporter {
         ((AdminDevice) dev.getBusinessObject()).setTangoExporter(this);
         ((AdminDevice) dev.getBusinessObject()).setClassList(deviceClassList);
 
+        // init polling pool config, before the devices start their polling
+        TangoCacheManager.initPoolConf();
+
         // load server class
         exportDevices();
 
-        // init polling pool config
-        TangoCacheManager.initPoolConf();
-
         // clear tango db cache (used only for server start-up phase)
         DatabaseFactory.getDatabase().clearCache();
     }
@@ -100,6 +101,8 @@ public final class TangoExporter implements IExporter {
      */
     @Override
     public void exportDevices() throws DevFailed {
+        final int threads = Integer.getInteger(Constants.EXPORT_THREADS_PROPERTY, 1);
+        final ParallelDeviceBuilder parallelBuilder = threads > 1 ? new ParallelDeviceBuilder(threads) : null;
         // load server class
         for (final Entry<String, Class<?>> entry : tangoClasses.entrySet()) {
             final String tangoClass = entry.getKey();
@@ -114,9 +117,55 @@ public final class TangoExporter implements IExporter {
             // throw DevFailedUtils.newDevFailed(ExceptionMessages.DB_ACCESS, "No device defined in database for class "
             // + tangoClass);
             // }
-            for (final String deviceName : deviceList) {
-                buildDevice(deviceName, deviceClassBuilder);
+            if (parallelBuilder == null) {
+                for (final String deviceName : deviceList) {
+                    buildDevice(deviceName, deviceClassBuilder);
+                }
+            } else {
+                parallelBuilder.add(deviceClassBuilder, deviceList);
+            }
+        }
+        if (parallelBuilder != null) {
+            exportDevices(parallelBuilder.build());
+        }
+    }
+
+    /**
+     * Export devices built in parallel, in the order of the database. As if they had been built one after the other,
+     * the devices that follow a failed one are not exported and are deleted.
+     *
+     * @param builds The builds
+     * @throws DevFailed the first build or export error
+     */
+    private void exportDevices(final List<ParallelDeviceBuilder.DeviceBuild> builds) throws DevFailed {
+        DevFailed error = null;
+        for (final ParallelDeviceBuilder.DeviceBuild build : builds) {
+            if (error == null) {
+                error = build.getError();
+            }
+            final DeviceImpl dev = build.getDevice();
+            if (dev == null) {
+                continue;
             }
+            if (error == null) {
+                build.getClassBuilder().addDevice(build.getName(), dev);
+                logger.debug("exporting device {}", dev.getName());
+                try {
+                    ORBUtils.exportDevice(dev, hostName, pid);
+                } catch (final DevFailed e) {
+                    error = e;
+                }
+            } else {
+                logger.debug("deleting device {}", dev.getName());
+                try {
+                    dev.deleteDevice();
+                } catch (final DevFailed e) {
+                    logger.debug(DevFailedUtils.toString(e));
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
         }
     }
 
@@ -225,7 +274,10 @@ public final class TangoExporter implements IExporter {
             logger.debug("unexporting device {}", devToClean.getName());
             ORBUtils.unexportDevice(devToClean);
         }
+        final long start = System.nanoTime();
         final DeviceImpl dev = classBuilder.buildDevice(name);
+        logger.debug("device {} built in {} ms", dev.getName(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         logger.debug("exporting device {}", dev.getName());
         ORBUtils.exportDevice(dev, hostName, pid);
         return dev;
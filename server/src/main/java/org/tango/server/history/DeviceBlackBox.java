@@ -24,13 +24,15 @@
  */
 package org.tango.server.history;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayDeque;
-import java.util.Date;
-import java.util.Queue;
+import java.lang.invoke.VarHandle;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.apache.commons.lang3.ArrayUtils;
 import org.omg.CORBA.BAD_OPERATION;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,91 +46,174 @@ import fr.esrf.Tango.DevFailed;
 import fr.esrf.Tango.DevSource;
 import fr.esrf.Tango.LockerLanguage;
 
+/**
+ * The last requests of a device. The requests are recorded in a ring of preallocated records without locking and
+ * without formatting: a record only keeps references on the request fields, it is converted to a String when the
+ * black box is read.
+ */
 public final class DeviceBlackBox {
-    private final Logger logger = LoggerFactory.getLogger(DeviceBlackBox.class);
-    private final Logger clientRequestsLogger = LoggerFactory.getLogger(Constants.CLIENT_REQUESTS_LOGGER);
-    private final Queue<String> blackbox = new ArrayDeque<String>(Constants.QUEUE_CAPACITY);
 
-    public String[] toArray(final int size) throws DevFailed {
-        if (blackbox.size() == 0) {
-            throw DevFailedUtils.newDevFailed(ExceptionMessages.BLACK_BOX_EMPTY, "blackbox is emty");
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceBlackBox.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss:SSS")
+            .withZone(ZoneId.systemDefault());
+    /**
+     * Sequence number of a record that is being written
+     */
+    private static final long WRITING = -1;
+
+    /**
+     * A request. Its state is the sequence number of the request, or {@link #WRITING} while the fields are written.
+     */
+    private static final class Record {
+        private final AtomicLong state = new AtomicLong(WRITING - 1);
+        private long time;
+        private String operation;
+        private Object argument;
+        private DevSource devSource;
+        private ClntIdent clt;
+        private String hostName;
+
+        private String format() {
+            final StringBuilder sb = new StringBuilder(DATE_FORMAT.format(Instant.ofEpochMilli(time)));
+            sb.append(" : ").append(formatRequest(operation, argument));
+            appendClient(sb, devSource, clt, hostName);
+            return sb.toString();
         }
-        final String[] blackboxArray = blackbox.toArray(new String[0]);
-        String[] result;
-        if (size < Constants.QUEUE_CAPACITY && size < blackbox.size()) {
-            result = new String[size];
-            System.arraycopy(blackboxArray, blackboxArray.length - size, result, 0, result.length);
-        } else {
-            result = blackboxArray;
+    }
+
+    private final Logger clientRequestsLogger = LoggerFactory.getLogger(Constants.CLIENT_REQUESTS_LOGGER);
+    private final Record[] records = new Record[Constants.QUEUE_CAPACITY];
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public DeviceBlackBox() {
+        for (int i = 0; i < records.length; i++) {
+            records[i] = new Record();
         }
-        ArrayUtils.reverse(result);
-        return result;
     }
 
-    public void insertInblackBox(final String message) {
-        offerInblackBox(message + insertHostName());
+    /**
+     * Format a request
+     *
+     * @param operation
+     *            the operation
+     * @param argument
+     *            the object of the operation (a name or an array of names), may be null
+     * @return the request as a String
+     */
+    public static String formatRequest(final String operation, final Object argument) {
+        if (argument == null) {
+            return operation;
+        } else if (argument instanceof Object[]) {
+            return operation + " " + Arrays.toString((Object[]) argument);
+        } else {
+            return operation + " " + argument;
+        }
     }
 
-    private synchronized void offerInblackBox(final String message) {
-        while (blackbox.size() >= Constants.QUEUE_CAPACITY - 1) {
-            blackbox.poll();
+    public String[] toArray(final int size) throws DevFailed {
+        final List<String> result = new ArrayList<String>();
+        final long last = nextSequence.get() - 1;
+        for (long sequence = last; sequence >= 0 && sequence > last - records.length && result.size() < size;
+                sequence--) {
+            final Record record = records[(int) (sequence % records.length)];
+            if (record.state.get() == sequence) {
+                final String value = record.format();
+                // ignore the record if it has been overwritten while formatting
+                VarHandle.loadLoadFence();
+                if (record.state.get() == sequence) {
+                    result.add(value);
+                }
+            }
         }
-        final DateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss:SSS");
-        final StringBuilder sb = new StringBuilder(dateFormat.format(new Date()));
-        sb.append(" : ").append(message);
-        clientRequestsLogger.debug(message);
-        final boolean isInserted = blackbox.offer(sb.toString());
-        if (!isInserted) {
-            logger.debug("{} not inserted in black box queue ", sb);
+        if (result.isEmpty()) {
+            throw DevFailedUtils.newDevFailed(ExceptionMessages.BLACK_BOX_EMPTY, "blackbox is emty");
         }
+        return result.toArray(new String[0]);
+    }
+
+    public void insertInblackBox(final String message) {
+        insertInblackBox(message, null, null, null);
     }
 
     public void insertInblackBox(final String message, final DevSource devSource) {
-        final StringBuilder sb = insertSource(message, devSource);
-        offerInblackBox(sb.toString());
+        insertInblackBox(message, null, devSource, null);
     }
 
     public void insertInblackBox(final String message, final DevSource devSource, final ClntIdent clt) {
-        final StringBuilder sb = insertSource(message, devSource);
-        String cli = "";
-        try {
-            if (clt.discriminator() == LockerLanguage.CPP) {
-                cli = "(CPP/Python client with PID " + Integer.valueOf(clt.cpp_clnt()).toString() + ")";
-            } else {
-                cli = "(Java client with main class " + clt.java_clnt().MainClass + ")";
-            }
-        } catch (final BAD_OPERATION e) {
-            // ignore
-            logger.debug("{}", e);
-        }
-        sb.append(insertHostName()).append(" ").append(cli);
-        offerInblackBox(sb.toString());
+        insertInblackBox(message, null, devSource, clt);
     }
 
-    private StringBuilder insertHostName() {
-        final StringBuilder sb = new StringBuilder();
-        sb.append(" requested from ").append(ServerRequestInterceptor.getInstance().getClientHostName());
-        return sb;
+    public void insertInblackBox(final String message, final ClntIdent clt) {
+        insertInblackBox(message, null, null, clt);
     }
 
-    private StringBuilder insertSource(final String message, final DevSource devSource) {
-        final StringBuilder sb = new StringBuilder(message);
-        sb.append(" from ").append(devSource.toString());
-        return sb;
+    /**
+     * Record a request
+     *
+     * @param operation
+     *            the operation
+     * @param argument
+     *            the object of the operation (a name or an array of names), may be null
+     * @param devSource
+     *            the source of a read, may be null
+     * @param clt
+     *            the client identification, may be null
+     */
+    public void insertInblackBox(final String operation, final Object argument, final DevSource devSource,
+            final ClntIdent clt) {
+        final String hostName = ServerRequestInterceptor.getInstance().getClientHostName();
+        if (clientRequestsLogger.isDebugEnabled()) {
+            final StringBuilder sb = new StringBuilder(formatRequest(operation, argument));
+            appendClient(sb, devSource, clt, hostName);
+            clientRequestsLogger.debug(sb.toString());
+        }
+        final long sequence = nextSequence.getAndIncrement();
+        final Record record = records[(int) (sequence % records.length)];
+        final long previous = record.state.get();
+        // the slot may still be written by a request that is a full ring behind
+        if (previous == WRITING || previous > sequence || !record.state.compareAndSet(previous, WRITING)) {
+            LOGGER.debug("{} not inserted in black box", operation);
+            return;
+        }
+        record.time = System.currentTimeMillis();
+        record.operation = operation;
+        record.argument = argument;
+        record.devSource = devSource;
+        record.clt = clt;
+        record.hostName = hostName;
+        record.state.set(sequence);
     }
 
-    public void insertInblackBox(final String message, final ClntIdent clt) {
+    private static void appendClient(final StringBuilder sb, final DevSource devSource, final ClntIdent clt,
+            final String hostName) {
+        if (devSource != null) {
+            sb.append(" from ").append(devSource.toString());
+        }
+        if (clt == null) {
+            if (devSource == null) {
+                sb.append(" requested from ").append(hostName);
+            }
+        } else if (devSource == null) {
+            sb.append(" from  \"").append(getClient(clt, false)).append("\"");
+        } else {
+            sb.append(" requested from ").append(hostName).append(" ").append(getClient(clt, true));
+        }
+    }
+
+    private static String getClient(final ClntIdent clt, final boolean isDetailed) {
         String cli = "";
         try {
             if (clt.discriminator() == LockerLanguage.CPP) {
-                cli = Integer.valueOf(clt.cpp_clnt()).toString();
+                cli = isDetailed ? "(CPP/Python client with PID " + clt.cpp_clnt() + ")"
+                        : Integer.toString(clt.cpp_clnt());
             } else {
-                cli = clt.java_clnt().MainClass;
+                cli = isDetailed ? "(Java client with main class " + clt.java_clnt().MainClass + ")"
+                        : clt.java_clnt().MainClass;
             }
         } catch (final BAD_OPERATION e) {
             // ignore
-            logger.debug("{}", e);
+            LOGGER.debug("{}", e);
         }
-        offerInblackBox(message + " from  \"" + cli + "\"");
+        return cli;
     }
 }
@@ -24,11 +24,11 @@
  */
 package org.tango.server.idl;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.omg.CORBA.Any;
 import org.tango.attribute.AttributeTangoType;
@@ -99,6 +99,16 @@ public final class CleverAnyAttribute {
         PARAM_MAP.put(TangoConst.Tango_DEV_ENCODED, DevEncoded[].class);
     }
 
+    private static final Map<Integer, MethodHandle> EXTRACTOR_MAP = new HashMap<Integer, MethodHandle>();
+    private static final Map<Integer, MethodHandle> INSERTER_MAP = new HashMap<Integer, MethodHandle>();
+
+    static {
+        for (final Entry<Integer, Class<?>> entry : CLASS_MAP.entrySet()) {
+            EXTRACTOR_MAP.put(entry.getKey(), IDLCodecs.extractor(entry.getValue()));
+            INSERTER_MAP.put(entry.getKey(), IDLCodecs.inserter(entry.getValue(), PARAM_MAP.get(entry.getKey())));
+        }
+    }
+
     private CleverAnyAttribute() {
 
     }
@@ -115,18 +125,10 @@ public final class CleverAnyAttribute {
         Object result = null;
         if (any != null) {
             try {
-                final Class<?> extractorClass = CLASS_MAP.get(tangoType);
-                final Method method = extractorClass.getMethod("extract", Any.class);
-                result = method.invoke(null, any);
-            } catch (final IllegalArgumentException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final IllegalAccessException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            } catch (final SecurityException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final NoSuchMethodException e) {
+                result = (Object) EXTRACTOR_MAP.get(tangoType).invokeExact((Object) any);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
             if (format.equals(AttrDataFormat.SCALAR)) {
@@ -158,21 +160,15 @@ public final class CleverAnyAttribute {
                 array = Array.newInstance(AttributeTangoType.getTypeFromTango(tangoType).getType(), 1);
                 Array.set(array, 0, value);
             }
-            Method method = null;
-            try {
-                final Class<?> inserterClass = CLASS_MAP.get(tangoType);
-                method = inserterClass.getMethod("insert", Any.class, PARAM_MAP.get(tangoType));
-                method.invoke(null, any, array);
-            } catch (final IllegalArgumentException e) {
+            if (!IDLCodecs.accepts(array, PARAM_MAP.get(tangoType))) {
                 throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_OPT_PROP, value.getClass().getCanonicalName()
-                        + " is not of the good type, should be " + method);
-            } catch (final IllegalAccessException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            } catch (final SecurityException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final NoSuchMethodException e) {
+                        + " is not of the good type, should be " + PARAM_MAP.get(tangoType).getCanonicalName());
+            }
+            try {
+                INSERTER_MAP.get(tangoType).invokeExact((Object) any, array);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
         }
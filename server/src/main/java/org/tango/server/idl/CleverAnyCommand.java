@@ -24,10 +24,10 @@
  */
 package org.tango.server.idl;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.omg.CORBA.Any;
 import org.tango.orb.ORBManager;
@@ -150,6 +150,23 @@ public final class CleverAnyCommand {
         INSERT_ANY_MAP.put(TangoConst.Tango_DEV_STRING, "insert_string");
     }
 
+    private static final Map<Integer, MethodHandle> EXTRACTOR_MAP = new HashMap<Integer, MethodHandle>();
+    private static final Map<Integer, MethodHandle> INSERTER_MAP = new HashMap<Integer, MethodHandle>();
+
+    static {
+        for (final Entry<Integer, Class<?>> entry : CLASS_MAP.entrySet()) {
+            EXTRACTOR_MAP.put(entry.getKey(), IDLCodecs.extractor(entry.getValue()));
+            final String methodName = INSERT_ANY_MAP.get(entry.getKey());
+            if (methodName == null) {
+                // insert in Helper
+                INSERTER_MAP.put(entry.getKey(), IDLCodecs.inserter(entry.getValue(), PARAM_MAP.get(entry.getKey())));
+            } else {
+                // insert directly in Any
+                INSERTER_MAP.put(entry.getKey(), IDLCodecs.setter(Any.class, methodName, PARAM_MAP.get(entry.getKey())));
+            }
+        }
+    }
+
     private CleverAnyCommand() {
 
     }
@@ -165,22 +182,15 @@ public final class CleverAnyCommand {
     public static Object get(final Any any, final int tangoType, final boolean asPrimitive) throws DevFailed {
         Object result = null;
         if (any != null) {
-            try {
-                final Class<?> extractorClass = CLASS_MAP.get(tangoType);
-                if (extractorClass != null) { // command void
-                    final Method method = extractorClass.getMethod("extract", Any.class);
-                    result = method.invoke(null, any);
+            final MethodHandle extractor = EXTRACTOR_MAP.get(tangoType);
+            if (extractor != null) { // command void
+                try {
+                    result = (Object) extractor.invokeExact((Object) any);
+                } catch (final Error e) {
+                    throw e;
+                } catch (final Throwable e) {
+                    throw DevFailedUtils.newDevFailed(e);
                 }
-            } catch (final IllegalArgumentException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final IllegalAccessException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            } catch (final SecurityException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final NoSuchMethodException e) {
-                throw DevFailedUtils.newDevFailed(e);
             }
             // convert to array of Object if necessary
             if (result != null && !asPrimitive) {
@@ -198,35 +208,22 @@ public final class CleverAnyCommand {
                 // convert to array of primitives if necessary
                 array = org.tango.utils.ArrayUtils.toPrimitiveArray(value);
             }
-            Method method = null;
-            try {
-                final String methodName = INSERT_ANY_MAP.get(tangoType);
-                if (methodName != null) {
-                    // insert directly in Any
-                    method = any.getClass().getMethod(methodName, PARAM_MAP.get(tangoType));
-                    method.invoke(any, array);
-                } else {
-                    // insert in Helper
-                    if (tangoType == TangoConst.Tango_DEV_STATE && array instanceof DevState[]) {
-                        // special case for array of DevState (for command history)
-                        DevVarStateArrayHelper.insert(any, (DevState[]) array);
-                    } else {
-                        final Class<?> inserterClass = CLASS_MAP.get(tangoType);
-                        method = inserterClass.getMethod("insert", Any.class, PARAM_MAP.get(tangoType));
-                        method.invoke(null, any, array);
-                    }
+            if (tangoType == TangoConst.Tango_DEV_STATE && array instanceof DevState[]) {
+                // special case for array of DevState (for command history)
+                DevVarStateArrayHelper.insert(any, (DevState[]) array);
+            } else {
+                if (!IDLCodecs.accepts(array, PARAM_MAP.get(tangoType))) {
+                    throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_OPT_PROP, value.getClass()
+                            .getCanonicalName() + " is not the good type, should be "
+                            + PARAM_MAP.get(tangoType).getCanonicalName());
+                }
+                try {
+                    INSERTER_MAP.get(tangoType).invokeExact((Object) any, array);
+                } catch (final Error e) {
+                    throw e;
+                } catch (final Throwable e) {
+                    throw DevFailedUtils.newDevFailed(e);
                 }
-            } catch (final IllegalArgumentException e) {
-                throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_OPT_PROP, value.getClass().getCanonicalName()
-                        + " is not the good type, should be " + method);
-            } catch (final IllegalAccessException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            } catch (final SecurityException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final NoSuchMethodException e) {
-                throw DevFailedUtils.newDevFailed(e);
             }
         }
         return any;
@@ -24,11 +24,11 @@
  */
 package org.tango.server.idl;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.tango.attribute.AttributeTangoType;
 import org.tango.server.ExceptionMessages;
@@ -87,6 +87,17 @@ public final class CleverAttrValUnion {
         PARAM_MAP.put(AttributeDataType.ATT_ENCODED, DevEncoded[].class);
     }
 
+    private static final Map<AttributeDataType, MethodHandle> GETTER_MAP = new HashMap<AttributeDataType, MethodHandle>();
+    private static final Map<AttributeDataType, MethodHandle> SETTER_MAP = new HashMap<AttributeDataType, MethodHandle>();
+
+    static {
+        for (final Entry<AttributeDataType, String> entry : METHOD_MAP.entrySet()) {
+            GETTER_MAP.put(entry.getKey(), IDLCodecs.getter(AttrValUnion.class, entry.getValue()));
+            SETTER_MAP.put(entry.getKey(),
+                    IDLCodecs.setter(AttrValUnion.class, entry.getValue(), PARAM_MAP.get(entry.getKey())));
+        }
+    }
+
     private CleverAttrValUnion() {
 
     }
@@ -107,17 +118,10 @@ public final class CleverAttrValUnion {
                 throw DevFailedUtils.newDevFailed("there is not data");
             }
             try {
-                final Method method = union.getClass().getMethod(METHOD_MAP.get(discriminator));
-                result = method.invoke(union);
-            } catch (final IllegalArgumentException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final IllegalAccessException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final InvocationTargetException e) {
-                throw DevFailedUtils.newDevFailed(e.getCause());
-            } catch (final SecurityException e) {
-                throw DevFailedUtils.newDevFailed(e);
-            } catch (final NoSuchMethodException e) {
+                result = (Object) GETTER_MAP.get(discriminator).invokeExact((Object) union);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw DevFailedUtils.newDevFailed(e);
             }
             if (format.equals(AttrDataFormat.SCALAR) && !discriminator.equals(AttributeDataType.DEVICE_STATE)) {
@@ -128,6 +132,32 @@ public final class CleverAttrValUnion {
         return result;
     }
 
+    /**
+     * Check that a value can be set into an AttrValUnion, without building it. A value that passes this check will not
+     * fail with a type error in {@link #set(int, Object)}.
+     * 
+     * @param tangoType
+     * @param value
+     * @throws DevFailed if the value is not of the good type
+     */
+    public static void checkType(final int tangoType, final Object value) throws DevFailed {
+        if (value.getClass().isArray()) {
+            final Class<?> expectedType = PARAM_MAP.get(AttributeTangoType.getTypeFromTango(tangoType)
+                    .getAttributeDataType());
+            Class<?> componentType = value.getClass().getComponentType();
+            if (org.tango.utils.ArrayUtils.OBJ_TO_PRIMITIVE.containsKey(componentType)) {
+                componentType = org.tango.utils.ArrayUtils.OBJ_TO_PRIMITIVE.get(componentType);
+            }
+            if (!expectedType.isArray() || !expectedType.getComponentType().equals(componentType)) {
+                throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_OPT_PROP, value.getClass()
+                        .getCanonicalName() + " is not of the good type");
+            }
+        } else {
+            // scalars are cheap to convert
+            set(tangoType, value);
+        }
+    }
+
     /**
      * Set a value into an AttrValUnion
      * 
@@ -153,20 +183,15 @@ public final class CleverAttrValUnion {
                         + " is not of the good type");
             }
         }
-        try {
-            final Method method = union.getClass().getMethod(METHOD_MAP.get(discriminator),
-                    PARAM_MAP.get(discriminator));
-            method.invoke(union, array);
-        } catch (final IllegalArgumentException e) {
+        if (!IDLCodecs.accepts(array, PARAM_MAP.get(discriminator))) {
             throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_OPT_PROP, value.getClass().getCanonicalName()
                     + " is not of the good type");
-        } catch (final IllegalAccessException e) {
-            throw DevFailedUtils.newDevFailed(e);
-        } catch (final InvocationTargetException e) {
-            throw DevFailedUtils.newDevFailed(e.getCause());
-        } catch (final SecurityException e) {
-            throw DevFailedUtils.newDevFailed(e);
-        } catch (final NoSuchMethodException e) {
+        }
+        try {
+            SETTER_MAP.get(discriminator).invokeExact((Object) union, array);
+        } catch (final Error e) {
+            throw e;
+        } catch (final Throwable e) {
             throw DevFailedUtils.newDevFailed(e);
         }
         return union;
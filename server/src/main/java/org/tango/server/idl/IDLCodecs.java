@@ -0,0 +1,103 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.idl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import org.apache.commons.lang3.ClassUtils;
+
+import org.omg.CORBA.Any;
+
+/**
+ * Method handles on the IDL accessors and helpers, looked up once. All handles have the generic type (Object)Object
+ * for getters or (Object, Object)void for setters, so they are called with invokeExact. Arguments are converted as
+ * with reflection: unboxing and widening of primitives. They are checked with {@link #accepts(Object, Class)} before
+ * the call rather than relying on the ClassCastException of the handle.
+ */
+final class IDLCodecs {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private IDLCodecs() {
+
+    }
+
+    /**
+     * @param clazz the class
+     * @param name the name of an accessor without parameter
+     * @return a handle of type (Object)Object
+     */
+    static MethodHandle getter(final Class<?> clazz, final String name) {
+        return find(clazz, name).asType(GETTER_TYPE);
+    }
+
+    /**
+     * @param clazz the class
+     * @param name the name of an accessor with one parameter
+     * @param param the type of the parameter
+     * @return a handle of type (Object, Object)void
+     */
+    static MethodHandle setter(final Class<?> clazz, final String name, final Class<?> param) {
+        return find(clazz, name, param).asType(SETTER_TYPE);
+    }
+
+    /**
+     * @param helper an IDL helper class
+     * @return a handle of type (Object)Object on its extract(Any) method
+     */
+    static MethodHandle extractor(final Class<?> helper) {
+        return find(helper, "extract", Any.class).asType(GETTER_TYPE);
+    }
+
+    /**
+     * @param helper an IDL helper class
+     * @param param the type of the inserted value
+     * @return a handle of type (Object, Object)void on its insert(Any, param) method
+     */
+    static MethodHandle inserter(final Class<?> helper, final Class<?> param) {
+        return find(helper, "insert", Any.class, param).asType(SETTER_TYPE);
+    }
+
+    /**
+     * @param value a value, not null
+     * @param param the type of the parameter of a setter or an inserter
+     * @return true if the handle accepts the value
+     */
+    static boolean accepts(final Object value, final Class<?> param) {
+        return param.isInstance(value) || param.isPrimitive() && ClassUtils.isAssignable(value.getClass(), param, true);
+    }
+
+    private static MethodHandle find(final Class<?> clazz, final String name, final Class<?>... params) {
+        try {
+            return LOOKUP.unreflect(clazz.getMethod(name, params));
+        } catch (final ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
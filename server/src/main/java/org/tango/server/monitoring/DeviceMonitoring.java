@@ -30,61 +30,156 @@ import fr.esrf.Tango.DevSource;
 import org.tango.server.history.DeviceBlackBox;
 
 import java.io.Closeable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 public class DeviceMonitoring {
     private static final String SEPARATOR = " - ";
+    private static final String LOCK_WAIT_SHARED = "lock_wait_shared";
+    private static final String LOCK_WAIT_EXCLUSIVE = "lock_wait_exclusive";
     private final String deviceName;
     private final DeviceBlackBox blackbox;
     private final TangoStats monitoring;
+    /**
+     * The duration histograms of this device, by operation
+     */
+    private final ConcurrentMap<String, LatencyHistogram> histograms;
 
     public DeviceMonitoring(final String deviceName) {
         this.deviceName = deviceName;
         blackbox = new DeviceBlackBox();
         monitoring = TangoStats.getInstance();
+        histograms = monitoring.getHistograms(deviceName);
     }
 
     public Request startRequest(final String request) {
-        blackbox.insertInblackBox(request);
-        return new Request(deviceName + SEPARATOR + request);
+        return startRequest(request, null, null, null);
     }
 
     public Request startRequest(final String request, final ClntIdent clt) {
-        blackbox.insertInblackBox(request, clt);
-        return new Request(deviceName + SEPARATOR + request);
+        return startRequest(request, null, null, clt);
     }
 
     public Request startRequest(final String request, final DevSource devSource) {
-        blackbox.insertInblackBox(request, devSource);
-        return new Request(deviceName + SEPARATOR + request);
+        return startRequest(request, null, devSource, null);
     }
 
     public Request startRequest(final String request, final DevSource devSource, final ClntIdent clt) {
-        blackbox.insertInblackBox(request, devSource, clt);
-        return new Request(deviceName + SEPARATOR + request);
+        return startRequest(request, null, devSource, clt);
     }
 
-    public void addError() {
-        monitoring.addError();
+    /**
+     * Record a request in the black box and in the statistics. The request is formatted only if it is read.
+     *
+     * @param request
+     *            the operation
+     * @param argument
+     *            the object of the operation (a name or an array of names), may be null
+     * @param devSource
+     *            the source of a read, may be null
+     * @param clt
+     *            the client identification, may be null
+     * @return the request, to close at its end
+     */
+    public Request startRequest(final String request, final Object argument, final DevSource devSource,
+            final ClntIdent clt) {
+        return startRequest(request, request, argument, devSource, clt);
+    }
+
+    /**
+     * Record a request in the black box and in the statistics, when its text is not the name of its operation.
+     *
+     * @param operation
+     *            the operation, that names its duration histogram
+     * @param request
+     *            the text of the request in the black box
+     * @param argument
+     *            the object of the operation (a name or an array of names), may be null
+     * @param devSource
+     *            the source of a read, may be null
+     * @param clt
+     *            the client identification, may be null
+     * @return the request, to close at its end
+     */
+    public Request startRequest(final String operation, final String request, final Object argument,
+            final DevSource devSource, final ClntIdent clt) {
+        blackbox.insertInblackBox(request, argument, devSource, clt);
+        return new Request(operation, request, argument);
     }
 
+    /**
+     * End a request
+     *
+     * @param id
+     *            the id of the request
+     * @deprecated close the request returned by {@link #startRequest(String)}, which also records its duration in
+     *             the histogram of its operation
+     */
+    @Deprecated
     public void endRequest(final long id) {
         monitoring.endRequest(id);
     }
 
+    public void addError() {
+        monitoring.addError();
+    }
+
     public String[] getBlackBox(final int size) throws DevFailed {
         return blackbox.toArray(size);
     }
 
+    /**
+     * Record the time spent waiting for the device lock
+     *
+     * @param shared
+     *            true for a lock shared between the reads
+     * @param duration
+     *            the wait in nanoseconds
+     */
+    public void addLockWait(final boolean shared, final long duration) {
+        getHistogram(shared ? LOCK_WAIT_SHARED : LOCK_WAIT_EXCLUSIVE).record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    private LatencyHistogram getHistogram(final String request) {
+        final LatencyHistogram histogram = histograms.get(request);
+        if (histogram == null) {
+            return histograms.computeIfAbsent(request, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    /**
+     * A request being executed, with its start time
+     */
     public class Request implements Closeable {
+        /**
+         * The id of the request, its start time from {@link System#nanoTime()}
+         *
+         * @deprecated the request is ended by {@link #close()}
+         */
+        @Deprecated
         public final long id;
+        private final String operation;
+        private final String request;
+        private final Object argument;
+        private final long startTime = System.nanoTime();
+
+        Request(final String operation, final String request, final Object argument) {
+            this.operation = operation;
+            this.request = request;
+            this.argument = argument;
+            id = startTime;
+            monitoring.addRequest(this, startTime);
+        }
 
-        Request(String request) {
-            this.id = monitoring.addRequest(request);
+        @Override
+        public String toString() {
+            return deviceName + SEPARATOR + DeviceBlackBox.formatRequest(request, argument);
         }
 
         @Override
         public void close() {
-            monitoring.endRequest(id);
+            monitoring.endRequest(this, System.nanoTime() - startTime, getHistogram(operation));
         }
     }
 
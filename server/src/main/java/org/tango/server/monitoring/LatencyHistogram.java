@@ -0,0 +1,165 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.monitoring;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A latency histogram, like HdrHistogram: the buckets are linear within each power of two, with a precision of 1/8.
+ * Recording is lock-free. The threads are spread over a few stripes that are allocated on first use.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Larger values (about 19 hours in microseconds) are counted in the last bucket
+     */
+    private static final int MAX_EXPONENT = 36;
+    static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final int STRIPES = 4;
+    private static final double TO_MS = 1000.0;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(STRIPES);
+
+    /**
+     * @param micros
+     *            a duration in microseconds
+     */
+    void record(final long micros) {
+        final int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        AtomicLongArray counts = stripes.get(stripe);
+        if (counts == null) {
+            counts = new AtomicLongArray(BUCKETS);
+            if (!stripes.compareAndSet(stripe, null, counts)) {
+                counts = stripes.get(stripe);
+            }
+        }
+        counts.incrementAndGet(getIndex(micros));
+    }
+
+    /**
+     * Add the counts of this histogram
+     *
+     * @param counts
+     *            the counts by bucket
+     */
+    void addTo(final long[] counts) {
+        for (int i = 0; i < STRIPES; i++) {
+            final AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKETS; j++) {
+                    counts[j] += stripe.get(j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clear the counts. The stripes are kept, so that a concurrent recording is not lost in a discarded stripe.
+     */
+    void reset() {
+        for (int i = 0; i < STRIPES; i++) {
+            final AtomicLongArray stripe = stripes.get(i);
+            if (stripe != null) {
+                for (int j = 0; j < BUCKETS; j++) {
+                    stripe.set(j, 0);
+                }
+            }
+        }
+    }
+
+    static int getIndex(final long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        final int subBucket = (int) (micros >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param index
+     *            a bucket index
+     * @return the highest value of the bucket
+     */
+    static long getHighestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * @param counts
+     *            the counts by bucket
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the value in microseconds under which this percentage of values are, 0 if no value
+     */
+    static long getValueAtPercentile(final long[] counts, final double percentile) {
+        long total = 0;
+        for (final long count : counts) {
+            total += count;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long cumulated = 0;
+        int lastIndex = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                cumulated += counts[i];
+                lastIndex = i;
+                if (cumulated >= rank) {
+                    return getHighestValue(i);
+                }
+            }
+        }
+        return total == 0 ? 0 : getHighestValue(lastIndex);
+    }
+
+    /**
+     * @param name
+     *            the name of the histogram
+     * @param counts
+     *            the counts by bucket
+     * @return the number of values and the main percentiles in milliseconds
+     */
+    static String format(final String name, final long[] counts) {
+        long total = 0;
+        for (final long count : counts) {
+            total += count;
+        }
+        return String.format(Locale.ENGLISH, "%s: count=%d, p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms", name,
+                total, getValueAtPercentile(counts, 50) / TO_MS, getValueAtPercentile(counts, 90) / TO_MS,
+                getValueAtPercentile(counts, 99) / TO_MS, getValueAtPercentile(counts, 100) / TO_MS);
+    }
+}
@@ -53,6 +53,21 @@ public interface TangoMXBean {
 
     long getErrorNr();
 
+    /**
+     * @return the number of memorized values that could not be written in the tango db
+     */
+    long getMemorizedFlushErrorNr();
+
+    /**
+     * @return for each operation, the number of requests and the percentiles of their duration
+     */
+    String[] getRequestDurationPercentiles();
+
+    /**
+     * @return for each device and operation, the number of requests and the percentiles of their duration
+     */
+    String[] getDeviceRequestDurationPercentiles();
+
     void resetStats();
 
 }
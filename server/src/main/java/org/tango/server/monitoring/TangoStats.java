@@ -24,12 +24,21 @@
  */
 package org.tango.server.monitoring;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
-
-import org.tango.server.Chronometer;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * The request statistics of the server. The counters are striped and the durations are recorded in lock-free
+ * histograms, by device and by operation, so that the recording does not contend between requests.
+ *
  * TODO: Error stats
  *
  * @author abeille
@@ -37,29 +46,38 @@ import org.tango.server.Chronometer;
  */
 public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
 
-    private static final int MAX_CHRONO = 1000;
-    private static final int DURATION = 1000;
-    private final Chronometer periodChrono = new Chronometer();
-    private final Map<Long, Chronometer> chronoMap = new ConcurrentHashMap<Long, Chronometer>();
-    // private final NotificationBroadcasterSupport broadcaster = new NotificationBroadcasterSupport();
+    private static final long PERIOD = TimeUnit.SECONDS.toNanos(1);
+    private static final TangoStats INSTANCE = new TangoStats();
+    private static final String MEMORIZED_FLUSH_LAG = "memorized_flush_lag";
+
     private String serverName = "";
-    private volatile long seqNumber = 0;
-    private volatile String lastRequest = "";
+    private final LongAdder requestNr = new LongAdder();
+    private final LongAdder totalRequestDuration = new LongAdder();
+    private final LongAdder errorNr = new LongAdder();
+    private final LongAdder memorizedFlushErrorNr = new LongAdder();
+    /**
+     * The last request, converted to a String only when read
+     */
+    private volatile Object lastRequest = "";
+    private volatile long lastRequestDuration = 0;
+    private final AtomicLong minRequestDuration = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxRequestDuration = new AtomicLong(Long.MIN_VALUE);
+    private volatile Object maxRequest = "";
+    /**
+     * The requests of the current period of one second
+     */
+    private final LongAdder periodRequestNr = new LongAdder();
+    private final AtomicLong periodStart = new AtomicLong(System.nanoTime());
     private volatile long requestsPerSecond = 0;
     private volatile long minRequestsPerSecond = 0;
     private volatile long maxRequestsPerSecond = 0;
-    private volatile long averageRequestsPerSecond = 0;
     private volatile long totalRequestsPerSecond = 0;
-    private volatile long requestsPerSecondTemp = 0;
-    private volatile long lastRequestDuration = 0;
-    private volatile long minRequestDuration = Long.MAX_VALUE;
-    private volatile long maxRequestDuration = Long.MIN_VALUE;
-    private volatile long averageRequestDuration = 0;
-    private volatile long totalRequestDuration = 0;
-    private volatile String maxRequest = "";
-    private volatile long errorNr = 0;
-
-    private static final TangoStats INSTANCE = new TangoStats();
+    private volatile long periodNr = 0;
+    /**
+     * Duration histograms, by device name and by operation
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> histograms =
+            new ConcurrentHashMap<String, ConcurrentMap<String, LatencyHistogram>>();
 
     public static TangoStats getInstance() {
         return INSTANCE;
@@ -70,22 +88,27 @@ public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
 
     @Override
     public void resetStats() {
-        seqNumber = 0;
+        requestNr.reset();
+        totalRequestDuration.reset();
+        errorNr.reset();
+        memorizedFlushErrorNr.reset();
         lastRequest = "";
+        lastRequestDuration = 0;
+        minRequestDuration.set(Long.MAX_VALUE);
+        maxRequestDuration.set(Long.MIN_VALUE);
+        maxRequest = "";
+        periodRequestNr.reset();
+        periodStart.set(System.nanoTime());
         requestsPerSecond = 0;
         minRequestsPerSecond = 0;
         maxRequestsPerSecond = 0;
-        averageRequestsPerSecond = 0;
         totalRequestsPerSecond = 0;
-        requestsPerSecondTemp = 0;
-        lastRequestDuration = 0;
-        minRequestDuration = Long.MAX_VALUE;
-        maxRequestDuration = Long.MIN_VALUE;
-        maxRequest = "";
-        averageRequestDuration = 0;
-        totalRequestDuration = 0;
-        errorNr = 0;
-        chronoMap.clear();
+        periodNr = 0;
+        for (final Map<String, LatencyHistogram> deviceHistograms : histograms.values()) {
+            for (final LatencyHistogram histogram : deviceHistograms.values()) {
+                histogram.reset();
+            }
+        }
     }
 
     public void setServerName(final String serverName) {
@@ -99,7 +122,7 @@ public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
 
     @Override
     public String getLastRequest() {
-        return lastRequest;
+        return lastRequest.toString();
     }
 
     @Override
@@ -107,120 +130,170 @@ public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
         return requestsPerSecond;
     }
 
-    private synchronized long getNextSeqNumber() {
-        return seqNumber++;
+    /**
+     * Get the duration histograms of a device
+     *
+     * @param deviceName
+     *            the device name
+     * @return the histograms by operation
+     */
+    ConcurrentMap<String, LatencyHistogram> getHistograms(final String deviceName) {
+        return histograms.computeIfAbsent(deviceName, k -> new ConcurrentHashMap<String, LatencyHistogram>());
     }
 
-    public long addRequest(final String lastRequest) {
-        this.lastRequest = lastRequest;
-        final Chronometer chrono = new Chronometer();
-        chrono.start();
-        final long id = getNextSeqNumber();
-        if (chronoMap.size() > MAX_CHRONO) {
-            // manage memory
-            resetStats();
-        }
-        chronoMap.put(id, chrono);
-        if (periodChrono.isOver()) {
-            // Create a JMX Notification
-            // final Notification notification = new Notification(AttributeChangeNotification.ATTRIBUTE_CHANGE, this,
-            // id,
-            // Double.toString(requestsPerSecond));
-            // // Send a JMX notification.
-            // broadcaster.sendNotification(notification);
-            requestsPerSecond = requestsPerSecondTemp;
-            requestsPerSecondTemp = 0;
-            periodChrono.start(DURATION);
-        } else {
-            this.requestsPerSecondTemp++;
+    /**
+     * A request starts
+     *
+     * @param request
+     *            the request, converted to a String only when read
+     * @param startTime
+     *            the start time, from {@link System#nanoTime()}
+     */
+    public void addRequest(final Object request, final long startTime) {
+        lastRequest = request;
+        requestNr.increment();
+        periodRequestNr.increment();
+        final long start = periodStart.get();
+        if (startTime - start >= PERIOD && periodStart.compareAndSet(start, startTime)) {
+            updateRequestsPerSecond();
         }
-        return id;
-    }
-
-    // @Override
-    // public void addNotificationListener(final NotificationListener listener, final NotificationFilter filter,
-    // final Object handback) {
-    // broadcaster.addNotificationListener(listener, filter, handback);
-    // }
-    //
-    // @Override
-    // public MBeanNotificationInfo[] getNotificationInfo() {
-    // return new MBeanNotificationInfo[] { new MBeanNotificationInfo(
-    // new String[] { AttributeChangeNotification.ATTRIBUTE_CHANGE },
-    // javax.management.AttributeChangeNotification.class.getName(), "Attributes has been reading") };
-    // }
-    //
-    // @Override
-    // public void removeNotificationListener(final NotificationListener listener) throws ListenerNotFoundException {
-    // broadcaster.removeNotificationListener(listener);
-    // }
-    //
-    // @Override
-    // public void removeNotificationListener(final NotificationListener listener, final NotificationFilter filter,
-    // final Object handback) throws ListenerNotFoundException {
-    // broadcaster.removeNotificationListener(listener, filter, handback);
-    // }
+    }
 
-    public long getSeqNumber() {
-        return seqNumber;
+    /**
+     * A request starts
+     *
+     * @param request
+     *            the request
+     * @return the id of the request, its start time
+     * @deprecated use {@link DeviceMonitoring#startRequest(String)} and close the returned request
+     */
+    @Deprecated
+    public long addRequest(final Object request) {
+        final long startTime = System.nanoTime();
+        addRequest(request, startTime);
+        return startTime;
     }
 
-    public void endRequest(final long id) {
-        final Chronometer chrono = chronoMap.get(id);
-        if (chrono != null) {
-            lastRequestDuration = chrono.getElapsedTime();
-            chronoMap.remove(id);
-            if (lastRequestDuration < minRequestDuration) {
-                minRequestDuration = lastRequestDuration;
-            } else if (lastRequestDuration > maxRequestDuration) {
-                maxRequestDuration = lastRequestDuration;
-                maxRequest = lastRequest;
-            }
-            totalRequestDuration = totalRequestDuration + lastRequestDuration;
-            averageRequestDuration = totalRequestDuration / getSeqNumber();
+    private void updateRequestsPerSecond() {
+        final long count = periodRequestNr.sumThenReset();
+        requestsPerSecond = count;
+        if (count < minRequestsPerSecond || periodNr == 0) {
+            minRequestsPerSecond = count;
+        }
+        if (count > maxRequestsPerSecond) {
+            maxRequestsPerSecond = count;
+        }
+        totalRequestsPerSecond = totalRequestsPerSecond + count;
+        periodNr++;
+    }
 
-            if (requestsPerSecond < minRequestsPerSecond) {
-                minRequestsPerSecond = requestsPerSecond;
-            } else if (requestsPerSecond > maxRequestsPerSecond) {
-                maxRequestsPerSecond = requestsPerSecond;
+    /**
+     * A request ends
+     *
+     * @param request
+     *            the request
+     * @param duration
+     *            its duration in nanoseconds
+     * @param histogram
+     *            the histogram of the operation on the device, null if unknown
+     */
+    void endRequest(final Object request, final long duration, final LatencyHistogram histogram) {
+        lastRequestDuration = duration;
+        totalRequestDuration.add(duration);
+        if (histogram != null) {
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(duration));
+        }
+        long min = minRequestDuration.get();
+        while (duration < min && !minRequestDuration.compareAndSet(min, duration)) {
+            min = minRequestDuration.get();
+        }
+        long max = maxRequestDuration.get();
+        while (duration > max) {
+            if (maxRequestDuration.compareAndSet(max, duration)) {
+                maxRequest = request;
+                break;
             }
-            totalRequestsPerSecond = totalRequestsPerSecond + requestsPerSecond;
-            averageRequestsPerSecond = totalRequestsPerSecond / getSeqNumber();
+            max = maxRequestDuration.get();
         }
     }
 
+    /**
+     * A request ends. Its duration is not recorded in the histograms of the devices.
+     *
+     * @param id
+     *            the id returned by {@link #addRequest(Object)}
+     * @deprecated close the request returned by {@link DeviceMonitoring#startRequest(String)}
+     */
+    @Deprecated
+    public void endRequest(final long id) {
+        endRequest(lastRequest, System.nanoTime() - id, null);
+    }
+
+    public long getSeqNumber() {
+        return requestNr.sum();
+    }
+
     @Override
     public long getLastRequestDuration() {
-        return lastRequestDuration;
+        return TimeUnit.NANOSECONDS.toMillis(lastRequestDuration);
     }
 
     @Override
     public String getMaxRequest() {
-        return maxRequest;
+        return maxRequest.toString();
     }
 
     @Override
     public long getMaxRequestDuration() {
-        return maxRequestDuration;
+        final long max = maxRequestDuration.get();
+        return max == Long.MIN_VALUE ? max : TimeUnit.NANOSECONDS.toMillis(max);
     }
 
     @Override
     public long getMinRequestDuration() {
-        return minRequestDuration;
+        final long min = minRequestDuration.get();
+        return min == Long.MAX_VALUE ? min : TimeUnit.NANOSECONDS.toMillis(min);
     }
 
     @Override
     public long getAverageRequestDuration() {
-        return averageRequestDuration;
+        final long nr = requestNr.sum();
+        return nr == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRequestDuration.sum() / nr);
     }
 
     public void addError() {
-        errorNr++;
+        errorNr.increment();
     }
 
     @Override
     public long getErrorNr() {
-        return errorNr;
+        return errorNr.sum();
+    }
+
+    /**
+     * A memorized value has been written in the tango db
+     *
+     * @param deviceName
+     *            the device of the attribute
+     * @param lag
+     *            the time in nanoseconds between the write of the attribute and the write in the tango db
+     */
+    public void addMemorizedFlush(final String deviceName, final long lag) {
+        final ConcurrentMap<String, LatencyHistogram> deviceHistograms = getHistograms(deviceName);
+        LatencyHistogram histogram = deviceHistograms.get(MEMORIZED_FLUSH_LAG);
+        if (histogram == null) {
+            histogram = deviceHistograms.computeIfAbsent(MEMORIZED_FLUSH_LAG, k -> new LatencyHistogram());
+        }
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(lag));
+    }
+
+    public void addMemorizedFlushError() {
+        memorizedFlushErrorNr.increment();
+    }
+
+    @Override
+    public long getMemorizedFlushErrorNr() {
+        return memorizedFlushErrorNr.sum();
     }
 
     @Override
@@ -230,7 +303,8 @@ public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
 
     @Override
     public long getAverageRequestsPerSecond() {
-        return averageRequestsPerSecond;
+        final long nr = periodNr;
+        return nr == 0 ? 0 : totalRequestsPerSecond / nr;
     }
 
     @Override
@@ -238,4 +312,35 @@ public class TangoStats implements TangoMXBean /*, NotificationEmitter*/ {
         return minRequestsPerSecond;
     }
 
+    @Override
+    public String[] getRequestDurationPercentiles() {
+        final Map<String, long[]> counts = new TreeMap<String, long[]>();
+        for (final Map<String, LatencyHistogram> deviceHistograms : histograms.values()) {
+            for (final Entry<String, LatencyHistogram> entry : deviceHistograms.entrySet()) {
+                entry.getValue().addTo(counts.computeIfAbsent(entry.getKey(), k -> new long[LatencyHistogram.BUCKETS]));
+            }
+        }
+        final List<String> result = new ArrayList<String>(counts.size());
+        for (final Entry<String, long[]> entry : counts.entrySet()) {
+            result.add(LatencyHistogram.format(entry.getKey(), entry.getValue()));
+        }
+        return result.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] getDeviceRequestDurationPercentiles() {
+        final List<String> result = new ArrayList<String>();
+        final Map<String, ConcurrentMap<String, LatencyHistogram>> devices =
+                new TreeMap<String, ConcurrentMap<String, LatencyHistogram>>(histograms);
+        for (final Entry<String, ConcurrentMap<String, LatencyHistogram>> device : devices.entrySet()) {
+            final Map<String, LatencyHistogram> operations = new TreeMap<String, LatencyHistogram>(device.getValue());
+            for (final Entry<String, LatencyHistogram> entry : operations.entrySet()) {
+                final long[] counts = new long[LatencyHistogram.BUCKETS];
+                entry.getValue().addTo(counts);
+                result.add(LatencyHistogram.format(device.getKey() + " " + entry.getKey(), counts));
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
 }
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.properties;
+
+import fr.esrf.Tango.DevFailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.events.EventManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Persist the properties of several attributes of a device in tango db with a single request. The properties are
+ * compared with their values in tango db (kept in memory by the database cache), only the modified ones are written.
+ * The attribute configuration events are pushed once everything has been written.
+ */
+public final class AttributePropertiesBatch {
+
+    private final Logger logger = LoggerFactory.getLogger(AttributePropertiesBatch.class);
+    private final AttributePropertiesManager attributePropertiesManager;
+    /**
+     * The properties to persist, by attribute name
+     */
+    private final Map<String, Map<String, String[]>> properties = new LinkedHashMap<String, Map<String, String[]>>();
+
+    public AttributePropertiesBatch(final String deviceName) {
+        attributePropertiesManager = new AttributePropertiesManager(deviceName);
+    }
+
+    /**
+     * Add some properties of an attribute to persist
+     *
+     * @param attributeName the attribute name
+     * @param attributeProperties the properties names and values
+     */
+    public void add(final String attributeName, final Map<String, String[]> attributeProperties) {
+        properties.computeIfAbsent(attributeName, k -> new HashMap<String, String[]>()).putAll(attributeProperties);
+    }
+
+    /**
+     * Write the modified properties in tango db and push the attribute configuration events. The events are pushed
+     * even if the write fails, since the configurations have been applied.
+     * <p>
+     * The current values are read attribute by attribute, since {@link org.tango.client.database.ITangoDB} has no
+     * request for several attributes: they come from the database cache when it is loaded, otherwise each attribute
+     * costs a request to tango db. Only the write is done with a single request.
+     *
+     * @throws DevFailed
+     */
+    public void persist() throws DevFailed {
+        final String deviceName = attributePropertiesManager.getDeviceName();
+        try {
+            final Map<String, Map<String, String[]>> propInsert = new LinkedHashMap<String, Map<String, String[]>>();
+            for (final Entry<String, Map<String, String[]>> entry : properties.entrySet()) {
+                final Map<String, String[]> modified = attributePropertiesManager.getModifiedProperties(entry.getKey(),
+                        entry.getValue());
+                if (!modified.isEmpty()) {
+                    propInsert.put(entry.getKey(), modified);
+                }
+            }
+            if (!propInsert.isEmpty()) {
+                logger.debug("update properties of attributes {} in DB", propInsert.keySet());
+                DatabaseFactory.getDatabase().setAttributeProperties(deviceName, propInsert);
+            }
+        } finally {
+            for (final String attributeName : properties.keySet()) {
+                EventManager.getInstance().pushAttributeConfigEvent(deviceName, attributeName);
+            }
+            properties.clear();
+        }
+    }
+}
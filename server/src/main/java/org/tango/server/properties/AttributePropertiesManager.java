@@ -165,7 +165,25 @@ public final class AttributePropertiesManager {
     public void setAttributePropertiesInDB(final String attributeName, final Map<String, String[]> properties)
             throws DevFailed {
         xlogger.entry(properties);
+        final Map<String, String[]> propInsert = getModifiedProperties(attributeName, properties);
+        if (!propInsert.isEmpty()) {
+            logger.debug("update attribute {} properties {} in DB ", attributeName, properties.keySet());
+            DatabaseFactory.getDatabase().setAttributeProperties(deviceName, attributeName, propInsert);
+        }
+        xlogger.exit();
+    }
 
+    /**
+     * Compare some attribute properties with their values in tango db. The values are read with one request for the
+     * attribute, or from the database cache when it is loaded.
+     *
+     * @param attributeName
+     * @param properties
+     * @return the properties that must be written in tango db
+     * @throws DevFailed
+     */
+    Map<String, String[]> getModifiedProperties(final String attributeName, final Map<String, String[]> properties)
+            throws DevFailed {
         final Map<String, String> currentValues = getAttributePropertiesFromDBSingle(attributeName);
         final Map<String, String[]> propInsert = new HashMap<String, String[]>();
         for (final Entry<String, String[]> entry : properties.entrySet()) {
@@ -196,9 +214,7 @@ public final class AttributePropertiesManager {
                 propInsert.put(propertyName, valueArray);
             }
         }
-        logger.debug("update attribute {} properties {} in DB ", attributeName, properties.keySet());
-        DatabaseFactory.getDatabase().setAttributeProperties(deviceName, attributeName, propInsert);
-        xlogger.exit();
+        return propInsert;
     }
 
     public String getDeviceName() {
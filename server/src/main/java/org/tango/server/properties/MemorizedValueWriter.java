@@ -0,0 +1,172 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.properties;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import fr.esrf.Tango.DevFailed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.Constants;
+import org.tango.server.monitoring.TangoStats;
+import org.tango.utils.DevFailedUtils;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the memorized values of the attributes in the tango db. With the system property
+ * {@link Constants#MEMORIZED_FLUSH_PERIOD_PROPERTY}, the values are kept and written periodically: only the last value
+ * of an attribute is written, with one tango db call per device. Otherwise they are written immediately.
+ */
+public final class MemorizedValueWriter {
+
+    private static final MemorizedValueWriter INSTANCE = new MemorizedValueWriter(
+            Long.getLong(Constants.MEMORIZED_FLUSH_PERIOD_PROPERTY, 0));
+
+    private final Logger logger = LoggerFactory.getLogger(MemorizedValueWriter.class);
+    /**
+     * The values not yet written, by full attribute name
+     */
+    private final Map<String, Pending> pendings = new ConcurrentHashMap<String, Pending>();
+    private final long period;
+
+    MemorizedValueWriter(final long period) {
+        this.period = period;
+        if (period > 0) {
+            final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder().setNameFormat("Memorized-Flush").setDaemon(true).build());
+            executor.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public static MemorizedValueWriter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Memorize an attribute value
+     *
+     * @param deviceName    the device name
+     * @param attributeName the attribute name
+     * @param properties    the properties of the memorized value
+     * @throws DevFailed if written immediately and failed
+     */
+    public void memorize(final String deviceName, final String attributeName, final Map<String, String[]> properties)
+            throws DevFailed {
+        if (period > 0) {
+            final String key = getKey(deviceName, attributeName);
+            // keep the time of the oldest value not written to measure the lag
+            pendings.merge(key, new Pending(deviceName, attributeName, properties, System.nanoTime()),
+                    (previous, next) -> new Pending(deviceName, attributeName, properties, previous.time));
+        } else {
+            logger.debug("memorize {}/{} in DB", deviceName, attributeName);
+            DatabaseFactory.getDatabase().setAttributeProperties(deviceName, attributeName, properties);
+        }
+    }
+
+    /**
+     * Get the memorized value of an attribute that is not written yet
+     *
+     * @param deviceName    the device name
+     * @param attributeName the attribute name
+     * @return the properties of the memorized value, null if all its values have been written
+     */
+    public Map<String, String[]> getPending(final String deviceName, final String attributeName) {
+        final Pending pending = pendings.get(getKey(deviceName, attributeName));
+        return pending == null ? null : pending.properties;
+    }
+
+    /**
+     * @return true if some values are not written yet
+     */
+    public boolean hasPendings() {
+        return !pendings.isEmpty();
+    }
+
+    /**
+     * Write all values not written yet, with one tango db call per device. A value stays pending until it is
+     * written, so the values of a device that cannot be written are kept for the next flush.
+     */
+    public synchronized void flush() {
+        final Map<String, Map<String, Pending>> pendingsByDevice = new HashMap<String, Map<String, Pending>>();
+        for (final Map.Entry<String, Pending> entry : pendings.entrySet()) {
+            pendingsByDevice.computeIfAbsent(entry.getValue().deviceName.toLowerCase(Locale.ENGLISH),
+                    k -> new HashMap<String, Pending>()).put(entry.getKey(), entry.getValue());
+        }
+        for (final Map<String, Pending> devicePendings : pendingsByDevice.values()) {
+            flush(devicePendings);
+        }
+    }
+
+    private void flush(final Map<String, Pending> devicePendings) {
+        final String deviceName = devicePendings.values().iterator().next().deviceName;
+        final Map<String, Map<String, String[]>> properties = new HashMap<String, Map<String, String[]>>();
+        for (final Pending pending : devicePendings.values()) {
+            properties.put(pending.attributeName, pending.properties);
+        }
+        try {
+            logger.debug("memorize {} in DB for {}", properties.keySet(), deviceName);
+            DatabaseFactory.getDatabase().setAttributeProperties(deviceName, properties);
+            final long now = System.nanoTime();
+            for (final Map.Entry<String, Pending> entry : devicePendings.entrySet()) {
+                TangoStats.getInstance().addMemorizedFlush(deviceName, now - entry.getValue().time);
+                // a value memorized during the write stays pending
+                pendings.remove(entry.getKey(), entry.getValue());
+            }
+        } catch (final DevFailed e) {
+            TangoStats.getInstance().addMemorizedFlushError();
+            logger.error("failed to memorize {} for {}: {}", properties.keySet(), deviceName,
+                    DevFailedUtils.toString(e));
+        } catch (final RuntimeException e) {
+            TangoStats.getInstance().addMemorizedFlushError();
+            logger.error("failed to memorize " + properties.keySet() + " for " + deviceName, e);
+        }
+    }
+
+    private static String getKey(final String deviceName, final String attributeName) {
+        return (deviceName + "/" + attributeName).toLowerCase(Locale.ENGLISH);
+    }
+
+    private static final class Pending {
+        private final String deviceName;
+        private final String attributeName;
+        private final Map<String, String[]> properties;
+        private final long time;
+
+        private Pending(final String deviceName, final String attributeName, final Map<String, String[]> properties,
+                final long time) {
+            this.deviceName = deviceName;
+            this.attributeName = attributeName;
+            this.properties = properties;
+            this.time = time;
+        }
+    }
+}
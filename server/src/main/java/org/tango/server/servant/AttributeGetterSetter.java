@@ -34,14 +34,12 @@ import fr.esrf.Tango.DevSource;
 import fr.esrf.Tango.DevState;
 import fr.esrf.Tango.MultiDevFailed;
 import fr.esrf.Tango.NamedDevError;
-import net.sf.ehcache.CacheException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.ext.XLogger;
 import org.slf4j.ext.XLoggerFactory;
 import org.tango.DeviceState;
 import org.tango.server.ExceptionMessages;
-import org.tango.server.InvocationContext;
 import org.tango.server.InvocationContext.CallType;
 import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.ServerManager;
@@ -58,10 +56,13 @@ import org.tango.server.idl.TangoIDLAttributeUtil;
 import org.tango.utils.DevFailedUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public final class AttributeGetterSetter {
 
@@ -77,14 +78,18 @@ public final class AttributeGetterSetter {
     public static AttributeImpl getAttribute(final String name, final List<AttributeImpl> attributeList)
             throws DevFailed {
         AttributeImpl result = null;
-        for (final AttributeImpl attribute : attributeList) {
-            if (attribute.getName().equalsIgnoreCase(name)) {
-                result = attribute;
-                break;
+        if (attributeList instanceof NamedList) {
+            result = ((NamedList<AttributeImpl>) attributeList).get(name);
+        } else {
+            for (final AttributeImpl attribute : attributeList) {
+                if (attribute.getName().equalsIgnoreCase(name)) {
+                    result = attribute;
+                    break;
+                }
             }
         }
         if (result == null) {
-            throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_FOUND, name + DOES_NOT_EXIST);
+            throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_FOUND, name + DOES_NOT_EXIST);
         }
         return result;
     }
@@ -100,13 +105,13 @@ public final class AttributeGetterSetter {
             try {
                 final AttributeImpl att = getAttribute(name, attributeList);
                 // Call the always executed method
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_WRITE_ATTRIBUTE, CallType.UNKNOWN,
-                        clientID, name));
+                aroundInvoke.aroundInvoke(ContextType.PRE_WRITE_ATTRIBUTE, CallType.UNKNOWN,
+                        clientID, name);
 
                 // Check if the attribute is allowed
                 final DevState s = stateImpl.updateState();
                 if (!att.isAllowed(DeviceState.getDeviceState(s))) {
-                    throw DevFailedUtils.newDevFailed(ExceptionMessages.COMMAND_NOT_ALLOWED, ATTRIBUTE + att.getName()
+                    throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.COMMAND_NOT_ALLOWED, ATTRIBUTE + att.getName()
                             + " not allowed when the device is in " + DeviceState.toString(s));
                 }
                 final Object obj = CleverAttrValUnion.get(value4.value, att.getFormat());
@@ -120,8 +125,8 @@ public final class AttributeGetterSetter {
                 }
                 // state machine
                 stateImpl.stateMachine(att.getEndState());
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_WRITE_ATTRIBUTE, CallType.UNKNOWN,
-                        clientID, name));
+                aroundInvoke.aroundInvoke(ContextType.POST_WRITE_ATTRIBUTE, CallType.UNKNOWN,
+                        clientID, name);
             } catch (final DevFailed e) {
                 errors.add(new NamedDevError(name, i, e.errors));
             }
@@ -144,13 +149,13 @@ public final class AttributeGetterSetter {
                 throw DevFailedUtils.newDevFailed("write only supported for SCALAR attributes");
             }
             // Call the always executed method
-            aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_WRITE_ATTRIBUTE, CallType.UNKNOWN,
-                    clientID, name));
+            aroundInvoke.aroundInvoke(ContextType.PRE_WRITE_ATTRIBUTE, CallType.UNKNOWN,
+                    clientID, name);
 
             // Check if the attribute is allowed
             final DevState s = stateImpl.updateState();
             if (!att.isAllowed(DeviceState.getDeviceState(s))) {
-                throw DevFailedUtils.newDevFailed(ExceptionMessages.COMMAND_NOT_ALLOWED, ATTRIBUTE + att.getName()
+                throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.COMMAND_NOT_ALLOWED, ATTRIBUTE + att.getName()
                         + " not allowed when the device is in " + DeviceState.toString(s));
             }
             final Object obj = CleverAnyAttribute.get(value3.value, att.getTangoType(), att.getFormat());
@@ -163,8 +168,8 @@ public final class AttributeGetterSetter {
             }
             // state machine
             stateImpl.stateMachine(att.getEndState());
-            aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_WRITE_ATTRIBUTE, CallType.UNKNOWN,
-                    clientID, name));
+            aroundInvoke.aroundInvoke(ContextType.POST_WRITE_ATTRIBUTE, CallType.UNKNOWN,
+                    clientID, name);
         }
         XLOGGER.exit();
     }
@@ -191,7 +196,7 @@ public final class AttributeGetterSetter {
                             names[i],
                             AttrDataFormat.FMT_UNKNOWN,
                             0,
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
                                     + " value is available only by CACHE"));
                 } else if (!deviceName.equalsIgnoreCase(ServerManager.getInstance().getAdminDeviceName())
                         && source.equals(DevSource.CACHE) && !att.isPolled()) {
@@ -200,7 +205,7 @@ public final class AttributeGetterSetter {
                             names[i],
                             AttrDataFormat.FMT_UNKNOWN,
                             0,
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
                                     + " not polled"));
                 } else if (att.isPolled() && fromCache) {
                     cacheAttributes.put(i, att);
@@ -221,68 +226,131 @@ public final class AttributeGetterSetter {
                 // aroundInvoke
                 // .aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, callType, att.getName()));
                 // profiler.start("get cache");
-                final AttributeValue readValue = cacheManager.getAttributeCacheElement(att);
-                // profiler.start("to idl 5");
+                // the polled value is converted once and shared by all the clients
+                final AttributeValue_5 readValue = cacheManager.getAttributeCacheElement5(att);
                 if (readValue == null) {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue5Error(names[i], att.getFormat(),
                             att.getTangoType(),
-                            DevFailedUtils.newDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
+                            DevFailedUtils.newExpectedDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
                 } else {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue5(att, readValue, att.getWriteValue());
+                    back[i] = readValue;
                 }
                 // profiler.stop().print();
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue5Error(names[i], AttrDataFormat.FMT_UNKNOWN, 0,
-                            (DevFailed) e.getCause());
-                }
+            } catch (final DevFailed e) {
+                back[i] = TangoIDLAttributeUtil.toAttributeValue5Error(names[i], AttrDataFormat.FMT_UNKNOWN, 0, e);
             }
             // aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, callType,
             // att.getName()));
         }
         // get attributes values
         if (!notCacheAttributes.isEmpty()) {
-            final Object lock = locker.getAttributeLock();
-            // lock if necessary
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
-                        names));
+            // lock if necessary, the lock is shared if all the attributes can be read concurrently
+            final boolean shared = isConcurrentRead(notCacheAttributes.values());
+            try (DeviceLocker.Hold ignoredLock = locker.lockAttributes(shared)) {
+                aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
+                        names);
+                // attributes declared with concurrent read are read by the read threads while the others are read
+                // here, in the request order. The device lock stays held by this thread until all the reads are done.
+                final Map<Integer, Future<AttributeValue_5>> concurrentReads = new HashMap<Integer, Future<AttributeValue_5>>();
                 for (final Entry<Integer, AttributeImpl> attribute : notCacheAttributes.entrySet()) {
                     final AttributeImpl att = attribute.getValue();
-                    final int i = attribute.getKey();
-                    LOGGER.debug("read from DEVICE {} ", att.getName());
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
-                            att.getName()));
-                    try {
-                        if (att.getBehavior() instanceof ForwardedAttribute) {
-                            // special case for fwd attribute where we retrieve directly a AttributeValue_5
-                            final ForwardedAttribute fwdAttr = (ForwardedAttribute) att.getBehavior();
-                            back[i] = fwdAttr.getValue5();
-                        } else {
-                            att.lock();
-                            try {
-                                att.updateValue();
-                                back[i] = TangoIDLAttributeUtil.toAttributeValue5(att, att.getReadValue(),
-                                        att.getWriteValue());
-                            } finally {
-                                att.unlock();
-                            }
+                    if (att.isConcurrentRead() && notCacheAttributes.size() > 1) {
+                        final String name = names[attribute.getKey()];
+                        concurrentReads.put(attribute.getKey(), ConcurrentReadExecutor.submit(
+                                () -> readAttributeValue5(att, name, aroundInvoke, callType, clientID)));
+                    }
+                }
+                try {
+                    for (final Entry<Integer, AttributeImpl> attribute : notCacheAttributes.entrySet()) {
+                        final int i = attribute.getKey();
+                        if (!concurrentReads.containsKey(i)) {
+                            back[i] = readAttributeValue5(attribute.getValue(), names[i], aroundInvoke, callType,
+                                    clientID);
                         }
-                    } catch (final DevFailed e) {
-                        back[i] = TangoIDLAttributeUtil.toAttributeValue5Error(names[i], att.getFormat(),
-                                att.getTangoType(), e);
                     }
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, callType,
-                            clientID, att.getName()));
-                } // for
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
-                        names));
-            } // synchronized
+                } catch (final DevFailed | RuntimeException e) {
+                    try {
+                        getConcurrentReads(concurrentReads, back);
+                    } catch (final DevFailed e2) {
+                        // the first error is reported
+                    }
+                    throw e;
+                }
+                getConcurrentReads(concurrentReads, back);
+                aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
+                        names);
+            } // locked
         }
 
         return back;
     }
 
+    /**
+     * Read an attribute from the device. The around invoke errors are thrown, the read errors are returned in the
+     * value.
+     */
+    private static AttributeValue_5 readAttributeValue5(final AttributeImpl att, final String name,
+                                                        final AroundInvokeImpl aroundInvoke, final CallType callType,
+                                                        final ClntIdent clientID) throws DevFailed {
+        LOGGER.debug("read from DEVICE {} ", att.getName());
+        AttributeValue_5 value;
+        aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
+                att.getName());
+        try {
+            if (att.getBehavior() instanceof ForwardedAttribute) {
+                // special case for fwd attribute where we retrieve directly a AttributeValue_5
+                final ForwardedAttribute fwdAttr = (ForwardedAttribute) att.getBehavior();
+                value = fwdAttr.getValue5();
+            } else {
+                att.lock();
+                try {
+                    att.updateValue();
+                    value = att.getReadValue5();
+                } finally {
+                    att.unlock();
+                }
+            }
+        } catch (final DevFailed e) {
+            value = TangoIDLAttributeUtil.toAttributeValue5Error(name, att.getFormat(), att.getTangoType(), e);
+        }
+        aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, callType, clientID,
+                att.getName());
+        return value;
+    }
+
+    /**
+     * Wait for all the concurrent reads. The error of the first failed read is thrown once they are all done.
+     */
+    private static void getConcurrentReads(final Map<Integer, Future<AttributeValue_5>> reads,
+                                           final AttributeValue_5[] back) throws DevFailed {
+        DevFailed error = null;
+        for (final Entry<Integer, Future<AttributeValue_5>> read : reads.entrySet()) {
+            try {
+                back[read.getKey()] = read.getValue().get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw DevFailedUtils.newDevFailed(e);
+            } catch (final ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause() instanceof DevFailed ? (DevFailed) e.getCause()
+                            : DevFailedUtils.newDevFailed(e.getCause());
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private static boolean isConcurrentRead(final Collection<AttributeImpl> attributes) {
+        for (final AttributeImpl attribute : attributes) {
+            if (!attribute.isConcurrentRead()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static boolean isFromCache(final DevSource source) {
         boolean fromCache = false;
         if (source.equals(DevSource.CACHE) || source.equals(DevSource.CACHE_DEV)) {
@@ -310,7 +378,7 @@ public final class AttributeGetterSetter {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue4Error(
                             names[i],
                             AttrDataFormat.FMT_UNKNOWN,
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
                                     + " value is available only by CACHE"));
                 } else if (!deviceName.equalsIgnoreCase(ServerManager.getInstance().getAdminDeviceName())
                         && source.equals(DevSource.CACHE) && !att.isPolled()) {
@@ -318,7 +386,7 @@ public final class AttributeGetterSetter {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue4Error(
                             names[i],
                             AttrDataFormat.FMT_UNKNOWN,
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
                                     + " not polled"));
                 } else if (att.isPolled() && fromCache) {
                     cacheAttributes.put(i, att);
@@ -336,33 +404,30 @@ public final class AttributeGetterSetter {
             final int i = attribute.getKey();
             try {
                 LOGGER.debug("read from CACHE {}", att.getName());
-                final AttributeValue readValue = cacheManager.getAttributeCacheElement(att);
+                final AttributeValue_4 readValue = cacheManager.getAttributeCacheElement4(att);
                 if (readValue == null) {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue4Error(names[i], att.getFormat(),
-                            DevFailedUtils.newDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
+                            DevFailedUtils.newExpectedDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
                 } else {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue4(att, readValue, att.getWriteValue());
-                }
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue4Error(names[i], AttrDataFormat.FMT_UNKNOWN,
-                            (DevFailed) e.getCause());
+                    back[i] = readValue;
                 }
+            } catch (final DevFailed e) {
+                back[i] = TangoIDLAttributeUtil.toAttributeValue4Error(names[i], AttrDataFormat.FMT_UNKNOWN, e);
             }
         }
         // get attributes values
         if (!notCacheAttributes.isEmpty()) {
-            final Object lock = locker.getAttributeLock();
-            // lock if necessary
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
-                        names));
+            // lock if necessary, the lock is shared if all the attributes can be read concurrently
+            final boolean shared = isConcurrentRead(notCacheAttributes.values());
+            try (DeviceLocker.Hold ignoredLock = locker.lockAttributes(shared)) {
+                aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
+                        names);
                 for (final Entry<Integer, AttributeImpl> attribute : notCacheAttributes.entrySet()) {
                     final AttributeImpl att = attribute.getValue();
                     final int i = attribute.getKey();
                     LOGGER.debug("read from DEVICE {} ", att.getName());
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
-                            att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
+                            att.getName());
                     att.lock();
                     try {
                         att.updateValue();
@@ -373,12 +438,12 @@ public final class AttributeGetterSetter {
                     } finally {
                         att.unlock();
                     }
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, callType,
-                            clientID, att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, callType,
+                            clientID, att.getName());
                 } // for
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
-                        names));
-            } // synchronized
+                aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
+                        names);
+            } // locked
         }
 
         return back;
@@ -402,14 +467,14 @@ public final class AttributeGetterSetter {
                     // attribute is polled, so throw exception except
                     back[i] = TangoIDLAttributeUtil.toAttributeValue3Error(
                             names[i],
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
                                     + " value is available only by CACHE"));
                 } else if (!deviceName.equalsIgnoreCase(ServerManager.getInstance().getAdminDeviceName())
                         && source.equals(DevSource.CACHE) && !att.isPolled()) {
                     // attribute is not polled, so throw exception e'xcept for admin device
                     back[i] = TangoIDLAttributeUtil.toAttributeValue3Error(
                             names[i],
-                            DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
+                            DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
                                     + " not polled"));
                 } else if (att.isPolled() && fromCache) {
                     cacheAttributes.put(i, att);
@@ -430,29 +495,27 @@ public final class AttributeGetterSetter {
                 final AttributeValue readValue = cacheManager.getAttributeCacheElement(att);
                 if (readValue == null) {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue3Error(names[i],
-                            DevFailedUtils.newDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
+                            DevFailedUtils.newExpectedDevFailed("CACHE_ERROR", names[i] + " not available from cache"));
                 } else {
                     back[i] = TangoIDLAttributeUtil.toAttributeValue3(att, readValue, att.getWriteValue());
                 }
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue3Error(names[i], (DevFailed) e.getCause());
-                }
+            } catch (final DevFailed e) {
+                back[i] = TangoIDLAttributeUtil.toAttributeValue3Error(names[i], e);
             }
         }
         // get attributes values
         if (!notCacheAttributes.isEmpty()) {
-            final Object lock = locker.getAttributeLock();
-            // lock if necessary
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
-                        names));
+            // lock if necessary, the lock is shared if all the attributes can be read concurrently
+            final boolean shared = isConcurrentRead(notCacheAttributes.values());
+            try (DeviceLocker.Hold ignoredLock = locker.lockAttributes(shared)) {
+                aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
+                        names);
                 for (final Entry<Integer, AttributeImpl> attribute : notCacheAttributes.entrySet()) {
                     final AttributeImpl att = attribute.getValue();
                     final int i = attribute.getKey();
                     LOGGER.debug("read from DEVICE {} ", att.getName());
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
-                            att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
+                            att.getName());
                     att.lock();
                     try {
                         att.updateValue();
@@ -463,12 +526,12 @@ public final class AttributeGetterSetter {
                     } finally {
                         att.unlock();
                     }
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, callType,
-                            clientID, att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, callType,
+                            clientID, att.getName());
                 } // for
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
-                        names));
-            } // synchronized
+                aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
+                        names);
+            } // locked
         }
         return back;
     }
@@ -487,12 +550,12 @@ public final class AttributeGetterSetter {
             final AttributeImpl att = getAttribute(names[i], attributeList);
             if (source.equals(DevSource.DEV) && att.isPolled() && att.getPollingPeriod() == 0) {
                 // attribute is polled, so throw exception except
-                throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
+                throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, ATTRIBUTE + names[i]
                         + " value is available only by CACHE");
             } else if (!deviceName.equalsIgnoreCase(ServerManager.getInstance().getAdminDeviceName())
                     && source.equals(DevSource.CACHE) && !att.isPolled()) {
                 // attribute is not polled, so throw exception e'xcept for admin device
-                throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
+                throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, ATTRIBUTE + names[i]
                         + " not polled");
             } else if (att.isPolled() && fromCache) {
                 cacheAttributes.put(i, att);
@@ -506,33 +569,27 @@ public final class AttributeGetterSetter {
         for (final Entry<Integer, AttributeImpl> attribute : cacheAttributes.entrySet()) {
             final AttributeImpl att = attribute.getValue();
             final int i = attribute.getKey();
-            try {
-                LOGGER.debug("read from CACHE {}", att.getName());
-                final AttributeValue readValue = cacheManager.getAttributeCacheElement(att);
-                if (readValue == null) {
-                    throw DevFailedUtils.newDevFailed("CACHE_ERROR", names[i] + " not available from cache");
-                } else {
-                    back[i] = TangoIDLAttributeUtil.toAttributeValue(att, readValue);
-                }
-            } catch (final CacheException e) {
-                if (e.getCause() instanceof DevFailed) {
-                    throw (DevFailed) e.getCause();
-                }
+            LOGGER.debug("read from CACHE {}", att.getName());
+            final AttributeValue readValue = cacheManager.getAttributeCacheElement(att);
+            if (readValue == null) {
+                throw DevFailedUtils.newExpectedDevFailed("CACHE_ERROR", names[i] + " not available from cache");
+            } else {
+                back[i] = TangoIDLAttributeUtil.toAttributeValue(att, readValue);
             }
         }
         // get attributes values
         if (!notCacheAttributes.isEmpty()) {
-            final Object lock = locker.getAttributeLock();
-            // lock if necessary
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
-                        names));
+            // lock if necessary, the lock is shared if all the attributes can be read concurrently
+            final boolean shared = isConcurrentRead(notCacheAttributes.values());
+            try (DeviceLocker.Hold ignoredLock = locker.lockAttributes(shared)) {
+                aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, callType, clientID,
+                        names);
                 for (final Entry<Integer, AttributeImpl> attribute : notCacheAttributes.entrySet()) {
                     final AttributeImpl att = attribute.getValue();
                     final int i = attribute.getKey();
                     LOGGER.debug("read from DEVICE {} ", att.getName());
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
-                            att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, callType, clientID,
+                            att.getName());
                     att.lock();
                     try {
                         att.updateValue();
@@ -540,12 +597,12 @@ public final class AttributeGetterSetter {
                     } finally {
                         att.unlock();
                     }
-                    aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, callType,
-                            clientID, att.getName()));
+                    aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, callType,
+                            clientID, att.getName());
                 } // for
-                aroundInvoke.aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
-                        names));
-            } // synchronized
+                aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, callType, clientID,
+                        names);
+            } // locked
         }
         return back;
     }
@@ -43,14 +43,18 @@ public class CommandGetter {
      */
     public static CommandImpl getCommand(final String name, final List<CommandImpl> commandList) throws DevFailed {
         CommandImpl result = null;
-        for (final CommandImpl command : commandList) {
-            if (command.getName().equalsIgnoreCase(name)) {
-                result = command;
-                break;
+        if (commandList instanceof NamedList) {
+            result = ((NamedList<CommandImpl>) commandList).get(name);
+        } else {
+            for (final CommandImpl command : commandList) {
+                if (command.getName().equalsIgnoreCase(name)) {
+                    result = command;
+                    break;
+                }
             }
         }
         if (result == null) {
-            throw DevFailedUtils.newDevFailed(ExceptionMessages.COMMAND_NOT_FOUND, "Command " + name + " not found");
+            throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.COMMAND_NOT_FOUND, "Command " + name + " not found");
         }
         return result;
     }
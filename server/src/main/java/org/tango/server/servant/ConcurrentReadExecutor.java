@@ -0,0 +1,87 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.servant;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.MDC;
+import org.tango.server.Constants;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads that read the attributes declared with concurrent read. The threads are shared by all the devices of the
+ * server, their number is given by the system property {@link Constants#READ_THREADS_PROPERTY}. When all the threads
+ * are busy and {@link #QUEUE_CAPACITY} reads are waiting, the caller reads itself.
+ */
+final class ConcurrentReadExecutor {
+
+    private static final int DEFAULT_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private static final class Holder {
+        private static final int THREADS = Integer.getInteger(Constants.READ_THREADS_PROPERTY, DEFAULT_THREADS);
+        private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(THREADS, THREADS, 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                new ThreadFactoryBuilder().setNameFormat("Attribute-Read-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private ConcurrentReadExecutor() {
+
+    }
+
+    /**
+     * Submit a read. The logging context of the caller is set in the reading thread, and restored after the read
+     * when the caller reads itself.
+     *
+     * @param read the read
+     * @param <T>  the read result
+     * @return the future result
+     */
+    static <T> Future<T> submit(final Callable<T> read) {
+        final Map<String, String> context = MDC.getCopyOfContextMap();
+        return Holder.EXECUTOR.submit(() -> {
+            final Map<String, String> previous = MDC.getCopyOfContextMap();
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                return read.call();
+            } finally {
+                if (previous == null) {
+                    MDC.clear();
+                } else {
+                    MDC.setContextMap(previous);
+                }
+            }
+        });
+    }
+}
@@ -38,7 +38,6 @@ import org.tango.logging.LoggingLevel;
 import org.tango.logging.LoggingManager;
 import org.tango.server.Constants;
 import org.tango.server.ExceptionMessages;
-import org.tango.server.InvocationContext;
 import org.tango.server.InvocationContext.CallType;
 import org.tango.server.InvocationContext.ContextType;
 import org.tango.server.ServerManager;
@@ -47,6 +46,7 @@ import org.tango.server.annotation.*;
 import org.tango.server.attribute.AttributeImpl;
 import org.tango.server.attribute.AttributePropertiesImpl;
 import org.tango.server.attribute.ForwardedAttribute;
+import org.tango.server.cache.PollingBatch;
 import org.tango.server.cache.PollingManager;
 import org.tango.server.cache.TangoCacheManager;
 import org.tango.server.command.CommandImpl;
@@ -58,6 +58,7 @@ import org.tango.server.idl.TangoIDLUtil;
 import org.tango.server.lock.ClientLocking;
 import org.tango.server.monitoring.DeviceMonitoring;
 import org.tango.server.pipe.PipeImpl;
+import org.tango.server.properties.AttributePropertiesBatch;
 import org.tango.server.properties.ClassPropertyImpl;
 import org.tango.server.properties.DevicePropertiesImpl;
 import org.tango.server.properties.DevicePropertyImpl;
@@ -68,6 +69,7 @@ import org.tango.utils.DevFailedUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -96,11 +98,13 @@ public class DeviceImpl extends Device_5POA {
     private static final String NOT_IMPORTANT_ERROR = "not important error";
     private static final String READ_ASKED_FOR_0_ATTRIBUTES = "read asked for 0 attributes";
     private static final String READ_ERROR = "READ_ERROR";
+    private static final DevError NOT_A_GOOD_CONFIG = DevFailedUtils.buildExpectedDevError(
+            ExceptionMessages.ATTR_NOT_ALLOWED, "not a good config");
     /**
      * Recreating a device does not delete locking object. So maintain a
      * reference
      */
-    private static final Map<String, ClientLocking> CLIENT_LOCKING_MAP = new HashMap<String, ClientLocking>();
+    private static final Map<String, ClientLocking> CLIENT_LOCKING_MAP = new ConcurrentHashMap<String, ClientLocking>();
     private final Logger logger = LoggerFactory.getLogger(DeviceImpl.class);
     private final XLogger xlogger = XLoggerFactory.getXLogger(DeviceImpl.class);
     /**
@@ -118,15 +122,15 @@ public class DeviceImpl extends Device_5POA {
     /**
      * the device's attributes
      */
-    private final List<PipeImpl> pipeList = new ArrayList<PipeImpl>();
+    private final NamedList<PipeImpl> pipeList = new NamedList<PipeImpl>(PipeImpl::getName);
     /**
      * the device's attributes
      */
-    private final List<AttributeImpl> attributeList = new ArrayList<AttributeImpl>();
+    private final NamedList<AttributeImpl> attributeList = new NamedList<AttributeImpl>(AttributeImpl::getName);
     /**
      * the device's commands
      */
-    private final List<CommandImpl> commandList = new ArrayList<CommandImpl>();
+    private final NamedList<CommandImpl> commandList = new NamedList<CommandImpl>(CommandImpl::getName);
 
     // default attributes
     /**
@@ -239,7 +243,7 @@ public class DeviceImpl extends Device_5POA {
         this.className = className;
         this.deviceType = deviceType;
         deviceMonitoring = new DeviceMonitoring(deviceName);
-        deviceLock = new DeviceLocker(txType, businessObject.getClass());
+        deviceLock = new DeviceLocker(txType, businessObject.getClass(), deviceMonitoring);
 
         this.businessObject = businessObject;
         if (CLIENT_LOCKING_MAP.containsKey(deviceName)) {
@@ -314,14 +318,18 @@ public class DeviceImpl extends Device_5POA {
 
     public static PipeImpl getPipe(final String name, final List<PipeImpl> pipeList) throws DevFailed {
         PipeImpl result = null;
-        for (final PipeImpl pipe : pipeList) {
-            if (pipe.getName().equalsIgnoreCase(name)) {
-                result = pipe;
-                break;
+        if (pipeList instanceof NamedList) {
+            result = ((NamedList<PipeImpl>) pipeList).get(name);
+        } else {
+            for (final PipeImpl pipe : pipeList) {
+                if (pipe.getName().equalsIgnoreCase(name)) {
+                    result = pipe;
+                    break;
+                }
             }
         }
         if (result == null) {
-            throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_FOUND, name + " does not exists");
+            throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_FOUND, name + " does not exists");
         }
         return result;
     }
@@ -472,14 +480,7 @@ public class DeviceImpl extends Device_5POA {
      */
     public synchronized void addAttribute(final AttributeImpl attribute) throws DevFailed {
         // add attribute only if it doesn't exists
-        AttributeImpl result = null;
-        for (final AttributeImpl attr : attributeList) {
-            if (attr.getName().equalsIgnoreCase(attribute.getName())) {
-                result = attribute;
-                break;
-            }
-        }
-        if (result == null) {
+        if (attributeList.get(attribute.getName()) == null) {
             attributeList.add(attribute);
             // set default polling configuration
             if (attrPollRingDepth.containsKey(attribute.getName().toLowerCase(Locale.ENGLISH))) {
@@ -511,14 +512,7 @@ public class DeviceImpl extends Device_5POA {
      * @throws DevFailed
      */
     public void addPipe(final PipeImpl pipe) throws DevFailed {
-        PipeImpl result = null;
-        for (final PipeImpl pipeElt : pipeList) {
-            if (pipeElt.getName().equalsIgnoreCase(pipe.getName())) {
-                result = pipe;
-                break;
-            }
-        }
-        if (result == null) {
+        if (pipeList.get(pipe.getName()) == null) {
             pipeList.add(pipe);
         }
     }
@@ -800,7 +794,7 @@ public class DeviceImpl extends Device_5POA {
     public void ping() throws DevFailed {
         MDC.setContextMap(contextMap);
         xlogger.entry();
-        deviceMonitoring.endRequest(deviceMonitoring.startRequest("Operation ping").id);
+        deviceMonitoring.startRequest("Operation ping").close();
         xlogger.exit();
     }
 
@@ -811,7 +805,7 @@ public class DeviceImpl extends Device_5POA {
     public String adm_name() {
         MDC.setContextMap(contextMap);
         xlogger.entry();
-        deviceMonitoring.endRequest(deviceMonitoring.startRequest("Attribute adm_name").id);
+        deviceMonitoring.startRequest("Attribute adm_name").close();
         xlogger.exit();
         return getAdminDeviceName();
     }
@@ -925,7 +919,7 @@ public class DeviceImpl extends Device_5POA {
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attribute_history_4")) {
             final AttributeImpl attr = AttributeGetterSetter.getAttribute(attributeName, attributeList);
             if (!attr.isPolled()) {
-                throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, attr.getName() + " is not polled");
+                throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, attr.getName() + " is not polled");
             }
             result = attr.getHistory().getAttrHistory4(maxSize);
         } catch (final Exception e) {
@@ -948,7 +942,7 @@ public class DeviceImpl extends Device_5POA {
         if (attributeNames.length == 0) {
             throw DevFailedUtils.newDevFailed(READ_ERROR, READ_ASKED_FOR_0_ATTRIBUTES);
         }
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes " + Arrays.toString(attributeNames))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes", attributeNames, null, null)) {
             AttributeValue[] result = AttributeGetterSetter.getAttributesValues(name, attributeNames, pollingManager, attributeList,
                     aroundInvokeImpl, DevSource.CACHE_DEV, deviceLock, null);
             return result;
@@ -1022,13 +1016,13 @@ public class DeviceImpl extends Device_5POA {
             throws DevFailed {
         // final Profiler profilerPeriod = new Profiler("period");
         // profilerPeriod.start(Arrays.toString(names));
-        xlogger.entry(Arrays.toString(names));
+        xlogger.entry((Object) names);
         pre_attributes(names, clIdent);
         if (names.length == 0) {
             throw DevFailedUtils.newDevFailed(READ_ERROR, READ_ASKED_FOR_0_ATTRIBUTES);
         }
 
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes_4 " + Arrays.toString(names), source, clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes_4", names, source, clIdent)) {
             AttributeValue_4[] result = AttributeGetterSetter.getAttributesValues4(name, names, pollingManager, attributeList,
                     aroundInvokeImpl, source, deviceLock, clIdent);
             xlogger.exit();
@@ -1051,7 +1045,7 @@ public class DeviceImpl extends Device_5POA {
     @Override
     public AttributeValue_5[] read_attributes_5(final String[] names, final DevSource source, final ClntIdent clIdent)
             throws DevFailed {
-        xlogger.entry(Arrays.toString(names));
+        xlogger.entry((Object) names);
         pre_attributes(names, clIdent);
         // final Profiler profiler = new Profiler("read time");
         // profiler.start(Arrays.toString(names));
@@ -1060,7 +1054,7 @@ public class DeviceImpl extends Device_5POA {
             throw DevFailedUtils.newDevFailed(READ_ERROR, READ_ASKED_FOR_0_ATTRIBUTES);
         }
         // profiler.start("blackbox");
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes_5 " + Arrays.toString(names), source, clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_attributes_5", names, source, clIdent)) {
             // profiler.start("locking");
             AttributeValue_5[] result = AttributeGetterSetter.getAttributesValues5(name, names, pollingManager, attributeList,
                     aroundInvokeImpl, source, deviceLock, clIdent);
@@ -1084,10 +1078,9 @@ public class DeviceImpl extends Device_5POA {
 
         final String[] names = Arrays.stream(values).map(attributeValue -> attributeValue.name).toArray(String[]::new);
         pre_attributes(names, null);
-        final Object lock = deviceLock.getAttributeLock();
         logger.debug("writing {}", Arrays.toString(names));
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_attributes")) {
-            synchronized (lock != null ? lock : new Object()) {
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
                 AttributeGetterSetter.setAttributeValue(values, attributeList, stateImpl, aroundInvokeImpl, null);
             }
         } catch (final Exception e) {
@@ -1108,9 +1101,8 @@ public class DeviceImpl extends Device_5POA {
         String[] names = Arrays.stream(values).map(attributeValue -> attributeValue.name).toArray(String[]::new);
         pre_attributes(names, null);
         logger.debug("writing {}", Arrays.toString(names));
-        final Object lock = deviceLock.getAttributeLock();
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_attributes_3")) {
-            synchronized (lock != null ? lock : new Object()) {
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
                 AttributeGetterSetter.setAttributeValue(values, attributeList, stateImpl, aroundInvokeImpl, null);
             }
         } catch (final Exception e) {
@@ -1153,9 +1145,8 @@ public class DeviceImpl extends Device_5POA {
         String[] names = Arrays.stream(values).map(attributeValue_4 -> attributeValue_4.name).toArray(String[]::new);
         pre_attributes(names, clIdent);
         logger.debug("writing {}", Arrays.toString(names));
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_attributes_4 " + Arrays.toString(names), clIdent)) {
-            final Object lock = deviceLock.getAttributeLock();
-            synchronized (lock != null ? lock : new Object()) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_attributes_4", names, null, clIdent)) {
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
                 AttributeGetterSetter.setAttributeValue4(values, attributeList, stateImpl, aroundInvokeImpl, clIdent);
             }
         } catch (final Exception e) {
@@ -1178,10 +1169,9 @@ public class DeviceImpl extends Device_5POA {
         String[] names = Arrays.stream(values).map(attributeValue_4 -> attributeValue_4.name).toArray(String[]::new);
         pre_attributes(names, clIdent);
 
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_attributes_4 " + Arrays.toString(names), clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_attributes_4", names, null, clIdent)) {
         AttributeValue_4[] val = null;
-        final Object lock = deviceLock.getAttributeLock();
-            synchronized (lock != null ? lock : new Object()) {
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
                 val = writeRead(values, names);
             }
             xlogger.exit();
@@ -1206,20 +1196,20 @@ public class DeviceImpl extends Device_5POA {
         String[] names = Arrays.stream(writeValues).map(attributeValue_4 -> attributeValue_4.name).toArray(String[]::new);
         pre_attributes(names, clIdent);
 
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_attributes_5 ", clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_attributes_5",
+                "write_read_attributes_5 ", null, null, clIdent)) {
             AttributeValue_5[] resultValues = null;
-            final Object lock = deviceLock.getAttributeLock();
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_WRITE_READ_ATTRIBUTES,
-                        CallType.CACHE_DEV, clIdent, name));
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockAttributes(false)) {
+                aroundInvokeImpl.aroundInvoke(ContextType.PRE_WRITE_READ_ATTRIBUTES,
+                        CallType.CACHE_DEV, clIdent, name);
                 // write attributes
                 AttributeGetterSetter.setAttributeValue4(writeValues, attributeList, stateImpl, aroundInvokeImpl,
                         clIdent);
                 // read attributes
                 resultValues = AttributeGetterSetter.getAttributesValues5(name, readNames, pollingManager,
                         attributeList, aroundInvokeImpl, DevSource.DEV, deviceLock, clIdent);
-                aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_WRITE_READ_ATTRIBUTES,
-                        CallType.CACHE_DEV, clIdent, name));
+                aroundInvokeImpl.aroundInvoke(ContextType.POST_WRITE_READ_ATTRIBUTES,
+                        CallType.CACHE_DEV, clIdent, name);
                 xlogger.exit();
                 return resultValues;
             }
@@ -1248,8 +1238,8 @@ public class DeviceImpl extends Device_5POA {
      * @throws DevFailed
      */
     private AttributeValue_4[] writeRead(final AttributeValue_4[] values, String[] names) throws DevFailed {
-        aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_WRITE_READ_ATTRIBUTES, CallType.CACHE_DEV,
-                null, name));
+        aroundInvokeImpl.aroundInvoke(ContextType.PRE_WRITE_READ_ATTRIBUTES, CallType.CACHE_DEV,
+                null, name);
         try {
             AttributeGetterSetter.setAttributeValue4(values, attributeList, stateImpl, aroundInvokeImpl, null);
         } catch (final MultiDevFailed e) {
@@ -1257,8 +1247,8 @@ public class DeviceImpl extends Device_5POA {
         }
         final AttributeValue_4[] resultValues = AttributeGetterSetter.getAttributesValues4(name, names, pollingManager,
                 attributeList, aroundInvokeImpl, DevSource.DEV, deviceLock, null);
-        aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_WRITE_READ_ATTRIBUTES, CallType.CACHE_DEV,
-                null, name));
+        aroundInvokeImpl.aroundInvoke(ContextType.POST_WRITE_READ_ATTRIBUTES, CallType.CACHE_DEV,
+                null, name);
         return resultValues;
     }
 
@@ -1341,7 +1331,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         // checkInitialization();
         final DevCmdInfo cmdInfo = new DevCmdInfo();
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_query " + commandName)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_query", commandName, null, null)) {
             final CommandImpl foundCmd = getCommand(commandName);
             cmdInfo.cmd_name = foundCmd.getName();
             cmdInfo.cmd_tag = foundCmd.getTag();
@@ -1366,7 +1356,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         // checkInitialization();
         final DevCmdInfo_2 cmdInfo = new DevCmdInfo_2();
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_query_2 " + commandName)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_query_2", commandName, null, null)) {
             final CommandImpl foundCmd = getCommand(commandName);
             cmdInfo.cmd_name = foundCmd.getName();
             cmdInfo.cmd_tag = foundCmd.getTag();
@@ -1391,7 +1381,7 @@ public class DeviceImpl extends Device_5POA {
     public Any command_inout(final String command, final Any argin) throws DevFailed {
         xlogger.entry(command);
         pre_command_inout(command, null);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout " + command)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout", command, null, null)) {
             Any argout = commandHandler(command, argin, DevSource.CACHE_DEV, null);
             xlogger.exit();
             return argout;
@@ -1413,7 +1403,7 @@ public class DeviceImpl extends Device_5POA {
     public Any command_inout_2(final String command, final Any argin, final DevSource source) throws DevFailed {
         xlogger.entry(command);
         pre_command_inout(command, null);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_2 " + command, source)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_2", command, source, null)) {
             Any argout = commandHandler(command, argin, source, null);
             xlogger.exit();
             return argout;
@@ -1437,8 +1427,8 @@ public class DeviceImpl extends Device_5POA {
                                final ClntIdent clIdent) throws DevFailed {
         xlogger.entry(commandName);
         pre_command_inout(commandName, clIdent);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("Operation command_inout_4 (cmd = " + commandName + ")",
-                source, clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_4",
+                "Operation command_inout_4 (cmd = " + commandName + ")", null, source, clIdent)) {
             Any argout = commandHandler(commandName, argin, source, clIdent);
             xlogger.exit();
             return argout;
@@ -1491,7 +1481,7 @@ public class DeviceImpl extends Device_5POA {
         MDC.setContextMap(contextMap);
         xlogger.entry();
         checkInitialization();
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_history_2 " + commandName)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_history_2", commandName, null, null)) {
             // TODO command_inout_history_2
             // returncommandHistory.get(command).toArray(n)
             return new DevCmdHistory[]{};
@@ -1512,7 +1502,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         checkInitialization();
         final CommandImpl command = getCommand(commandName);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_history_4 " + commandName)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("command_inout_history_4", commandName, null, null)) {
             DevCmdHistory_4 history = command.getHistory().toDevCmdHistory4(maxSize);
             xlogger.exit();
             return history;
@@ -1550,14 +1540,14 @@ public class DeviceImpl extends Device_5POA {
         if (!name.equalsIgnoreCase(ServerManager.getInstance().getAdminDeviceName()) && source.equals(DevSource.CACHE)
                 && !cmd.isPolled()) {
             // command is not polled, so throw exception except for admin device
-            throw DevFailedUtils.newDevFailed(ExceptionMessages.CMD_NOT_POLLED, "Command " + commandName + " not polled");
+            throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.CMD_NOT_POLLED, "Command " + commandName + " not polled");
         }
 
         // Check if the command is allowed
         if (!cmd.getName().equals(STATUS_NAME) && !cmd.getName().equals(STATE_NAME) && !cmd.getName().equals(INIT_CMD)) {
             final DeviceState currentState = DeviceState.getDeviceState(stateImpl.updateState());
             if (!cmd.isAllowed(currentState)) {
-                throw DevFailedUtils.newDevFailed("API_CommandNotAllowed", "Command " + commandName
+                throw DevFailedUtils.newExpectedDevFailed("API_CommandNotAllowed", "Command " + commandName
                         + " not allowed when the device is in " + currentState + " state");
             }
         }
@@ -1569,14 +1559,13 @@ public class DeviceImpl extends Device_5POA {
             ret = pollingManager.getCommandCacheElement(cmd);
         } else {
             logger.debug("execute command {} from DEVICE", cmd.getName());
-            final Object lock = deviceLock.getCommandLock();
-            synchronized (lock != null ? lock : new Object()) {
-                aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_COMMAND, callType, clntIdent,
-                        commandName));
+            try (DeviceLocker.Hold ignoredLock = deviceLock.lockCommand()) {
+                aroundInvokeImpl.aroundInvoke(ContextType.PRE_COMMAND, callType, clntIdent,
+                        commandName);
                 final Object input = CleverAnyCommand.get(inAny, cmd.getInTangoType(), !cmd.isArginPrimitive());
                 ret = cmd.execute(input);
-                aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_COMMAND, callType, clntIdent,
-                        commandName));
+                aroundInvokeImpl.aroundInvoke(ContextType.POST_COMMAND, callType, clntIdent,
+                        commandName);
             }
         }
         stateImpl.stateMachine(cmd.getEndState());
@@ -1598,7 +1587,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(Arrays.toString(attributeNames));
         // checkInitialization();
         AttributeConfig_5[] result;
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_5 " + Arrays.toString(attributeNames))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_5", attributeNames, null, null)) {
             // check if we must retrieve all attributes config
             final int length = attributeNames.length;
             boolean getAllConfig = false;
@@ -1651,7 +1640,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(Arrays.toString(attributeNames));
         // checkInitialization();
         AttributeConfig_3[] result;
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_3 " + Arrays.toString(attributeNames))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_3", attributeNames, null, null)) {
             // check if we must retrieve all attributes config
             final int length = attributeNames.length;
             boolean getAllConfig = false;
@@ -1702,7 +1691,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(Arrays.toString(attributeNames));
         // checkInitialization();
         AttributeConfig_2[] result;
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_2 " + Arrays.toString(attributeNames))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config_2", attributeNames, null, null)) {
             // check if we must retrieve all attributes config
             final int length = attributeNames.length;
             boolean getAllConfig = false;
@@ -1754,7 +1743,7 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         // checkInitialization();
         AttributeConfig[] result;
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config " + Arrays.toString(attributeNames))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_attribute_config", attributeNames, null, null)) {
             // check if we must retrieve all attributes config
             final int length = attributeNames.length;
             boolean getAllConfig = false;
@@ -1796,30 +1785,38 @@ public class DeviceImpl extends Device_5POA {
         pre_command_inout("set_attribute_config_5", clIdent);
 
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("set_attribute_config_5", clIdent)) {
-            for (final AttributeConfig_5 attributeConfig : newConf) {
-                final String attributeName = attributeConfig.name;
+            final AttributePropertiesBatch batch = new AttributePropertiesBatch(name);
+            try {
+                for (final AttributeConfig_5 attributeConfig : newConf) {
+                    final String attributeName = attributeConfig.name;
 
-                final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
-                if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
-                    throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
-                }
-                if (!attribute.getFormat().equals(attributeConfig.data_format)
-                        || !attribute.getWritable().equals(attributeConfig.writable)
-                        || !attribute.getDispLevel().equals(attributeConfig.level)
-                        || attribute.getTangoType() != attributeConfig.data_type) {
-                    throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, "not a good config");
-                }
+                    final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
+                    if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
+                        throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
+                    }
+                    if (!attribute.getFormat().equals(attributeConfig.data_format)
+                            || !attribute.getWritable().equals(attributeConfig.writable)
+                            || !attribute.getDispLevel().equals(attributeConfig.level)
+                            || attribute.getTangoType() != attributeConfig.data_type) {
+                        throw DevFailedUtils.newExpectedDevFailed(NOT_A_GOOD_CONFIG);
+                    }
 
-                final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
-                logger.debug("set_attribute_config_5: {}", props);
-                if (!attribute.getProperties().isEnumMutable()
-                        && !Arrays.equals(attribute.getProperties().getEnumLabels(), props.getEnumLabels())) {
-                    throw DevFailedUtils
-                            .newDevFailed(ExceptionMessages.NOT_SUPPORTED_FEATURE,
-                                    "It's not supported to change enumeration labels number from outside the Tango device class code");
+                    final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
+                    logger.debug("set_attribute_config_5: {}", props);
+                    if (!attribute.getProperties().isEnumMutable()
+                            && !Arrays.equals(attribute.getProperties().getEnumLabels(), props.getEnumLabels())) {
+                        throw DevFailedUtils
+                                .newDevFailed(ExceptionMessages.NOT_SUPPORTED_FEATURE,
+                                        "It's not supported to change enumeration labels number from outside the Tango device class code");
+                    }
+                    attribute.setProperties(props, batch);
                 }
-                attribute.setProperties(props);
+            } catch (final DevFailed e) {
+                // persist the configurations applied before the error, without hiding it
+                persist(batch, e);
+                throw e;
             }
+            batch.persist();
         }
         xlogger.exit();
     }
@@ -1852,23 +1849,31 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         checkInitialization();
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("set_attribute_config_3")) {
-            for (final AttributeConfig_3 attributeConfig : newConf) {
-                final String attributeName = attributeConfig.name;
+            final AttributePropertiesBatch batch = new AttributePropertiesBatch(name);
+            try {
+                for (final AttributeConfig_3 attributeConfig : newConf) {
+                    final String attributeName = attributeConfig.name;
 
-                final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
-                if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
-                    throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
-                }
-                if (!attribute.getFormat().equals(attributeConfig.data_format)
-                        || !attribute.getWritable().equals(attributeConfig.writable)
-                        || !attribute.getDispLevel().equals(attributeConfig.level)
-                        || attribute.getTangoType() != attributeConfig.data_type) {
-                    throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, "not a good config");
+                    final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
+                    if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
+                        throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
+                    }
+                    if (!attribute.getFormat().equals(attributeConfig.data_format)
+                            || !attribute.getWritable().equals(attributeConfig.writable)
+                            || !attribute.getDispLevel().equals(attributeConfig.level)
+                            || attribute.getTangoType() != attributeConfig.data_type) {
+                        throw DevFailedUtils.newExpectedDevFailed(NOT_A_GOOD_CONFIG);
+                    }
+                    final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
+                    logger.debug("set_attribute_config_3: {}", props);
+                    attribute.setProperties(props, batch);
                 }
-                final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
-                logger.debug("set_attribute_config_3: {}", props);
-                attribute.setProperties(props);
+            } catch (final DevFailed e) {
+                // persist the configurations applied before the error, without hiding it
+                persist(batch, e);
+                throw e;
             }
+            batch.persist();
         }
         xlogger.exit();
     }
@@ -1885,25 +1890,52 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry();
         checkInitialization();
         try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("set_attribute_config")) {
-            for (final AttributeConfig attributeConfig : newConf) {
-                final String attributeName = attributeConfig.name;
-                final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
-                if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
-                    throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
-                }
-                if (!attribute.getFormat().equals(attributeConfig.data_format)
-                        || !attribute.getWritable().equals(attributeConfig.writable)
-                        || attribute.getTangoType() != attributeConfig.data_type) {
-                    throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_ALLOWED, "not a good config");
+            final AttributePropertiesBatch batch = new AttributePropertiesBatch(name);
+            try {
+                for (final AttributeConfig attributeConfig : newConf) {
+                    final String attributeName = attributeConfig.name;
+                    final AttributeImpl attribute = AttributeGetterSetter.getAttribute(attributeName, attributeList);
+                    if (attribute.getName().equals(STATE_NAME) || attribute.getName().equals(STATUS_NAME)) {
+                        throw DevFailedUtils.newDevFailed("set attribute is not possible for " + attribute.getName());
+                    }
+                    if (!attribute.getFormat().equals(attributeConfig.data_format)
+                            || !attribute.getWritable().equals(attributeConfig.writable)
+                            || attribute.getTangoType() != attributeConfig.data_type) {
+                        throw DevFailedUtils.newExpectedDevFailed(NOT_A_GOOD_CONFIG);
+                    }
+                    final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
+                    logger.debug("set_attribute_config: {}", props);
+                    attribute.setProperties(props, batch);
                 }
-                final AttributePropertiesImpl props = TangoIDLAttributeUtil.toAttributeProperties(attributeConfig);
-                logger.debug("set_attribute_config: {}", props);
-                attribute.setProperties(props);
+            } catch (final DevFailed e) {
+                // persist the configurations applied before the error, without hiding it
+                persist(batch, e);
+                throw e;
             }
+            batch.persist();
         }
         xlogger.exit();
     }
 
+    /**
+     * Persist the attribute configurations applied before an error. A failure is logged and its errors are
+     * appended to the ones of the request, so that the client gets both.
+     *
+     * @param batch the batch of the configurations
+     * @param error the error of the request
+     */
+    private void persist(final AttributePropertiesBatch batch, final DevFailed error) {
+        try {
+            batch.persist();
+        } catch (final DevFailed e) {
+            logger.error("failed to persist the attribute configurations of {}: {}", name,
+                    DevFailedUtils.toString(e));
+            final DevError[] errors = Arrays.copyOf(error.errors, error.errors.length + e.errors.length);
+            System.arraycopy(e.errors, 0, errors, error.errors.length, e.errors.length);
+            error.errors = errors;
+        }
+    }
+
     /**
      * Get a copy of the commands
      *
@@ -1920,14 +1952,7 @@ public class DeviceImpl extends Device_5POA {
      * @throws DevFailed
      */
     public synchronized void addCommand(final CommandImpl command) throws DevFailed {
-        CommandImpl result = null;
-        for (final CommandImpl cmd : commandList) {
-            if (command.getName().equalsIgnoreCase(cmd.getName())) {
-                result = command;
-                break;
-            }
-        }
-        if (result == null) {
+        if (commandList.get(command.getName()) == null) {
             commandList.add(command);
             // set default polling configuration
             if (cmdPollRingDepth.containsKey(command.getName().toLowerCase(Locale.ENGLISH))) {
@@ -2315,6 +2340,14 @@ public class DeviceImpl extends Device_5POA {
         return command.getHistory().size();
     }
 
+    /**
+     * @param attribute a polled attribute
+     * @return the batch that polls the attribute, or null if it is not polled in a batch
+     */
+    public PollingBatch getPollingBatch(final AttributeImpl attribute) {
+        return pollingManager == null ? null : pollingManager.getPollingBatch(attribute);
+    }
+
     public ClntIdent getClientIdentity() {
         return clientIdentity.get();
     }
@@ -2344,7 +2377,7 @@ public class DeviceImpl extends Device_5POA {
                 result = fwdAttr.getAttributeHistory(maxSize);
             } else {
                 if (!attr.isPolled()) {
-                    throw DevFailedUtils.newDevFailed(ExceptionMessages.ATTR_NOT_POLLED, attr.getName()
+                    throw DevFailedUtils.newExpectedDevFailed(ExceptionMessages.ATTR_NOT_POLLED, attr.getName()
                             + " is not polled");
                 }
                 result = attr.getHistory().getAttrHistory5(maxSize);
@@ -2358,10 +2391,10 @@ public class DeviceImpl extends Device_5POA {
 
     @Override
     public PipeConfig[] get_pipe_config_5(final String[] names) throws DevFailed {
-        xlogger.entry(Arrays.toString(names));
+        xlogger.entry((Object) names);
         // checkInitialization();
         PipeConfig[] result;
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_pipe_config_5 " + Arrays.toString(names))) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("get_pipe_config_5", names, null, null)) {
             // check if we must retrieve all attributes config
             final int length = names.length;
             boolean getAllConfig = false;
@@ -2412,14 +2445,14 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(name);
         final PipeImpl pipe = getPipe(name, pipeList);
         clientIdentity.set(clIdent);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_pipe_5 " + name, clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("read_pipe_5", name, null, clIdent)) {
             DevPipeData result = null;
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_PIPE_READ, CallType.UNKNOWN, clIdent,
-                    pipe.getName()));
+            aroundInvokeImpl.aroundInvoke(ContextType.PRE_PIPE_READ, CallType.UNKNOWN, clIdent,
+                    pipe.getName());
             pipe.updateValue();
             result = TangoIDLUtil.toDevPipeData(pipe.getName(), pipe.getReadValue());
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_PIPE_READ, CallType.UNKNOWN, clIdent,
-                    pipe.getName()));
+            aroundInvokeImpl.aroundInvoke(ContextType.POST_PIPE_READ, CallType.UNKNOWN, clIdent,
+                    pipe.getName());
             xlogger.exit();
             return result;
         } catch (final Exception e) {
@@ -2433,12 +2466,12 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(value.name);
         final PipeImpl pipe = getPipe(value.name, pipeList);
         clientIdentity.set(clIdent);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_pipe_5 " + value.name, clIdent)) {
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_PIPE_WRITE, CallType.UNKNOWN, clIdent,
-                    pipe.getName()));
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_pipe_5", value.name, null, clIdent)) {
+            aroundInvokeImpl.aroundInvoke(ContextType.PRE_PIPE_WRITE, CallType.UNKNOWN, clIdent,
+                    pipe.getName());
             pipe.setValue(TangoIDLUtil.toPipeValue(value));
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_PIPE_WRITE, CallType.UNKNOWN, clIdent,
-                    pipe.getName()));
+            aroundInvokeImpl.aroundInvoke(ContextType.POST_PIPE_WRITE, CallType.UNKNOWN, clIdent,
+                    pipe.getName());
         } catch (final Exception e) {
             throw handleException(e);
         }
@@ -2451,15 +2484,15 @@ public class DeviceImpl extends Device_5POA {
         xlogger.entry(name);
         final PipeImpl pipe = getPipe(name, pipeList);
         clientIdentity.set(clIdent);
-        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_pipe_5 " + name, clIdent)) {
+        try (DeviceMonitoring.Request ignored = deviceMonitoring.startRequest("write_read_pipe_5", name, null, clIdent)) {
             DevPipeData result = null;
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.PRE_PIPE_WRITE_READ, CallType.UNKNOWN,
-                    clIdent, pipe.getName()));
+            aroundInvokeImpl.aroundInvoke(ContextType.PRE_PIPE_WRITE_READ, CallType.UNKNOWN,
+                    clIdent, pipe.getName());
             pipe.setValue(TangoIDLUtil.toPipeValue(value));
             pipe.updateValue();
             result = TangoIDLUtil.toDevPipeData(pipe.getName(), pipe.getReadValue());
-            aroundInvokeImpl.aroundInvoke(new InvocationContext(ContextType.POST_PIPE_WRITE_READ, CallType.UNKNOWN,
-                    clIdent, pipe.getName()));
+            aroundInvokeImpl.aroundInvoke(ContextType.POST_PIPE_WRITE_READ, CallType.UNKNOWN,
+                    clIdent, pipe.getName());
             xlogger.exit();
             return result;
         } catch (final Exception e) {
@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.servant;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A list of attributes, commands or pipes, indexed by their case insensitive name. The index is kept in sync with
+ * all modifications of the list. As with a linear search, the first element of a name is found.
+ *
+ * @param <E> the type of elements
+ */
+final class NamedList<E> extends AbstractList<E> {
+
+    private final List<E> elements = new ArrayList<E>();
+    private final Map<String, E> index = new ConcurrentHashMap<String, E>();
+    private final Function<E, String> nameGetter;
+
+    NamedList(final Function<E, String> nameGetter) {
+        this.nameGetter = nameGetter;
+    }
+
+    /**
+     * Get an element by its name
+     *
+     * @param name the name, case insensitive
+     * @return the element, null if not found
+     */
+    E get(final String name) {
+        return name == null ? null : index.get(name.toLowerCase(Locale.ENGLISH));
+    }
+
+    @Override
+    public E get(final int i) {
+        return elements.get(i);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void add(final int i, final E element) {
+        elements.add(i, element);
+        index.putIfAbsent(getKey(element), element);
+    }
+
+    @Override
+    public E set(final int i, final E element) {
+        final E previous = elements.set(i, element);
+        unindex(previous);
+        index.putIfAbsent(getKey(element), element);
+        return previous;
+    }
+
+    @Override
+    public E remove(final int i) {
+        final E previous = elements.remove(i);
+        unindex(previous);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        index.clear();
+    }
+
+    private void unindex(final E element) {
+        final String key = getKey(element);
+        if (index.get(key) != element) {
+            return;
+        }
+        // another element may have the same name
+        final E replacement = elements.stream().filter(e -> getKey(e).equals(key)).findFirst().orElse(null);
+        if (replacement == null) {
+            index.remove(key);
+        } else {
+            index.put(key, replacement);
+        }
+    }
+
+    private String getKey(final E element) {
+        return nameGetter.apply(element).toLowerCase(Locale.ENGLISH);
+    }
+}
@@ -768,6 +768,11 @@ public final class JTangoTest {
         return 0;
     }
 
+    @Attribute(concurrentRead = true)
+    public String getReadingThread() {
+        return Thread.currentThread().getName();
+    }
+
     @Command
     public void fillHistory() throws DevFailed {
         AttributeValue[] values = new AttributeValue[3];
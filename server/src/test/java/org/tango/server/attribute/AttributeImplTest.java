@@ -0,0 +1,168 @@
+package org.tango.server.attribute;
+
+import fr.esrf.Tango.AttrQuality;
+import fr.esrf.Tango.AttrWriteType;
+import fr.esrf.Tango.AttributeValue_5;
+import fr.esrf.Tango.DevFailed;
+import org.junit.Before;
+import org.junit.Test;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.StateMachineBehavior;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class AttributeImplTest {
+
+    private AttributeImpl spectrum;
+    private AttributeImpl image;
+
+    private static AttributeImpl newAttribute(final String name, final Class<?> type) throws DevFailed {
+        return newAttribute(name, type, false);
+    }
+
+    private static AttributeImpl newAttribute(final String name, final Class<?> type, final boolean memorized)
+            throws DevFailed {
+        final AttributeConfiguration config = new AttributeConfiguration();
+        config.setName(name);
+        config.setType(type);
+        if (memorized) {
+            config.setWritable(AttrWriteType.READ_WRITE);
+            config.setMemorized(true);
+            config.setMemorizedAtInit(false);
+        }
+        config.setMaxX(100);
+        config.setMaxY(100);
+        return new AttributeImpl(new IAttributeBehavior() {
+            @Override
+            public AttributeConfiguration getConfiguration() {
+                return config;
+            }
+
+            @Override
+            public AttributeValue getValue() {
+                return null;
+            }
+
+            @Override
+            public void setValue(final AttributeValue value) {
+            }
+
+            @Override
+            public StateMachineBehavior getStateMachine() {
+                return null;
+            }
+        }, "test/attribute/impl");
+    }
+
+    @Before
+    public void setUp() throws DevFailed {
+        spectrum = newAttribute("spectrum", double[].class);
+        image = newAttribute("image", int[][].class);
+    }
+
+    @Test
+    public void updateValueCopiesSpectrum() throws DevFailed {
+        final double[] array = new double[]{1.0, 2.0};
+        spectrum.updateValue(new AttributeValue(array));
+        array[0] = 10.0;
+
+        assertNotSame(array, spectrum.getReadValue().getValue());
+        assertArrayEquals(new double[]{1.0, 2.0}, (double[]) spectrum.getReadValue().getValue(), 0);
+    }
+
+    @Test
+    public void updateValueKeepsHandedOverSpectrum() throws DevFailed {
+        final double[] array = new double[]{1.0, 2.0};
+        final AttributeValue value = new AttributeValue(array);
+        value.setNoCopy(true);
+        spectrum.updateValue(value);
+
+        assertSame(array, spectrum.getReadValue().getValue());
+    }
+
+    @Test
+    public void updateValueFlattensImage() throws DevFailed {
+        image.updateValue(new AttributeValue(new int[][]{{1, 2, 3}, {4, 5, 6}}));
+
+        final AttributeValue readValue = image.getReadValue();
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, (int[]) readValue.getValue());
+        assertEquals(3, readValue.getXDim());
+        assertEquals(2, readValue.getYDim());
+    }
+
+    @Test(expected = DevFailed.class)
+    public void updateValueChecksType() throws DevFailed {
+        spectrum.updateValue(new AttributeValue(new int[]{1, 2}));
+    }
+
+    @Test
+    public void updateValueAcceptsBoxedArray() throws DevFailed {
+        spectrum.updateValue(new AttributeValue(new Double[]{1.0, 2.0}));
+
+        assertArrayEquals(new double[]{1.0, 2.0}, spectrum.getReadValue5().value.double_att_value(), 0);
+    }
+
+    @Test
+    public void memorizesImage() throws DevFailed {
+        DatabaseFactory.setNoDbDevices(new String[]{"test/attribute/impl"}, "AttributeImpl");
+        final AttributeImpl memorized = newAttribute("memorizedImage", int[][].class, true);
+        memorized.setValue(new AttributeValue(new int[]{1, 2, 3, 4, 5, 6}, AttrQuality.ATTR_VALID, 3, 2));
+
+        final AttributeImpl restored = newAttribute("memorizedImage", int[][].class, true);
+        restored.loadTangoDbConfig();
+
+        final AttributeValue writeValue = restored.getWriteValue();
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6}, (int[]) writeValue.getValue());
+        assertEquals(3, writeValue.getXDim());
+        assertEquals(2, writeValue.getYDim());
+    }
+
+    @Test
+    public void memorizesEmptySpectrum() throws DevFailed {
+        DatabaseFactory.setNoDbDevices(new String[]{"test/attribute/impl"}, "AttributeImpl");
+        final AttributeImpl memorized = newAttribute("memorizedSpectrum", double[].class, true);
+        memorized.setValue(new AttributeValue(new double[]{1.0, 2.0}));
+        memorized.setValue(new AttributeValue(new double[0]));
+
+        final AttributeImpl restored = newAttribute("memorizedSpectrum", double[].class, true);
+        restored.loadTangoDbConfig();
+
+        assertArrayEquals(new double[0], (double[]) restored.getWriteValue().getValue(), 0);
+    }
+
+    @Test
+    public void readValue5IsConvertedOncePerValue() throws DevFailed {
+        spectrum.updateValue(new AttributeValue(new double[]{1.0, 2.0}));
+        final AttributeValue_5 first = spectrum.getReadValue5();
+
+        assertSame(first, spectrum.getReadValue5());
+        assertEquals(2, first.r_dim.dim_x);
+
+        spectrum.updateValue(new AttributeValue(new double[]{3.0}));
+        final AttributeValue_5 second = spectrum.getReadValue5();
+
+        assertNotSame(first, second);
+        assertArrayEquals(new double[]{3.0}, second.value.double_att_value(), 0);
+    }
+
+    @Test
+    public void polledValue5IsConvertedOncePerItem() throws DevFailed {
+        spectrum.updateValue(new AttributeValue(new double[]{1.0, 2.0}));
+        spectrum.addToHistory();
+        final AttributeValue_5 first = spectrum.getHistory().getLastReadValue5(spectrum);
+
+        assertSame(first, spectrum.getHistory().getLastReadValue5(spectrum));
+        assertArrayEquals(new double[]{1.0, 2.0}, first.value.double_att_value(), 0);
+        assertSame(spectrum.getHistory().getLastReadValue4(spectrum),
+                spectrum.getHistory().getLastReadValue4(spectrum));
+
+        spectrum.updateValue(new AttributeValue(new double[]{3.0}));
+        spectrum.addToHistory();
+
+        assertArrayEquals(new double[]{3.0},
+                spectrum.getHistory().getLastReadValue5(spectrum).value.double_att_value(), 0);
+    }
+}
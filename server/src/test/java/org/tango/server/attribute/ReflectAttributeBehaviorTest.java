@@ -0,0 +1,60 @@
+package org.tango.server.attribute;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Test;
+import org.tango.utils.DevFailedUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class ReflectAttributeBehaviorTest {
+
+    private static final DevFailed FAILURE = DevFailedUtils.newDevFailed("FAILURE", "from the device");
+
+    public static final class Device {
+        public int getFailing() throws DevFailed {
+            throw FAILURE;
+        }
+
+        public int getBroken() {
+            throw new AssertionError("broken");
+        }
+
+        public int getBuggy() {
+            throw new IllegalStateException("bug");
+        }
+    }
+
+    private static ReflectAttributeBehavior newBehavior(final String getter) throws Exception {
+        final AttributeConfiguration config = new AttributeConfiguration();
+        config.setName(getter);
+        config.setType(int.class);
+        return new ReflectAttributeBehavior(config, new Device(), Device.class.getMethod(getter), null);
+    }
+
+    @Test
+    public void deviceErrorIsNotWrapped() throws Exception {
+        try {
+            newBehavior("getFailing").getValue();
+            fail();
+        } catch (final DevFailed e) {
+            assertSame(FAILURE, e);
+        }
+    }
+
+    @Test(expected = AssertionError.class)
+    public void errorIsRethrown() throws Exception {
+        newBehavior("getBroken").getValue();
+    }
+
+    @Test
+    public void exceptionIsWrapped() throws Exception {
+        try {
+            newBehavior("getBuggy").getValue();
+            fail();
+        } catch (final DevFailed e) {
+            assertEquals("bug", e.errors[0].desc);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.tango.server.build;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Test;
+import org.tango.server.MethodHandleUtils;
+import org.tango.server.annotation.Attribute;
+import org.tango.server.annotation.Device;
+import org.tango.server.annotation.DeviceProperty;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DeviceBlueprintTest {
+
+    @Test
+    public void blueprintIsComputedOncePerClass() throws DevFailed {
+        assertSame(DeviceBlueprint.of(Blueprinted.class), DeviceBlueprint.of(Blueprinted.class));
+    }
+
+    @Test
+    public void accessorsAreResolved() throws DevFailed, NoSuchFieldException, NoSuchMethodException {
+        final DeviceBlueprint blueprint = DeviceBlueprint.of(Blueprinted.class);
+
+        final Accessors field = blueprint.getAccessors(Blueprinted.class.getDeclaredField("counter"));
+        assertEquals(Blueprinted.class.getMethod("getCounter"), field.getGetter());
+        assertEquals(Blueprinted.class.getMethod("setCounter", int.class), field.getSetter());
+
+        final Accessors method = blueprint.getAccessors(Blueprinted.class.getMethod("getLabel"));
+        assertEquals("label", method.getFieldName());
+        assertNull(method.getSetter());
+
+        assertEquals(Blueprinted.class.getMethod("setAddress", String.class),
+                blueprint.getPropertySetter(Blueprinted.class.getDeclaredField("address")));
+    }
+
+    @Test(expected = DevFailed.class)
+    public void missingAccessorsFail() throws DevFailed {
+        DeviceBlueprint.of(NoAccessors.class);
+    }
+
+    @Test
+    public void handlesAreBoundPerDevice() throws Throwable {
+        final Blueprinted first = new Blueprinted();
+        final Blueprinted second = new Blueprinted();
+        first.setCounter(1);
+        second.setCounter(2);
+        final MethodType type = MethodType.methodType(Object.class);
+        final MethodHandle firstGetter = MethodHandleUtils.bind(Blueprinted.class.getMethod("getCounter"), first,
+                type);
+        final MethodHandle secondGetter = MethodHandleUtils.bind(Blueprinted.class.getMethod("getCounter"), second,
+                type);
+
+        assertEquals(1, firstGetter.invoke());
+        assertEquals(2, secondGetter.invoke());
+    }
+
+    @Device
+    public static final class Blueprinted {
+
+        @Attribute
+        private int counter;
+
+        @DeviceProperty
+        private String address;
+
+        public int getCounter() {
+            return counter;
+        }
+
+        public void setCounter(final int counter) {
+            this.counter = counter;
+        }
+
+        @Attribute
+        public String getLabel() {
+            return "label";
+        }
+
+        public void setAddress(final String address) {
+            this.address = address;
+        }
+    }
+
+    @Device
+    public static final class NoAccessors {
+
+        @Attribute
+        private int hidden;
+    }
+}
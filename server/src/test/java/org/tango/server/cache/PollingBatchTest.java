@@ -0,0 +1,137 @@
+package org.tango.server.cache;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Before;
+import org.junit.Test;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.Constants;
+import org.tango.server.InvocationContext;
+import org.tango.server.StateMachineBehavior;
+import org.tango.server.annotation.TransactionType;
+import org.tango.server.attribute.AttributeConfiguration;
+import org.tango.server.attribute.AttributeImpl;
+import org.tango.server.attribute.AttributeValue;
+import org.tango.server.attribute.IAttributeBehavior;
+import org.tango.server.device.AroundInvokeImpl;
+import org.tango.server.device.DeviceLocker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PollingBatchTest {
+
+    private static final String DEVICE = "test/polling/batch";
+    private static final int PERIOD = 3600000;
+
+    private final DeviceLocker locker = new DeviceLocker(TransactionType.NONE, PollingBatchTest.class);
+    private final Recorder recorder = new Recorder();
+    private final AroundInvokeImpl aroundInvoke;
+
+    public PollingBatchTest() throws NoSuchMethodException {
+        aroundInvoke = new AroundInvokeImpl(recorder, Recorder.class.getMethod("aroundInvoke",
+                InvocationContext.class));
+    }
+
+    @Before
+    public void setUp() {
+        DatabaseFactory.setNoDbDevices(new String[]{DEVICE}, "PollingBatch");
+    }
+
+    public static final class Recorder {
+        private final List<String> calls = new ArrayList<String>();
+
+        public synchronized void aroundInvoke(final InvocationContext ctx) {
+            calls.add(ctx.getContext() + " " + Arrays.toString(ctx.getNames()));
+        }
+
+        private synchronized List<String> getCalls() {
+            return new ArrayList<String>(calls);
+        }
+    }
+
+    private static AttributeImpl newAttribute(final String name, final AtomicInteger reads) throws DevFailed {
+        final AttributeConfiguration config = new AttributeConfiguration();
+        config.setName(name);
+        config.setType(int.class);
+        final AttributeImpl attribute = new AttributeImpl(new IAttributeBehavior() {
+            @Override
+            public AttributeConfiguration getConfiguration() {
+                return config;
+            }
+
+            @Override
+            public AttributeValue getValue() throws DevFailed {
+                return new AttributeValue(reads.incrementAndGet());
+            }
+
+            @Override
+            public void setValue(final AttributeValue value) {
+            }
+
+            @Override
+            public StateMachineBehavior getStateMachine() {
+                return null;
+            }
+        }, DEVICE);
+        attribute.configurePolling(PERIOD);
+        return attribute;
+    }
+
+    @Test
+    public void readsEachAttributeOncePerTick() throws DevFailed {
+        final AtomicInteger firstReads = new AtomicInteger();
+        final AtomicInteger secondReads = new AtomicInteger();
+        final PollingBatch batch = new PollingBatch(PERIOD, locker, aroundInvoke);
+        batch.add(new AttributeCacheEntryFactory(newAttribute("first", firstReads), locker, DEVICE, aroundInvoke));
+        batch.add(new AttributeCacheEntryFactory(newAttribute("second", secondReads), locker, DEVICE, aroundInvoke));
+
+        batch.run();
+        batch.run();
+
+        assertEquals(2, batch.getTicks());
+        assertEquals(2, firstReads.get());
+        assertEquals(2, secondReads.get());
+        // the hooks are called like with read_attributes
+        final List<String> tick = Arrays.asList("PRE_READ_ATTRIBUTES [first, second]",
+                "PRE_READ_ATTRIBUTE [first]", "POST_READ_ATTRIBUTE [first]",
+                "PRE_READ_ATTRIBUTE [second]", "POST_READ_ATTRIBUTE [second]",
+                "POST_READ_ATTRIBUTES [first, second]");
+        final List<String> expected = new ArrayList<String>(tick);
+        expected.addAll(tick);
+        assertEquals(expected, recorder.getCalls());
+    }
+
+    @Test
+    public void attributesWithSamePeriodShareBatch() throws DevFailed {
+        final TangoCacheManager cacheManager;
+        System.setProperty(Constants.BATCHED_POLLING_PROPERTY, "true");
+        try {
+            cacheManager = new TangoCacheManager(DEVICE, locker, aroundInvoke);
+        } finally {
+            System.clearProperty(Constants.BATCHED_POLLING_PROPERTY);
+        }
+        final AttributeImpl first = newAttribute("first", new AtomicInteger());
+        final AttributeImpl second = newAttribute("second", new AtomicInteger());
+        final AttributeImpl other = newAttribute("other", new AtomicInteger());
+        other.configurePolling(PERIOD / 2);
+        try {
+            cacheManager.startAttributePolling(first);
+            cacheManager.startAttributePolling(second);
+            cacheManager.startAttributePolling(other);
+
+            final PollingBatch batch = cacheManager.getPollingBatch(first);
+            assertSame(batch, cacheManager.getPollingBatch(second));
+            assertEquals(2, batch.size());
+            assertNotSame(batch, cacheManager.getPollingBatch(other));
+            assertEquals(1, cacheManager.getPollingBatch(other).size());
+        } finally {
+            cacheManager.removeAll();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.tango.server.cache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class PollingRingTest {
+
+    @Test
+    public void keepLastElements() {
+        final PollingRing<Integer> ring = new PollingRing<Integer>(3);
+        assertNull(ring.getLast());
+        assertThat(ring.toList(10), equalTo(Collections.<Integer>emptyList()));
+        for (int i = 0; i < 5; i++) {
+            ring.add(i);
+        }
+        assertThat(ring.size(), equalTo(3));
+        assertThat(ring.getLast(), equalTo(4));
+        assertThat(ring.toList(10), equalTo(Arrays.asList(2, 3, 4)));
+        assertThat(ring.toList(2), equalTo(Arrays.asList(3, 4)));
+    }
+
+    @Test
+    public void resize() {
+        final PollingRing<Integer> ring = new PollingRing<Integer>(5);
+        for (int i = 0; i < 5; i++) {
+            ring.add(i);
+        }
+        ring.setCapacity(2);
+        assertThat(ring.toList(10), equalTo(Arrays.asList(3, 4)));
+        ring.setCapacity(4);
+        ring.add(5);
+        assertThat(ring.toList(10), equalTo(Arrays.asList(3, 4, 5)));
+        assertThat(ring.getCapacity(), equalTo(4));
+        ring.clear();
+        assertNull(ring.getLast());
+        assertThat(ring.size(), equalTo(0));
+    }
+}
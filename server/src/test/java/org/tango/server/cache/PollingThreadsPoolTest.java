@@ -0,0 +1,48 @@
+package org.tango.server.cache;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
+import static org.hamcrest.core.IsSame.sameInstance;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PollingThreadsPoolTest {
+
+    private final PollingThreadsPool pool = new PollingThreadsPool(1);
+
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void configuredGroups() {
+        pool.setConfiguration(new String[] { "test/dev/1, Test/Dev/2", "test/dev/3" });
+        assertFalse(pool.isAssigned("test/dev/1"));
+        final ScheduledExecutorService first = pool.getExecutor("test/dev/1");
+        assertTrue(pool.isAssigned("test/dev/1"));
+        assertThat(pool.getExecutor("test/dev/2"), sameInstance(first));
+        assertThat(pool.getExecutor("test/dev/3"), not(sameInstance(first)));
+        assertThat(pool.getConfiguration(), equalTo(new String[] { "test/dev/1,test/dev/2", "test/dev/3" }));
+    }
+
+    @Test
+    public void maxThreads() {
+        final ScheduledExecutorService first = pool.getExecutor("test/dev/1");
+        assertThat(pool.getExecutor("test/dev/2"), sameInstance(first));
+        pool.setMaxThreads(2);
+        final ScheduledExecutorService second = pool.getExecutor("test/dev/3");
+        assertThat(second, not(sameInstance(first)));
+        // the least loaded thread
+        assertThat(pool.getExecutor("test/dev/4"), sameInstance(second));
+        assertThat(pool.getExecutor("test/dev/1"), sameInstance(first));
+        assertThat(pool.getDevices(), equalTo(Arrays.asList("test/dev/1", "test/dev/2", "test/dev/3", "test/dev/4")));
+    }
+}
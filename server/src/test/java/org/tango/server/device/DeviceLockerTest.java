@@ -0,0 +1,94 @@
+package org.tango.server.device;
+
+import org.junit.Test;
+import org.tango.server.annotation.TransactionType;
+import org.tango.server.monitoring.DeviceMonitoring;
+import org.tango.server.monitoring.TangoStats;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeviceLockerTest {
+
+    private static boolean lockFromOtherThread(final DeviceLocker locker, final boolean shared) throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> future = executor.submit(() -> {
+                try (DeviceLocker.Hold ignored = locker.lockAttributes(shared)) {
+                    // locked
+                }
+            });
+            try {
+                future.get(200, TimeUnit.MILLISECONDS);
+                return true;
+            } catch (final TimeoutException e) {
+                return false;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void readWriteSharesReads() throws Exception {
+        final DeviceLocker locker = new DeviceLocker(TransactionType.READ_WRITE, DeviceLockerTest.class);
+        try (DeviceLocker.Hold ignored = locker.lockAttributes(true)) {
+            assertTrue(lockFromOtherThread(locker, true));
+            if (lockFromOtherThread(locker, false)) {
+                fail("write lock taken during a read");
+            }
+        }
+    }
+
+    @Test
+    public void readWriteCommandIsExclusive() throws Exception {
+        final DeviceLocker locker = new DeviceLocker(TransactionType.READ_WRITE, DeviceLockerTest.class);
+        try (DeviceLocker.Hold ignored = locker.lockCommand()) {
+            if (lockFromOtherThread(locker, true)) {
+                fail("read lock taken during a command");
+            }
+        }
+        assertTrue(lockFromOtherThread(locker, true));
+    }
+
+    @Test
+    public void deviceReadsAreExclusive() throws Exception {
+        final DeviceLocker locker = new DeviceLocker(TransactionType.DEVICE, DeviceLockerTest.class);
+        try (DeviceLocker.Hold ignored = locker.lockAttributes(true)) {
+            if (lockFromOtherThread(locker, true)) {
+                fail("device lock shared");
+            }
+        }
+    }
+
+    @Test
+    public void noneDoesNotLock() throws Exception {
+        final DeviceLocker locker = new DeviceLocker(TransactionType.NONE, DeviceLockerTest.class);
+        try (DeviceLocker.Hold ignored = locker.lockCommand()) {
+            assertTrue(lockFromOtherThread(locker, false));
+        }
+    }
+
+    @Test
+    public void lockWaitIsMonitored() {
+        final String deviceName = "test/locker/wait";
+        final DeviceLocker locker = new DeviceLocker(TransactionType.READ_WRITE, DeviceLockerTest.class,
+                new DeviceMonitoring(deviceName));
+        try (DeviceLocker.Hold ignored = locker.lockAttributes(true)) {
+            // locked
+        }
+        try (DeviceLocker.Hold ignored = locker.lockCommand()) {
+            // locked
+        }
+        final String percentiles = Arrays.toString(TangoStats.getInstance().getDeviceRequestDurationPercentiles());
+        assertTrue(percentiles, percentiles.contains(deviceName + " lock_wait_shared"));
+        assertTrue(percentiles, percentiles.contains(deviceName + " lock_wait_exclusive"));
+    }
+}
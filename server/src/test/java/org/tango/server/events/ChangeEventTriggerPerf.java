@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) :     2012
+ *
+ * 	Synchrotron Soleil
+ * 	L'Orme des merisiers
+ * 	Saint Aubin
+ * 	BP48
+ * 	91192 GIF-SUR-YVETTE CEDEX
+ *
+ * This file is part of Tango.
+ *
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import java.util.Arrays;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.tango.utils.ArrayUtils;
+
+/**
+ * Change detection on an unchanged 100k elements double spectrum: primitive comparison versus the previous
+ * conversion of both arrays to String. And on a 4M elements image with small changes below the criteria.
+ */
+public class ChangeEventTriggerPerf {
+
+    private static final int LENGTH = 100000;
+    private static final int IMAGE_LENGTH = 2048 * 2048;
+
+    @Rule
+    public ContiPerfRule i = new ContiPerfRule();
+
+    private final double[] value = new double[LENGTH];
+    private final double[] previous = new double[LENGTH];
+    private final float[] image = new float[IMAGE_LENGTH];
+    private final float[] previousImage = new float[IMAGE_LENGTH];
+    private final NumberChangeDetector detector = new NumberChangeDetector();
+
+    public ChangeEventTriggerPerf() {
+        Arrays.fill(value, 1.5);
+        Arrays.fill(previous, 1.5);
+        detector.setCriteria("0.1", "1");
+        for (int j = 0; j < IMAGE_LENGTH; j++) {
+            image[j] = 1000 + j % 4096;
+            previousImage[j] = j % 1000 == 0 ? image[j] + 0.05f : image[j];
+        }
+    }
+
+    @Test
+    @PerfTest(invocations = 100)
+    public void image() {
+        Assert.assertFalse(detector.hasArrayChanged(image, previousImage, false));
+    }
+
+    @Test
+    @PerfTest(invocations = 100)
+    public void primitive() {
+        Assert.assertFalse(detector.hasArrayChanged(value, previous, false));
+    }
+
+    @Test
+    @PerfTest(invocations = 100)
+    public void string() {
+        boolean hasChanged = false;
+        final String[] val = ArrayUtils.toStringArray(value);
+        final String[] previousVal = ArrayUtils.toStringArray(previous);
+        for (int j = 0; j < previousVal.length && !hasChanged; j++) {
+            final double valD = Double.parseDouble(val[j]);
+            final double previousValD = Double.parseDouble(previousVal[j]);
+            hasChanged = Math.abs(valD - previousValD) >= 0.1;
+            if (!hasChanged) {
+                final double delta = previousValD == 0 ? valD == 0 ? 0 : 100
+                        : (valD - previousValD) / previousValD * 100.0;
+                hasChanged = Math.abs(delta) >= 1;
+            }
+        }
+        Assert.assertFalse(hasChanged);
+    }
+}
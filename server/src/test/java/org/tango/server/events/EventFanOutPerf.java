@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) :     2012
+ *
+ * 	Synchrotron Soleil
+ * 	L'Orme des merisiers
+ * 	Saint Aubin
+ * 	BP48
+ * 	91192 GIF-SUR-YVETTE CEDEX
+ *
+ * This file is part of Tango.
+ *
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.AfterClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+
+import fr.esrf.Tango.AttrDataFormat;
+import fr.esrf.Tango.AttrQuality;
+import fr.esrf.Tango.AttrValUnion;
+import fr.esrf.Tango.AttributeDim;
+import fr.esrf.Tango.AttributeValue_5;
+import fr.esrf.Tango.DevError;
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.Tango.TimeVal;
+import fr.esrf.TangoDs.TangoConst;
+
+/**
+ * Publish cost of a 2 MB spectrum event against the number of event endpoints: marshall once and fan out, versus
+ * marshall for each endpoint.
+ */
+@RunWith(Parameterized.class)
+public class EventFanOutPerf {
+
+    private static final ZContext CONTEXT = new ZContext();
+    private static final AtomicInteger ENDPOINT_ID = new AtomicInteger();
+    private static final String EVENT_NAME = "tango://localhost:10000/test/fanout/1/spectrum.idl5_change";
+
+    @Rule
+    public ContiPerfRule i = new ContiPerfRule();
+
+    private final int nbEndpoints;
+    private final AttributeValue_5 value;
+    private final List<ZMQ.Socket> sockets = new ArrayList<ZMQ.Socket>();
+    private int counter;
+
+    @Parameterized.Parameters(name = "{index}: {0} endpoints")
+    public static List<Object[]> getParametres() {
+        return Arrays.asList(new Object[][] { { 1 }, { 2 }, { 4 } });
+    }
+
+    public EventFanOutPerf(final int nbEndpoints) {
+        this.nbEndpoints = nbEndpoints;
+        final double[] data = new double[256 * 1024];
+        Arrays.fill(data, 3.14);
+        final AttrValUnion union = new AttrValUnion();
+        union.double_att_value(data);
+        value = new AttributeValue_5(union, AttrQuality.ATTR_VALID, AttrDataFormat.SPECTRUM, TangoConst.Tango_DEV_DOUBLE,
+                new TimeVal(0, 0, 0), "spectrum", new AttributeDim(data.length, 0), new AttributeDim(0, 0),
+                new DevError[0]);
+        // no @Before: ContiPerfRule does not support it with this JUnit version
+        for (int j = 0; j < nbEndpoints; j++) {
+            final ZMQ.Socket socket = CONTEXT.createSocket(ZMQ.PUB);
+            socket.setLinger(0);
+            socket.bind("inproc://fanout-perf-" + ENDPOINT_ID.incrementAndGet());
+            sockets.add(socket);
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        CONTEXT.destroy();
+    }
+
+    @Test
+    @PerfTest(invocations = 200)
+    public void marshallOnce() throws DevFailed {
+        EventUtilities.sendToSockets(sockets, EVENT_NAME, counter++, EventUtilities.marshallIDL5(value));
+    }
+
+    @Test
+    @PerfTest(invocations = 200)
+    public void marshallPerEndpoint() throws DevFailed {
+        for (final ZMQ.Socket socket : sockets) {
+            EventUtilities.sendToSocket(socket, EVENT_NAME, counter++, EventUtilities.marshallIDL5(value));
+        }
+    }
+}
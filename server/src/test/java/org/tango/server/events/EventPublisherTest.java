@@ -0,0 +1,63 @@
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.zeromq.ZContext;
+import org.zeromq.ZMQ;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class EventPublisherTest {
+
+    private ZContext context;
+    private ZMQ.Socket sender;
+    private ZMQ.Socket receiver;
+
+    @Before
+    public void before() {
+        context = new ZContext();
+        receiver = context.createSocket(ZMQ.PULL);
+        receiver.bind("inproc://event-publisher-test");
+        sender = context.createSocket(ZMQ.PUSH);
+        sender.connect("inproc://event-publisher-test");
+    }
+
+    @After
+    public void after() {
+        context.destroy();
+    }
+
+    @Test
+    public void dropWhenQueueIsFull() throws DevFailed {
+        final EventPublisher publisher = new EventPublisher(Collections.singletonList(sender), 1);
+        // not started: nothing is consumed
+        publisher.send("event", 0, new byte[]{1});
+        publisher.send("event", 1, new byte[]{2});
+        assertEquals(1, publisher.getQueueSize());
+        assertEquals(1, publisher.getDroppedEvents());
+    }
+
+    @Test
+    public void publish() throws DevFailed {
+        final EventPublisher publisher = new EventPublisher(Collections.singletonList(sender), 10);
+        publisher.start();
+        try {
+            publisher.send("event", 0, new byte[]{1, 2, 3});
+            assertEquals("event", receiver.recvStr());
+            assertTrue(receiver.hasReceiveMore());
+            receiver.recv(); // endianness
+            receiver.recv(); // call info
+            assertArrayEquals(new byte[]{1, 2, 3}, receiver.recv());
+            assertFalse(receiver.hasReceiveMore());
+        } finally {
+            publisher.close();
+        }
+        assertEquals(1, publisher.getSentEvents());
+        assertEquals(0, publisher.getDroppedEvents());
+        assertEquals(0, publisher.getQueueSize());
+    }
+}
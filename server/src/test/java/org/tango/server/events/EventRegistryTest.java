@@ -0,0 +1,44 @@
+package org.tango.server.events;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Test;
+import org.tango.server.servant.DeviceImpl;
+
+import static org.junit.Assert.*;
+
+public class EventRegistryTest {
+
+    @Test
+    public void subscribeAndGet() throws DevFailed {
+        final EventRegistry registry = new EventRegistry();
+        assertTrue(registry.isEmpty());
+        final EventImpl event = registry.subscribe("Test/Device/1", "Attr", EventType.CHANGE_EVENT, 4,
+                () -> new EventImpl(4, "change4"));
+        assertSame(event, registry.get("test/device/1", "attr", EventType.CHANGE_EVENT, 4));
+        assertNull(registry.get("test/device/1", "attr", EventType.CHANGE_EVENT, DeviceImpl.SERVER_VERSION));
+        assertNull(registry.get("test/device/1", "attr", EventType.ARCHIVE_EVENT, 4));
+        assertNull(registry.get("test/device/1", "other", EventType.CHANGE_EVENT, 4));
+        // already subscribed: not created again
+        assertSame(event, registry.subscribe("test/device/1", "ATTR", EventType.CHANGE_EVENT, 4, () -> {
+            throw new IllegalStateException("should not be created");
+        }));
+        assertTrue(registry.hasSubscriber("TEST/DEVICE/1"));
+        assertFalse(registry.hasSubscriber("test/device/11"));
+        assertFalse(registry.hasSubscriber("test/device"));
+    }
+
+    @Test
+    public void deviceEvent() throws DevFailed {
+        final EventRegistry registry = new EventRegistry();
+        final EventImpl event = registry.subscribe("test/device/1", null, EventType.INTERFACE_CHANGE_EVENT,
+                DeviceImpl.SERVER_VERSION, () -> new EventImpl(DeviceImpl.SERVER_VERSION, "intf"));
+        assertSame(event, registry.get("test/device/1", null, EventType.INTERFACE_CHANGE_EVENT,
+                DeviceImpl.SERVER_VERSION));
+        // still subscribed
+        registry.removeExpired();
+        assertSame(event, registry.get("test/device/1", null, EventType.INTERFACE_CHANGE_EVENT,
+                DeviceImpl.SERVER_VERSION));
+        registry.clear();
+        assertFalse(registry.hasSubscriber("test/device/1"));
+    }
+}
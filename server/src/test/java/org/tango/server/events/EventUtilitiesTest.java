@@ -0,0 +1,50 @@
+package org.tango.server.events;
+
+import fr.esrf.Tango.*;
+import fr.esrf.TangoDs.TangoConst;
+import org.jacorb.orb.CDROutputStream;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class EventUtilitiesTest {
+
+    private static AttributeValue_5 buildValue(final int length) {
+        final double[] data = new double[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = i * 0.5;
+        }
+        final AttrValUnion union = new AttrValUnion();
+        union.double_att_value(data);
+        return new AttributeValue_5(union, AttrQuality.ATTR_VALID, AttrDataFormat.SPECTRUM, TangoConst.Tango_DEV_DOUBLE,
+                new TimeVal(1, 2, 0), "spectrum", new AttributeDim(length, 0), new AttributeDim(0, 0), new DevError[0]);
+    }
+
+    private static byte[] reference(final AttributeValue_5 value) {
+        final CDROutputStream os = new CDROutputStream();
+        try {
+            AttributeValue_5Helper.write(os, value);
+            final byte[] body = os.getBufferCopy();
+            final byte[] expected = new byte[body.length + 4];
+            expected[0] = (byte) 0xc0;
+            expected[1] = (byte) 0xde;
+            expected[2] = (byte) 0xc0;
+            expected[3] = (byte) 0xde;
+            System.arraycopy(body, 0, expected, 4, body.length);
+            return expected;
+        } finally {
+            os.close();
+        }
+    }
+
+    @Test
+    public void marshallIsSameAsCopyAndAlign() throws DevFailed {
+        // big value first to keep a large encoding buffer, then smaller ones reusing it
+        for (final int length : Arrays.asList(100000, 10, 0, 5000)) {
+            final AttributeValue_5 value = buildValue(length);
+            assertArrayEquals(reference(value), EventUtilities.marshallIDL5(value));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.tango.server.events;
+
+import fr.esrf.TangoDs.TangoConst;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NumberChangeDetectorTest {
+
+    @Test
+    public void absolute() {
+        final NumberChangeDetector detector = new NumberChangeDetector();
+        detector.setCriteria("1", "Not specified");
+        assertFalse(detector.hasScalarChanged(10.5, 10.0, false));
+        assertTrue(detector.hasScalarChanged(11.0, 10.0, false));
+        assertTrue(detector.hasScalarChanged(9, 10, false));
+        assertFalse(detector.hasArrayChanged(new double[]{1, 2, 3}, new double[]{1, 2.5, 3}, false));
+        assertTrue(detector.hasArrayChanged(new float[]{1, 2, 3}, new float[]{1, 2, 5}, false));
+        assertTrue(detector.hasArrayChanged(new int[]{1, 2}, new int[]{1, 2, 3}, false));
+        assertFalse(detector.hasArrayChanged(new Double[]{1.0, 2.0}, new Double[]{1.0, 2.0}, false));
+    }
+
+    @Test
+    public void relative() {
+        final NumberChangeDetector detector = new NumberChangeDetector();
+        detector.setCriteria("Not specified", "10");
+        assertFalse(detector.hasScalarChanged(105, 100, false));
+        assertTrue(detector.hasScalarChanged(110, 100, false));
+        assertFalse(detector.hasArrayChanged(new long[]{105, 0}, new long[]{100, 0}, false));
+        assertTrue(detector.hasArrayChanged(new long[]{105, 1}, new long[]{100, 0}, false));
+        // was computed as value - previous * 100 / previous
+        assertFalse(detector.hasArrayChanged(new double[]{1000.5}, new double[]{1000}, false));
+    }
+
+    @Test
+    public void unsigned() {
+        final NumberChangeDetector detector = new NumberChangeDetector();
+        detector.setCriteria("10", "Not specified");
+        assertTrue(NumberChangeDetector.isUnsigned(TangoConst.Tango_DEV_USHORT));
+        assertFalse(NumberChangeDetector.isUnsigned(TangoConst.Tango_DEV_SHORT));
+        // 65535 and 65534 as unsigned, -1 and -2 as signed
+        assertFalse(detector.hasArrayChanged(new short[]{-1}, new short[]{-2}, true));
+        // 32768 and 32767 as unsigned, -32768 and 32767 as signed
+        assertFalse(detector.hasArrayChanged(new short[]{Short.MIN_VALUE}, new short[]{Short.MAX_VALUE}, true));
+        assertTrue(detector.hasArrayChanged(new short[]{Short.MIN_VALUE}, new short[]{Short.MAX_VALUE}, false));
+        assertFalse(detector.hasScalarChanged((byte) -128, (byte) 127, true));
+        assertFalse(detector.hasArrayChanged(new long[]{Long.MIN_VALUE}, new long[]{Long.MAX_VALUE}, true));
+        assertFalse(detector.hasArrayChanged(new int[]{Integer.MIN_VALUE}, new int[]{Integer.MAX_VALUE}, true));
+    }
+
+    @Test
+    public void largeArray() {
+        final NumberChangeDetector detector = new NumberChangeDetector();
+        detector.setCriteria("2", "Not specified");
+        final int[] value = new int[999];
+        final int[] previous = new int[999];
+        // small differences spread over several evaluation blocks
+        for (int i = 0; i < value.length; i += 3) {
+            value[i] = 1;
+            previous[i] = 0;
+            value[i + 1] = -1;
+        }
+        assertFalse(detector.hasArrayChanged(value, previous, false));
+        value[998] = 2;
+        assertTrue(detector.hasArrayChanged(value, previous, false));
+        value[998] = 0;
+        value[997] = 3;
+        assertTrue(detector.hasArrayChanged(value, previous, false));
+    }
+
+    @Test
+    public void zeroCriteria() {
+        final NumberChangeDetector detector = new NumberChangeDetector();
+        detector.setCriteria("0", "Not specified");
+        assertTrue(detector.hasArrayChanged(new double[]{1, 2}, new double[]{1, 2}, false));
+        assertFalse(detector.hasArrayChanged(new double[0], new double[0], false));
+        detector.setCriteria("1", "Not specified");
+        assertFalse(detector.hasArrayChanged(new double[]{1, 2}, new double[]{1, 2}, false));
+    }
+}
@@ -0,0 +1,120 @@
+package org.tango.server.export;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Before;
+import org.junit.Test;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.annotation.Device;
+import org.tango.server.annotation.DeviceManagement;
+import org.tango.server.annotation.DynamicManagement;
+import org.tango.server.build.DeviceClassBuilder;
+import org.tango.server.device.DeviceManager;
+import org.tango.server.dynamic.DynamicManager;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParallelDeviceBuilderTest {
+
+    private static final String[] GOOD_DEVICES = new String[]{"test/build/1", "test/build/2"};
+    private static final String BROKEN_DEVICE = "test/broken/1";
+
+    @Before
+    public void setUp() {
+        DatabaseFactory.setNoDbDevices(new String[]{GOOD_DEVICES[0], GOOD_DEVICES[1], BROKEN_DEVICE}, "Build");
+    }
+
+    @Test
+    public void errorsOfDeviceCodeAreKept() throws DevFailed {
+        final ParallelDeviceBuilder builder = new ParallelDeviceBuilder(2);
+        builder.add(new DeviceClassBuilder(Broken.class, "Broken"), new String[]{BROKEN_DEVICE});
+        builder.add(new DeviceClassBuilder(Good.class, "Good"), GOOD_DEVICES);
+
+        final List<ParallelDeviceBuilder.DeviceBuild> builds = builder.build();
+
+        assertEquals(3, builds.size());
+        assertNull(builds.get(0).getDevice());
+        assertNotNull(builds.get(0).getError());
+        for (final ParallelDeviceBuilder.DeviceBuild build : builds.subList(1, builds.size())) {
+            assertNotNull(build.getDevice());
+            assertNull(build.getError());
+            build.getDevice().deleteDevice();
+        }
+    }
+
+    @Test
+    public void dynamicManagersAreNotSharedBetweenDevices() throws DevFailed {
+        final String[] devices = new String[]{"test/dynamic/1", "test/dynamic/2", "test/dynamic/3", "test/dynamic/4"};
+        DatabaseFactory.setNoDbDevices(devices, "Dynamic");
+        final ParallelDeviceBuilder builder = new ParallelDeviceBuilder(2);
+        builder.add(new DeviceClassBuilder(Dynamic.class, "Dynamic"), devices);
+
+        final Set<DynamicManager> managers = Collections.newSetFromMap(new IdentityHashMap<DynamicManager, Boolean>());
+        for (final ParallelDeviceBuilder.DeviceBuild build : builder.build()) {
+            assertNull(build.getError());
+            final Dynamic device = (Dynamic) build.getDevice().getBusinessObject();
+            assertNotNull(device.dynamicManager);
+            assertSame(device.getBaseManager(), device.dynamicManager);
+            managers.add(device.dynamicManager);
+            build.getDevice().deleteDevice();
+        }
+        assertEquals(devices.length, managers.size());
+    }
+
+    @Device
+    public static final class Good {
+    }
+
+    @Device
+    public static class DynamicBase {
+        private static final AtomicBoolean FIRST_BUILD = new AtomicBoolean(true);
+
+        @DynamicManagement
+        private DynamicManager baseManager;
+        @DeviceManagement
+        private DeviceManager deviceManager;
+
+        public DynamicManager getBaseManager() {
+            return baseManager;
+        }
+
+        public void setBaseManager(final DynamicManager baseManager) {
+            this.baseManager = baseManager;
+        }
+
+        public void setDeviceManager(final DeviceManager deviceManager) throws InterruptedException {
+            this.deviceManager = deviceManager;
+            // built after the dynamic manager: let the other builds run before the sub class gets it
+            if (FIRST_BUILD.getAndSet(false)) {
+                Thread.sleep(300);
+            }
+        }
+    }
+
+    @Device
+    public static final class Dynamic extends DynamicBase {
+        @DynamicManagement
+        private DynamicManager dynamicManager;
+
+        public void setDynamicManager(final DynamicManager dynamicManager) {
+            this.dynamicManager = dynamicManager;
+        }
+    }
+
+    @Device
+    public static final class Broken {
+        static {
+            if (Boolean.TRUE) {
+                throw new IllegalStateException("broken static init");
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.tango.server.history;
+
+import org.junit.Test;
+import org.tango.server.Constants;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.Tango.DevSource;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class DeviceBlackBoxTest {
+
+    @Test(expected = DevFailed.class)
+    public void empty() throws DevFailed {
+        new DeviceBlackBox().toArray(10);
+    }
+
+    @Test
+    public void lastRequestsFirst() throws DevFailed {
+        final DeviceBlackBox blackBox = new DeviceBlackBox();
+        for (int i = 0; i < Constants.QUEUE_CAPACITY + 10; i++) {
+            blackBox.insertInblackBox("read_attributes_5", new String[] { "attr" + i }, DevSource.CACHE_DEV, null);
+        }
+        final String[] result = blackBox.toArray(Constants.QUEUE_CAPACITY * 2);
+        assertThat(result.length, equalTo(Constants.QUEUE_CAPACITY));
+        final int last = Constants.QUEUE_CAPACITY + 9;
+        assertTrue(result[0], result[0].endsWith(" : read_attributes_5 [attr" + last + "] from CACHE_DEV"));
+        assertThat(blackBox.toArray(3).length, equalTo(3));
+    }
+}
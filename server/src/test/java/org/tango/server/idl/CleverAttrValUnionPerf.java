@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.idl;
+
+import java.lang.reflect.Method;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import fr.esrf.Tango.AttrDataFormat;
+import fr.esrf.Tango.AttrValUnion;
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.TangoDs.TangoConst;
+
+/**
+ * Insertion and extraction of scalar doubles in an AttrValUnion: precompiled method handles versus the previous
+ * reflective lookup at each call.
+ */
+public class CleverAttrValUnionPerf {
+
+    private static final int LOOPS = 10000;
+
+    @Rule
+    public ContiPerfRule i = new ContiPerfRule();
+
+    @Test
+    @PerfTest(invocations = 100)
+    public void methodHandles() throws DevFailed {
+        double sum = 0;
+        for (int j = 0; j < LOOPS; j++) {
+            final AttrValUnion union = CleverAttrValUnion.set(TangoConst.Tango_DEV_DOUBLE, 1.0);
+            sum += (Double) CleverAttrValUnion.get(union, AttrDataFormat.SCALAR);
+        }
+        Assert.assertEquals(LOOPS, sum, 0);
+    }
+
+    @Test
+    @PerfTest(invocations = 100)
+    public void reflection() throws Exception {
+        double sum = 0;
+        for (int j = 0; j < LOOPS; j++) {
+            final AttrValUnion union = new AttrValUnion();
+            final Method setter = union.getClass().getMethod("double_att_value", double[].class);
+            setter.invoke(union, new double[] { 1.0 });
+            final Method getter = union.getClass().getMethod("double_att_value");
+            sum += ((double[]) getter.invoke(union))[0];
+        }
+        Assert.assertEquals(LOOPS, sum, 0);
+    }
+}
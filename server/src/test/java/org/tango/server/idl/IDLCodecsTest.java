@@ -0,0 +1,37 @@
+package org.tango.server.idl;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.TangoDs.TangoConst;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class IDLCodecsTest {
+
+    @Test
+    public void acceptsBoxedAndWidenedPrimitives() {
+        assertTrue(IDLCodecs.accepts(1, int.class));
+        assertTrue(IDLCodecs.accepts((byte) 1, short.class));
+        assertTrue(IDLCodecs.accepts(new double[]{1.0}, double[].class));
+    }
+
+    @Test
+    public void rejectsOtherTypes() {
+        assertFalse(IDLCodecs.accepts("1", int.class));
+        assertFalse(IDLCodecs.accepts(1L, int.class));
+        assertFalse(IDLCodecs.accepts(new double[]{1.0}, int[].class));
+    }
+
+    @Test
+    public void setsUnion() throws DevFailed {
+        assertArrayEquals(new double[]{1.0, 2.0}, CleverAttrValUnion.set(TangoConst.Tango_DEV_DOUBLE,
+                new double[]{1.0, 2.0}).double_att_value(), 0);
+    }
+
+    @Test(expected = DevFailed.class)
+    public void setUnionWithWrongType() throws DevFailed {
+        CleverAttrValUnion.set(TangoConst.Tango_DEV_DOUBLE, new int[]{1, 2});
+    }
+}
@@ -0,0 +1,26 @@
+package org.tango.server.monitoring;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.Tango.DevSource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class DeviceMonitoringTest {
+
+    private static final String DEVICE = "test/monitoring/request";
+
+    @Test
+    public void requestTextIsNotTheHistogramName() throws DevFailed {
+        final DeviceMonitoring monitoring = new DeviceMonitoring(DEVICE);
+        monitoring.startRequest("command_inout_4", "Operation command_inout_4 (cmd = Init)", null, DevSource.DEV,
+                null).close();
+
+        assertTrue(monitoring.getBlackBox(1)[0].contains("Operation command_inout_4 (cmd = Init)"));
+        boolean found = false;
+        for (final String percentiles : TangoStats.getInstance().getDeviceRequestDurationPercentiles()) {
+            found |= percentiles.startsWith(DEVICE + " command_inout_4: count=");
+        }
+        assertTrue(found);
+    }
+}
@@ -0,0 +1,53 @@
+package org.tango.server.monitoring;
+
+import org.junit.Test;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void buckets() {
+        for (long value = 0; value < 100000; value++) {
+            final int index = LatencyHistogram.getIndex(value);
+            assertTrue(value + " <= " + LatencyHistogram.getHighestValue(index),
+                    value <= LatencyHistogram.getHighestValue(index));
+            // precision of 1/8
+            assertTrue(LatencyHistogram.getHighestValue(index) - value <= value / 8);
+        }
+        assertThat(LatencyHistogram.getIndex(Long.MAX_VALUE), equalTo(LatencyHistogram.BUCKETS - 1));
+    }
+
+    @Test
+    public void percentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        final long[] counts = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(counts);
+        final long median = LatencyHistogram.getValueAtPercentile(counts, 50);
+        assertTrue(Long.toString(median), median >= 500 && median <= 500 * 9 / 8);
+        final long max = LatencyHistogram.getValueAtPercentile(counts, 100);
+        assertTrue(Long.toString(max), max >= 1000 && max <= 1000 * 9 / 8);
+        assertTrue(LatencyHistogram.format("read", counts).startsWith("read: count=1000, p50="));
+
+        histogram.reset();
+        final long[] empty = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(empty);
+        assertThat(LatencyHistogram.getValueAtPercentile(empty, 99), equalTo(0L));
+    }
+
+    @Test
+    public void recordsAfterReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(10);
+        histogram.reset();
+        histogram.record(20);
+        final long[] counts = new long[LatencyHistogram.BUCKETS];
+        histogram.addTo(counts);
+        assertTrue(LatencyHistogram.format("read", counts).startsWith("read: count=1, "));
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) :     2012
+ * <p>
+ * Synchrotron Soleil
+ * L'Orme des merisiers
+ * Saint Aubin
+ * BP48
+ * 91192 GIF-SUR-YVETTE CEDEX
+ * <p>
+ * This file is part of Tango.
+ * <p>
+ * Tango is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * Tango is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with Tango.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.tango.server.performance;
+
+import java.lang.management.ManagementFactory;
+
+import org.databene.contiperf.PerfTest;
+import org.databene.contiperf.junit.ContiPerfRule;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tango.server.InvocationContext;
+import org.tango.server.InvocationContext.CallType;
+import org.tango.server.InvocationContext.ContextType;
+import org.tango.server.device.AroundInvokeImpl;
+
+import fr.esrf.Tango.DevFailed;
+
+/**
+ * Around invoke calls of a read of 100 attributes on a device without around invoke method: contexts created only
+ * when needed versus a context created for each call.
+ */
+public class AroundInvokePerf {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AroundInvokePerf.class);
+    private static final int ATTRIBUTES = 100;
+    private static final String[] NAMES = new String[ATTRIBUTES];
+
+    static {
+        for (int j = 0; j < ATTRIBUTES; j++) {
+            NAMES[j] = "attribute" + j;
+        }
+    }
+
+    private final AroundInvokeImpl aroundInvoke = new AroundInvokeImpl(new Object(), null);
+    /**
+     * Keeps the contexts reachable, as a device method would, so that the JIT cannot remove their allocation
+     */
+    private InvocationContext lastContext;
+
+    @Rule
+    public ContiPerfRule i = new ContiPerfRule();
+
+    private void readWithoutContexts() throws DevFailed {
+        aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTES, CallType.DEV, null, NAMES);
+        for (final String name : NAMES) {
+            aroundInvoke.aroundInvoke(ContextType.PRE_READ_ATTRIBUTE, CallType.DEV, null, name);
+            aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTE, CallType.DEV, null, name);
+        }
+        aroundInvoke.aroundInvoke(ContextType.POST_READ_ATTRIBUTES, CallType.DEV, null, NAMES);
+    }
+
+    private void readWithContexts() throws DevFailed {
+        aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTES, CallType.DEV, null, NAMES));
+        for (final String name : NAMES) {
+            aroundInvoke(new InvocationContext(ContextType.PRE_READ_ATTRIBUTE, CallType.DEV, null, name));
+            aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTE, CallType.DEV, null, name));
+        }
+        aroundInvoke(new InvocationContext(ContextType.POST_READ_ATTRIBUTES, CallType.DEV, null, NAMES));
+    }
+
+    private void aroundInvoke(final InvocationContext context) throws DevFailed {
+        lastContext = context;
+        aroundInvoke.aroundInvoke(context);
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread
+                .currentThread().getId());
+    }
+
+    @Test
+    @PerfTest(invocations = 10000)
+    public void withoutContexts() throws DevFailed {
+        readWithoutContexts();
+    }
+
+    @Test
+    @PerfTest(invocations = 10000)
+    public void withContexts() throws DevFailed {
+        readWithContexts();
+    }
+
+    /**
+     * Compare the memory allocated by both ways. The contexts created for each call are kept reachable, so they are
+     * really allocated.
+     */
+    @Test
+    public void allocation() throws DevFailed {
+        for (int j = 0; j < 1000; j++) {
+            readWithoutContexts();
+            readWithContexts();
+        }
+        long start = allocatedBytes();
+        for (int j = 0; j < 1000; j++) {
+            readWithoutContexts();
+        }
+        final long without = allocatedBytes() - start;
+        start = allocatedBytes();
+        for (int j = 0; j < 1000; j++) {
+            readWithContexts();
+        }
+        final long with = allocatedBytes() - start;
+        LOGGER.info("bytes allocated per read of {} attributes: {} without contexts, {} with contexts", ATTRIBUTES,
+                without / 1000, with / 1000);
+        Assert.assertTrue(with > 0);
+        Assert.assertTrue(without * 10 < with);
+    }
+}
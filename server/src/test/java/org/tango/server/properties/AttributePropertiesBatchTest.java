@@ -0,0 +1,68 @@
+package org.tango.server.properties;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Before;
+import org.junit.Test;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.Constants;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class AttributePropertiesBatchTest {
+
+    private static final String DEVICE = "test/properties/batch";
+
+    private static Map<String, String[]> property(final String name, final String value) {
+        return Collections.singletonMap(name, new String[]{value});
+    }
+
+    private static String[] getProperty(final String attributeName, final String name) throws DevFailed {
+        return DatabaseFactory.getDatabase().getAttributeProperties(DEVICE, attributeName).get(name);
+    }
+
+    @Before
+    public void setUp() {
+        DatabaseFactory.setNoDbDevices(new String[]{DEVICE}, "PropertiesBatch");
+    }
+
+    @Test
+    public void persistsAllAttributes() throws DevFailed {
+        final AttributePropertiesBatch batch = new AttributePropertiesBatch(DEVICE);
+        batch.add("first", property(Constants.UNIT, "mm"));
+        batch.add("second", property(Constants.UNIT, "s"));
+
+        assertNull(getProperty("first", Constants.UNIT));
+
+        batch.persist();
+
+        assertArrayEquals(new String[]{"mm"}, getProperty("first", Constants.UNIT));
+        assertArrayEquals(new String[]{"s"}, getProperty("second", Constants.UNIT));
+    }
+
+    @Test
+    public void keepsLastValueOfAnAttribute() throws DevFailed {
+        final AttributePropertiesBatch batch = new AttributePropertiesBatch(DEVICE);
+        batch.add("attr", property(Constants.UNIT, "mm"));
+        batch.add("attr", property(Constants.LABEL, "position"));
+        batch.add("attr", property(Constants.UNIT, "um"));
+        batch.persist();
+
+        assertArrayEquals(new String[]{"um"}, getProperty("attr", Constants.UNIT));
+        assertArrayEquals(new String[]{"position"}, getProperty("attr", Constants.LABEL));
+    }
+
+    @Test
+    public void writesOnlyModifiedProperties() throws DevFailed {
+        DatabaseFactory.getDatabase().setAttributeProperties(DEVICE, "attr", property(Constants.UNIT, "mm"));
+        final AttributePropertiesBatch batch = new AttributePropertiesBatch(DEVICE);
+        // an empty value does not replace a value of tango db
+        batch.add("attr", property(Constants.UNIT, ""));
+        batch.persist();
+
+        assertArrayEquals(new String[]{"mm"}, getProperty("attr", Constants.UNIT));
+    }
+}
@@ -0,0 +1,102 @@
+package org.tango.server.properties;
+
+import fr.esrf.Tango.DevFailed;
+import org.junit.Before;
+import org.junit.Test;
+import org.tango.client.database.DatabaseFactory;
+import org.tango.server.Constants;
+import org.tango.server.monitoring.TangoStats;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MemorizedValueWriterTest {
+
+    private static final String DEVICE = "test/memorized/writer";
+
+    private static Map<String, String[]> value(final String... value) {
+        return Collections.singletonMap(Constants.MEMORIZED_VALUE, value);
+    }
+
+    private static String[] getMemorized(final String attributeName) throws DevFailed {
+        return DatabaseFactory.getDatabase().getAttributeProperties(DEVICE, attributeName)
+                .get(Constants.MEMORIZED_VALUE);
+    }
+
+    @Before
+    public void setUp() {
+        DatabaseFactory.setNoDbDevices(new String[]{DEVICE}, "MemorizedWriter");
+        TangoStats.getInstance().resetStats();
+    }
+
+    @Test
+    public void writesImmediatelyWithoutPeriod() throws DevFailed {
+        final MemorizedValueWriter writer = new MemorizedValueWriter(0);
+        writer.memorize(DEVICE, "direct", value("1"));
+
+        assertFalse(writer.hasPendings());
+        assertArrayEquals(new String[]{"1"}, getMemorized("direct"));
+    }
+
+    @Test
+    public void writesOnlyLastValueAtFlush() throws DevFailed {
+        final MemorizedValueWriter writer = new MemorizedValueWriter(Long.MAX_VALUE);
+        writer.memorize(DEVICE, "batched", value("1"));
+        writer.memorize(DEVICE, "BATCHED", value("2", "3"));
+
+        assertTrue(writer.hasPendings());
+        assertNull(getMemorized("batched"));
+
+        writer.flush();
+
+        assertFalse(writer.hasPendings());
+        assertArrayEquals(new String[]{"2", "3"}, getMemorized("BATCHED"));
+    }
+
+    @Test
+    public void pendingValueIsReadable() throws DevFailed {
+        final MemorizedValueWriter writer = new MemorizedValueWriter(Long.MAX_VALUE);
+        writer.memorize(DEVICE, "pending", value("1"));
+        writer.memorize(DEVICE, "PENDING", value("2"));
+
+        assertArrayEquals(new String[]{"2"}, writer.getPending(DEVICE, "Pending").get(Constants.MEMORIZED_VALUE));
+        assertNull(writer.getPending(DEVICE, "other"));
+
+        writer.flush();
+
+        assertNull(writer.getPending(DEVICE, "pending"));
+    }
+
+    @Test
+    public void flushesAllAttributesOfAllDevices() throws DevFailed {
+        final MemorizedValueWriter writer = new MemorizedValueWriter(Long.MAX_VALUE);
+        writer.memorize(DEVICE, "first", value("1"));
+        writer.memorize(DEVICE, "second", value("2"));
+        writer.memorize("test/memorized/other", "third", value("3"));
+        writer.flush();
+
+        assertFalse(writer.hasPendings());
+        assertArrayEquals(new String[]{"1"}, getMemorized("first"));
+        assertArrayEquals(new String[]{"2"}, getMemorized("second"));
+        assertArrayEquals(new String[]{"3"}, DatabaseFactory.getDatabase()
+                .getAttributeProperties("test/memorized/other", "third").get(Constants.MEMORIZED_VALUE));
+    }
+
+    @Test
+    public void recordsFlushLag() throws DevFailed {
+        final MemorizedValueWriter writer = new MemorizedValueWriter(Long.MAX_VALUE);
+        writer.memorize(DEVICE, "lag", value("1"));
+        writer.flush();
+
+        boolean found = false;
+        for (final String percentiles : TangoStats.getInstance().getDeviceRequestDurationPercentiles()) {
+            found |= percentiles.startsWith(DEVICE + " memorized_flush_lag: count=1");
+        }
+        assertTrue(found);
+    }
+}
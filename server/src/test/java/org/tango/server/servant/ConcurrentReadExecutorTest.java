@@ -0,0 +1,48 @@
+package org.tango.server.servant;
+
+import org.junit.After;
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentReadExecutorTest {
+
+    @After
+    public void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    public void callerReadsWhenQueueIsFull() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final CountDownLatch release = new CountDownLatch(1);
+        MDC.put("deviceName", "test/read/caller");
+        try {
+            for (int i = 0; i < 100000; i++) {
+                final Future<Boolean> read = ConcurrentReadExecutor.submit(() -> {
+                    if (Thread.currentThread() == caller) {
+                        MDC.put("deviceName", "test/read/other");
+                        return true;
+                    }
+                    release.await();
+                    return false;
+                });
+                if (read.isDone()) {
+                    assertTrue(read.get());
+                    // the logging context of the caller is restored after its own read
+                    assertEquals("test/read/caller", MDC.get("deviceName"));
+                    return;
+                }
+            }
+            fail("reads never run by the caller");
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.tango.server.servant;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class NamedListTest {
+
+    @Test
+    public void getByName() {
+        final NamedList<String> list = new NamedList<String>(s -> s);
+        list.addAll(Arrays.asList("Current", "voltage", "State"));
+        assertThat(list.get("current"), equalTo("Current"));
+        assertThat(list.get("VOLTAGE"), equalTo("voltage"));
+        assertNull(list.get("power"));
+        assertNull(list.get(null));
+    }
+
+    @Test
+    public void indexFollowsModifications() {
+        final NamedList<String> list = new NamedList<String>(s -> s);
+        list.addAll(Arrays.asList("a", "b", "c"));
+        list.remove("b");
+        assertNull(list.get("b"));
+        list.set(0, "d");
+        assertNull(list.get("a"));
+        assertThat(list.get("D"), equalTo("d"));
+        final Iterator<String> it = list.iterator();
+        it.next();
+        it.remove();
+        assertNull(list.get("d"));
+        assertThat(list, equalTo(Arrays.asList("c")));
+        list.clear();
+        assertNull(list.get("c"));
+    }
+}
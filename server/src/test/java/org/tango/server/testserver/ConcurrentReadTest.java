@@ -0,0 +1,37 @@
+package org.tango.server.testserver;
+
+import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.junit.Assert.assertThat;
+
+import org.hamcrest.core.IsNot;
+import org.junit.Test;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.TangoApi.DeviceAttribute;
+import fr.esrf.TangoApi.DeviceProxy;
+
+/**
+ * Test the attributes declared with concurrent read
+ */
+public class ConcurrentReadTest extends NoDBDeviceManager {
+
+    @Test
+    public void readAlone() throws DevFailed {
+        final DeviceProxy dev = new DeviceProxy(deviceName);
+        final DeviceAttribute da = dev.read_attribute("readingThread");
+        assertThat(da.extractString(), IsNot.not(startsWith("Attribute-Read-")));
+    }
+
+    @Test
+    public void readWithOthers() throws DevFailed {
+        final DeviceProxy dev = new DeviceProxy(deviceName);
+        dev.write_attribute(new DeviceAttribute("intScalar", 12));
+        final DeviceAttribute[] result = dev.read_attribute(new String[]{"intScalar", "readingThread",
+                "shortScalar"});
+        assertThat(result.length, equalTo(3));
+        assertThat(result[0].extractLong(), equalTo(12));
+        assertThat(result[1].extractString(), startsWith("Attribute-Read-"));
+        assertThat(result[2].getName(), equalTo("shortScalar"));
+    }
+}
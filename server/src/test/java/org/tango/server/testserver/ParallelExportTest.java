@@ -0,0 +1,83 @@
+package org.tango.server.testserver;
+
+import fr.esrf.Tango.DevFailed;
+import fr.esrf.TangoApi.DeviceProxy;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tango.server.Constants;
+import org.tango.server.ServerManager;
+import org.tango.server.annotation.Attribute;
+import org.tango.server.annotation.Device;
+import org.tango.server.annotation.Init;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.core.StringStartsWith.startsWith;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelExportTest {
+
+    private static final String[] DEVICES = new String[]{"test/parallel/1", "test/parallel/2", "test/parallel/3",
+            "test/parallel/4", "test/parallel/5", "test/parallel/6"};
+
+    private static int port;
+
+    @BeforeClass
+    public static void startDevices() throws DevFailed, IOException {
+        System.setProperty(Constants.EXPORT_THREADS_PROPERTY, "3");
+        try (ServerSocket ss = new ServerSocket(0)) {
+            ss.setReuseAddress(true);
+            port = ss.getLocalPort();
+        }
+        System.setProperty("OAPort", Integer.toString(port));
+        ServerManager.getInstance().addClass(SlowInit.class.getSimpleName(), SlowInit.class);
+        ServerManager.getInstance().startError(new String[]{"1", "-nodb", "-dlist", String.join(",", DEVICES)},
+                ParallelExportTest.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void stopDevices() throws DevFailed {
+        System.clearProperty(Constants.EXPORT_THREADS_PROPERTY);
+        ServerManager.getInstance().stop();
+    }
+
+    @Test
+    public void devicesAreBuiltInParallel() throws DevFailed {
+        final Set<String> threads = new HashSet<String>();
+        for (final String device : DEVICES) {
+            final String thread = new DeviceProxy("tango://localhost:" + port + "/" + device + "#dbase=no")
+                    .read_attribute("initThread").extractString();
+            assertThat(thread, startsWith("Device-Build-"));
+            threads.add(thread);
+        }
+        assertTrue(threads.size() > 1);
+    }
+
+    @Test
+    public void devicesAreExportedInOrder() throws DevFailed {
+        assertArrayEquals(DEVICES, ServerManager.getInstance().getDevicesOfClass(SlowInit.class.getSimpleName()));
+    }
+
+    @Device
+    public static final class SlowInit {
+
+        private String initThread;
+
+        @Init
+        public void init() throws InterruptedException {
+            initThread = Thread.currentThread().getName();
+            Thread.sleep(200);
+        }
+
+        @Attribute
+        public String getInitThread() {
+            return initThread;
+        }
+    }
+}